@@ -0,0 +1,12 @@
+echo "Sto compilando le classi Java e i benchmark"
+
+domain_file="pddl_instances/esl-domain.pddl"
+problem_files="pddl_instances/esl-p1.pddl pddl_instances/esl-p2.pddl pddl_instances/esl-p3.pddl"
+
+javac -d classes -cp ./lib/pddl4j-4.0.0.jar ./src/esl/*.java ./src/esl/heuristic/*.java ./src/esl/search/*.java ./src/esl/temporal/*.java ./src/esl/decomposition/*.java ./src/utility/*.java ./bench/esl/bench/*.java
+
+echo "Classi compilate"
+echo "Esecuzione benchmark..."
+
+# Gli argomenti sono passati ai benchmark, ad esempio: ./bench.sh -b estimate -o results.csv
+java -Xms1g -Xmx1g -cp classes:lib/pddl4j-4.0.0.jar esl.bench.EslBenchmark $domain_file $problem_files "$@"
@@ -0,0 +1,486 @@
+package esl.bench;
+
+import esl.heuristic.EslHeuristic;
+import esl.heuristic.EstimateComponents;
+import esl.heuristic.HeuristicCache;
+import esl.search.StateSpaceSearch;
+import esl.search.SuccessorGenerator;
+import fr.uga.pddl4j.heuristics.state.StateHeuristic;
+import fr.uga.pddl4j.parser.DefaultParsedProblem;
+import fr.uga.pddl4j.parser.ParsedDomain;
+import fr.uga.pddl4j.parser.ParsedProblem;
+import fr.uga.pddl4j.parser.Parser;
+import fr.uga.pddl4j.planners.SearchStrategy;
+import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.problem.DefaultProblem;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.problem.operator.Condition;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * This class implements the benchmarks of the hot paths of the ESL heuristic and of the search strategies.
+ *
+ * <p>The micro benchmarks run over a fixed sample of states of each problem, the first states reached by a breadth
+ * first exploration of the problem from its initial state: the estimate of the ESL heuristic in each evaluation mode,
+ * the pruning rules of the ESL heuristic on the actions applicable in the states and the decoding of the states into
+ * predicates. Each iteration runs the benchmark over the sample until the iteration time is elapsed, and the time and
+ * the bytes allocated are reported per operation, i.e., per state or per action, as the mean and the standard deviation
+ * of the measured iterations, after the warmup iterations. The search benchmarks run a whole search per iteration,
+ * with a new heuristic each time, and report the time and the bytes allocated per search.</p>
+ *
+ * <p>The benchmarks follow the JMH methodology (warmup, iterations, results consumed by a sink, allocation measured
+ * with the allocation counter of the thread) without depending on JMH, so that they are built and run as the planner
+ * with the PDDL4J jar only, see {@code bench.sh}.</p>
+ *
+ * <pre>
+ * {@code
+ * Usage:
+ *
+ * EslBenchmark [-h] [-b=<filter>] [-i=<iterations>] [-n=<states>] [-o=<file>] [-r=<time>] [-s=<iterations>]
+ *              [-t=<timeout>] [-w=<iterations>] <domain> <problems>...
+ *
+ * Parameters:
+ *       <domain>              The domain file.
+ *       <problems>...         The problem files.
+ *
+ * Options:
+ *   -b, --benchmarks=<filter> Run only the benchmarks whose name matches the
+ *                               regular expression (preset: all).
+ *   -w, --warmup=<iterations> Set the number of warmup iterations of the micro
+ *                               benchmarks (preset: 3).
+ *   -i, --iterations=<iterations>
+ *                             Set the number of measured iterations of the
+ *                               micro benchmarks (preset: 5).
+ *   -r, --time=<time>         Set the minimal time of an iteration of the
+ *                               micro benchmarks in milliseconds (preset: 500).
+ *   -n, --states=<states>     Set the number of states of the sample of each
+ *                               problem (preset: 1000).
+ *   -s, --searches=<iterations>
+ *                             Set the number of measured searches of the
+ *                               search benchmarks, after one warmup search
+ *                               (preset: 3).
+ *   -t, --timeout=<timeout>   Set the timeout of a search in seconds (preset:
+ *                               60).
+ *   -o, --output=<file>       Write the results to the file as CSV.
+ *   -h, --help                Show this help message and exit.
+ * }
+ * </pre>
+ */
+@CommandLine.Command(name = "EslBenchmark",
+    description = "Benchmarks the hot paths of the ESL heuristic and of the search strategies.",
+    sortOptions = false,
+    mixinStandardHelpOptions = true)
+public final class EslBenchmark implements Callable<Integer> {
+
+    /**
+     * The heuristic benchmarked, the one used to solve the ESL problems.
+     */
+    private static final StateHeuristic.Name HEURISTIC = StateHeuristic.Name.AJUSTED_SUM;
+
+    /**
+     * The domain file.
+     */
+    @CommandLine.Parameters(index = "0", paramLabel = "<domain>", description = "The domain file.")
+    private File domain;
+
+    /**
+     * The problem files.
+     */
+    @CommandLine.Parameters(index = "1..*", arity = "1..*", paramLabel = "<problems>",
+        description = "The problem files.")
+    private List<File> problems;
+
+    /**
+     * The regular expression selecting the benchmarks to run.
+     */
+    @CommandLine.Option(names = { "-b", "--benchmarks" }, paramLabel = "<filter>", defaultValue = ".*",
+        description = "Run only the benchmarks whose name matches the regular expression (preset: all).")
+    private String filter;
+
+    /**
+     * The number of warmup iterations of the micro benchmarks.
+     */
+    @CommandLine.Option(names = { "-w", "--warmup" }, paramLabel = "<iterations>", defaultValue = "3",
+        description = "Set the number of warmup iterations of the micro benchmarks (preset: 3).")
+    private int warmup;
+
+    /**
+     * The number of measured iterations of the micro benchmarks.
+     */
+    @CommandLine.Option(names = { "-i", "--iterations" }, paramLabel = "<iterations>", defaultValue = "5",
+        description = "Set the number of measured iterations of the micro benchmarks (preset: 5).")
+    private int iterations;
+
+    /**
+     * The minimal time of an iteration of the micro benchmarks in milliseconds.
+     */
+    @CommandLine.Option(names = { "-r", "--time" }, paramLabel = "<time>", defaultValue = "500",
+        description = "Set the minimal time of an iteration of the micro benchmarks in milliseconds (preset: 500).")
+    private long time;
+
+    /**
+     * The number of states of the sample of each problem.
+     */
+    @CommandLine.Option(names = { "-n", "--states" }, paramLabel = "<states>", defaultValue = "1000",
+        description = "Set the number of states of the sample of each problem (preset: 1000).")
+    private int states;
+
+    /**
+     * The number of measured searches of the search benchmarks.
+     */
+    @CommandLine.Option(names = { "-s", "--searches" }, paramLabel = "<iterations>", defaultValue = "3",
+        description = "Set the number of measured searches of the search benchmarks, after one warmup search "
+            + "(preset: 3).")
+    private int searches;
+
+    /**
+     * The timeout of a search in seconds.
+     */
+    @CommandLine.Option(names = { "-t", "--timeout" }, paramLabel = "<timeout>", defaultValue = "60",
+        description = "Set the timeout of a search in seconds (preset: 60).")
+    private int timeout;
+
+    /**
+     * The CSV file of the results, null to print them only.
+     */
+    @CommandLine.Option(names = { "-o", "--output" }, paramLabel = "<file>",
+        description = "Write the results to the file as CSV.")
+    private File output;
+
+    /**
+     * The sink of the results of the benchmarks, so that the JIT compiler cannot remove their computation.
+     */
+    private volatile long sink;
+
+    /**
+     * The results of the benchmarks run.
+     */
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * The result of a benchmark: the mean and the standard deviation of the time per operation and the mean of the
+     * bytes allocated per operation.
+     */
+    private static final class Result {
+        private final String benchmark;
+        private final String problem;
+        private final String unit;
+        private final double mean;
+        private final double error;
+        private final double allocated;
+        private final String note;
+
+        private Result(String benchmark, String problem, String unit, double mean, double error, double allocated,
+                       String note) {
+            this.benchmark = benchmark;
+            this.problem = problem;
+            this.unit = unit;
+            this.mean = mean;
+            this.error = error;
+            this.allocated = allocated;
+            this.note = note;
+        }
+    }
+
+    /**
+     * The states sampled from a problem, with for each state but the initial one its parent and the action that
+     * produced it, to benchmark the incremental evaluation.
+     */
+    private static final class Sample {
+        private final List<State> states = new ArrayList<>();
+        private final List<Integer> parents = new ArrayList<>();
+        private final List<Integer> actions = new ArrayList<>();
+        // The actions applicable in each state, to benchmark the pruning rules
+        private final List<int[]> applicable = new ArrayList<>();
+    }
+
+    /**
+     * Runs the benchmarks on each problem and prints the results.
+     *
+     * @return the exit code: 0 if the benchmarks were run, 1 if a problem cannot be parsed.
+     * @throws IOException if the results cannot be written.
+     */
+    @Override
+    public Integer call() throws IOException {
+        final Parser parser = new Parser();
+        final ParsedDomain parsedDomain = parser.parseDomain(domain);
+        for (File file : problems) {
+            final ParsedProblem parsedProblem = parser.parseProblem(file);
+            if (!parser.getErrorManager().isEmpty()) {
+                parser.getErrorManager().getMessages().forEach(System.err::println);
+                return 1;
+            }
+            final Problem problem = new DefaultProblem(new DefaultParsedProblem(parsedDomain, parsedProblem));
+            problem.instantiate();
+            this.runMicroBenchmarks(file.getName(), problem);
+            this.runSearchBenchmarks(file.getName(), problem);
+        }
+        this.print();
+        return 0;
+    }
+
+    /**
+     * Runs the micro benchmarks of the ESL heuristic on a problem.
+     *
+     * @param name    the name of the problem.
+     * @param problem the problem.
+     */
+    private void runMicroBenchmarks(final String name, final Problem problem) {
+        final Sample sample = this.sample(problem);
+        final Condition goal = problem.getGoal();
+        // The values of the base heuristic are computed at each call, as without cache
+        final EslHeuristic heuristic = EslHeuristic.getInstance(problem, HEURISTIC);
+        heuristic.setCache(0, HeuristicCache.DEFAULT_EVICTION);
+        final int size = sample.states.size();
+        final List<EstimateComponents> components = new ArrayList<>();
+        sample.states.forEach(state -> components.add(heuristic.getComponents(state)));
+        final List<Node> nodes = new ArrayList<>();
+        sample.states.forEach(state -> nodes.add(new Node(state)));
+        final int pairs = sample.applicable.stream().mapToInt(a -> a.length).sum();
+
+        for (EslHeuristic.Evaluation evaluation : List.of(EslHeuristic.Evaluation.PREDICATES,
+                EslHeuristic.Evaluation.BITSET)) {
+            this.measure("estimate." + evaluation, name, size, () -> {
+                heuristic.setEvaluation(evaluation);
+                long sum = 0;
+                for (State state : sample.states) {
+                    sum += heuristic.estimate(state, goal);
+                }
+                return sum;
+            });
+            this.measure("isWorth." + evaluation, name, pairs, () -> {
+                heuristic.setEvaluation(evaluation);
+                long sum = 0;
+                for (int s = 0; s < size; s++) {
+                    for (int action : sample.applicable.get(s)) {
+                        sum += heuristic.isWorth(nodes.get(s), action) ? 1 : 0;
+                    }
+                }
+                return sum;
+            });
+        }
+        // The components of each state are updated from the ones of its parent, then the base heuristic is added
+        this.measure("estimate.INCREMENTAL", name, size - 1, () -> {
+            heuristic.setEvaluation(EslHeuristic.Evaluation.INCREMENTAL);
+            long sum = 0;
+            for (int s = 1; s < size; s++) {
+                final int parent = sample.parents.get(s);
+                final EstimateComponents updated = heuristic.getComponents(sample.states.get(s),
+                    sample.states.get(parent), components.get(parent), problem.getActions().get(sample.actions.get(s)));
+                sum += heuristic.estimate(sample.states.get(s), goal, updated);
+            }
+            return sum;
+        });
+        this.measure("estimate.ESL_COMPONENTS", name, size, () -> {
+            long sum = 0;
+            for (State state : sample.states) {
+                sum += heuristic.getComponents(state).getValue();
+            }
+            return sum;
+        });
+        this.measure("decode.predicates", name, size, () -> {
+            long sum = 0;
+            for (State state : sample.states) {
+                sum += heuristic.getPredicates(state.stream().toArray()).size();
+            }
+            return sum;
+        });
+        EslHeuristic.release(problem);
+    }
+
+    /**
+     * Runs the search benchmarks on a problem: one warmup search, then the measured searches, each one with a new
+     * heuristic, so that the values cached by a search are not reused by the next one.
+     *
+     * @param name    the name of the problem.
+     * @param problem the problem.
+     */
+    private void runSearchBenchmarks(final String name, final Problem problem) {
+        for (SearchStrategy.Name strategy : List.of(SearchStrategy.Name.ASTAR,
+                SearchStrategy.Name.ENFORCED_HILL_CLIMBING)) {
+            final String benchmark = "search." + strategy;
+            if (!Pattern.compile(filter).matcher(benchmark).find()) {
+                continue;
+            }
+            System.out.printf("# %s on %s%n", benchmark, name);
+            final double[] times = new double[searches];
+            final double[] allocated = new double[searches];
+            String note = "";
+            for (int i = -1; i < searches; i++) {
+                final StateSpaceSearch search = StateSpaceSearch.getInstance(strategy, HEURISTIC, 1.0, timeout);
+                final long bytes = EslBenchmark.getAllocatedBytes();
+                final long begin = System.nanoTime();
+                final Node solution = search.searchSolutionNode(problem);
+                final long end = System.nanoTime();
+                final long allocation = EslBenchmark.getAllocatedBytes() - bytes;
+                EslHeuristic.release(problem);
+                note = solution == null ? "no plan" : "plan of " + search.extractPlan(solution, problem).size()
+                    + " actions, " + search.getExploredNodes() + " explored nodes";
+                if (i >= 0) {
+                    times[i] = (end - begin) / 1e6;
+                    allocated[i] = allocation;
+                }
+                System.out.printf("%s %.1f ms, %s%n", i < 0 ? "Warmup:" : "Iteration " + (i + 1) + ":",
+                    (end - begin) / 1e6, note);
+            }
+            results.add(new Result(benchmark, name, "ms/op", mean(times), stddev(times), mean(allocated), note));
+        }
+    }
+
+    /**
+     * Runs a micro benchmark, if it is selected: each iteration calls the operation until the iteration time is
+     * elapsed.
+     *
+     * @param benchmark  the name of the benchmark.
+     * @param problem    the name of the problem.
+     * @param operations the number of operations done by a call, i.e., the number of states or actions evaluated.
+     * @param operation  the operation, returning a value consumed by the sink.
+     */
+    private void measure(final String benchmark, final String problem, final int operations,
+                         final LongSupplier operation) {
+        if (!Pattern.compile(filter).matcher(benchmark).find() || operations == 0) {
+            return;
+        }
+        System.out.printf("# %s on %s%n", benchmark, problem);
+        final double[] times = new double[iterations];
+        final double[] allocated = new double[iterations];
+        for (int i = -warmup; i < iterations; i++) {
+            long calls = 0;
+            final long bytes = EslBenchmark.getAllocatedBytes();
+            final long begin = System.nanoTime();
+            long end;
+            do {
+                sink += operation.getAsLong();
+                calls++;
+                end = System.nanoTime();
+            } while (end - begin < time * 1_000_000L);
+            final long allocation = EslBenchmark.getAllocatedBytes() - bytes;
+            final double nanos = (double) (end - begin) / (calls * operations);
+            if (i >= 0) {
+                times[i] = nanos;
+                allocated[i] = (double) allocation / (calls * operations);
+            }
+            System.out.printf("%s %.1f ns/op%n", i < 0 ? "Warmup " + (i + warmup + 1) + ":"
+                : "Iteration " + (i + 1) + ":", nanos);
+        }
+        results.add(new Result(benchmark, problem, "ns/op", mean(times), stddev(times), mean(allocated),
+            operations + " operations per call"));
+    }
+
+    /**
+     * Samples the first states reached by a breadth first exploration of a problem from its initial state.
+     *
+     * @param problem the problem.
+     * @return the sample.
+     */
+    private Sample sample(final Problem problem) {
+        final Sample sample = new Sample();
+        final SuccessorGenerator generator = new SuccessorGenerator(problem);
+        final Set<State> visited = new HashSet<>();
+        final Queue<Integer> open = new ArrayDeque<>();
+        final State init = new State(problem.getInitialState());
+        sample.states.add(init);
+        sample.parents.add(-1);
+        sample.actions.add(-1);
+        visited.add(init);
+        open.add(0);
+        while (!open.isEmpty()) {
+            final int index = open.poll();
+            final State state = sample.states.get(index);
+            final int[] applicable = generator.getApplicableActions(state);
+            sample.applicable.add(applicable);
+            for (int a : applicable) {
+                if (sample.states.size() == states) {
+                    break;
+                }
+                final Action op = problem.getActions().get(a);
+                final State next = new State(state);
+                op.getConditionalEffects().stream().filter(ce -> state.satisfy(ce.getCondition()))
+                    .forEach(ce -> next.apply(ce.getEffect()));
+                if (visited.add(next)) {
+                    sample.states.add(next);
+                    sample.parents.add(index);
+                    sample.actions.add(a);
+                    open.add(sample.states.size() - 1);
+                }
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * Prints the results of the benchmarks and writes them to the output file, if any.
+     *
+     * @throws IOException if the results cannot be written.
+     */
+    private void print() throws IOException {
+        System.out.printf("%n%-30s %-16s %6s %12s %10s %14s  %s%n", "Benchmark", "Problem", "Units", "Score",
+            "Error", "Alloc (B/op)", "Note");
+        for (Result r : results) {
+            System.out.printf(Locale.ROOT, "%-30s %-16s %6s %12.1f %10.1f %14.1f  %s%n", r.benchmark, r.problem,
+                r.unit, r.mean, r.error, r.allocated, r.note);
+        }
+        if (output != null) {
+            try (PrintWriter writer = new PrintWriter(output)) {
+                writer.println("benchmark,problem,unit,score,error,allocated");
+                for (Result r : results) {
+                    writer.printf(Locale.ROOT, "%s,%s,%s,%.3f,%.3f,%.1f%n", r.benchmark, r.problem, r.unit, r.mean,
+                        r.error, r.allocated);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     *
+     * @return the number of bytes allocated.
+     */
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static double mean(final double[] values) {
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+
+    private static double stddev(final double[] values) {
+        final double mean = mean(values);
+        double sum = 0;
+        for (double v : values) {
+            sum += (v - mean) * (v - mean);
+        }
+        return values.length < 2 ? 0 : Math.sqrt(sum / (values.length - 1));
+    }
+
+    /**
+     * The main method of the benchmarks.
+     *
+     * @param args the arguments of the command line.
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(new EslBenchmark()).execute(args));
+    }
+}
@@ -0,0 +1,357 @@
+package esl.bench;
+
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * This class implements a generator of problems of the {@code emergency-services-logistics} domain.
+ *
+ * <p>The problems generated have the shape of the problems given with the domain: a single depot where the robots, the
+ * carriers, the boxes and the contents are at the beginning, and persons spread over the other locations. Each carrier
+ * has its own empty slots. The goal of a person is either a set of contents it needs, each one given as a
+ * {@code has-content} goal, or, with the probability of the alternatives, a {@code satisfied-with-at-least-one} goal
+ * on two different contents. The same seed and the same parameters always generate the same problem.</p>
+ *
+ * <p>The options of the generator are shared with the scaling benchmark, which mixes them in its own command, see
+ * {@link EslScaling}.</p>
+ *
+ * <pre>
+ * {@code
+ * Usage:
+ *
+ * EslGenerator [-h] [-a=<ratio>] [-b=<boxes>] [-c=<carriers>] [-d=<demands>] [-k=<contents>] [-l=<locations>]
+ *              [-o=<file>] [-p=<persons>] [-r=<robots>] [-s=<slots>] [--seed=<seed>]
+ *
+ * Options:
+ *   -p, --persons=<persons>   Set the number of persons (preset: 3).
+ *   -l, --locations=<locations>
+ *                             Set the number of locations besides the depot
+ *                               (preset: 2).
+ *   -b, --boxes=<boxes>       Set the number of boxes (preset: 2).
+ *   -c, --carriers=<carriers> Set the number of carriers (preset: 1).
+ *   -s, --slots=<slots>       Set the number of slots of each carrier (preset:
+ *                               2).
+ *   -r, --robots=<robots>     Set the number of robots (preset: 1).
+ *   -k, --contents=<contents> Set the number of contents (preset: 3).
+ *   -d, --demands=<demands>   Set the maximal number of contents needed by a
+ *                               person (preset: 2).
+ *   -a, --alternatives=<ratio>
+ *                             Set the ratio of the persons satisfied with at
+ *                               least one of two contents (preset: 0.25).
+ *       --seed=<seed>         Set the seed of the random generator (preset: 0).
+ *   -o, --output=<file>       Write the problem to the file instead of the
+ *                               standard output.
+ *   -h, --help                Show this help message and exit.
+ * }
+ * </pre>
+ */
+public final class EslGenerator {
+
+    /**
+     * The names of the first contents, the ones of the problems given with the domain.
+     */
+    private static final List<String> CONTENTS = List.of("food", "medicine", "tool");
+
+    /**
+     * The number of persons.
+     */
+    @CommandLine.Option(names = { "-p", "--persons" }, paramLabel = "<persons>", defaultValue = "3",
+        description = "Set the number of persons (preset: 3).")
+    private int persons;
+
+    /**
+     * The number of locations besides the depot.
+     */
+    @CommandLine.Option(names = { "-l", "--locations" }, paramLabel = "<locations>", defaultValue = "2",
+        description = "Set the number of locations besides the depot (preset: 2).")
+    private int locations;
+
+    /**
+     * The number of boxes.
+     */
+    @CommandLine.Option(names = { "-b", "--boxes" }, paramLabel = "<boxes>", defaultValue = "2",
+        description = "Set the number of boxes (preset: 2).")
+    private int boxes;
+
+    /**
+     * The number of carriers.
+     */
+    @CommandLine.Option(names = { "-c", "--carriers" }, paramLabel = "<carriers>", defaultValue = "1",
+        description = "Set the number of carriers (preset: 1).")
+    private int carriers;
+
+    /**
+     * The number of slots of each carrier.
+     */
+    @CommandLine.Option(names = { "-s", "--slots" }, paramLabel = "<slots>", defaultValue = "2",
+        description = "Set the number of slots of each carrier (preset: 2).")
+    private int slots;
+
+    /**
+     * The number of robots.
+     */
+    @CommandLine.Option(names = { "-r", "--robots" }, paramLabel = "<robots>", defaultValue = "1",
+        description = "Set the number of robots (preset: 1).")
+    private int robots;
+
+    /**
+     * The number of contents.
+     */
+    @CommandLine.Option(names = { "-k", "--contents" }, paramLabel = "<contents>", defaultValue = "3",
+        description = "Set the number of contents (preset: 3).")
+    private int contents;
+
+    /**
+     * The maximal number of contents needed by a person.
+     */
+    @CommandLine.Option(names = { "-d", "--demands" }, paramLabel = "<demands>", defaultValue = "2",
+        description = "Set the maximal number of contents needed by a person (preset: 2).")
+    private int demands;
+
+    /**
+     * The ratio of the persons satisfied with at least one of two contents.
+     */
+    @CommandLine.Option(names = { "-a", "--alternatives" }, paramLabel = "<ratio>", defaultValue = "0.25",
+        description = "Set the ratio of the persons satisfied with at least one of two contents (preset: 0.25).")
+    private double alternatives;
+
+    /**
+     * The seed of the random generator.
+     */
+    @CommandLine.Option(names = { "--seed" }, paramLabel = "<seed>", defaultValue = "0",
+        description = "Set the seed of the random generator (preset: 0).")
+    private long seed;
+
+    /**
+     * Returns a generator whose numbers of persons, locations, boxes, carriers and robots are the ones of this
+     * generator multiplied by a factor. The slots of a carrier, the contents and the goal mix are the same.
+     *
+     * @param factor the factor, greater than 0.
+     * @return the generator.
+     */
+    public EslGenerator scale(final int factor) {
+        final EslGenerator generator = new EslGenerator();
+        generator.persons = persons * factor;
+        generator.locations = locations * factor;
+        generator.boxes = boxes * factor;
+        generator.carriers = carriers * factor;
+        generator.slots = slots;
+        generator.robots = robots * factor;
+        generator.contents = contents;
+        generator.demands = demands;
+        generator.alternatives = alternatives;
+        generator.seed = seed;
+        return generator;
+    }
+
+    /**
+     * Returns the name of the problem generated, made of its parameters.
+     *
+     * @return the name of the problem.
+     */
+    public String getName() {
+        // The ratio of the alternatives is written as a percentage, since a name cannot contain a dot
+        return String.format(Locale.ROOT, "esl-p%d-l%d-b%d-c%d-s%d-r%d-k%d-d%d-a%d-%d", persons, locations, boxes,
+            carriers, slots, robots, contents, demands, Math.round(alternatives * 100), seed);
+    }
+
+    /**
+     * Checks the parameters of the generator.
+     *
+     * @throws IllegalArgumentException if a parameter is out of its range.
+     */
+    private void validate() {
+        if (persons < 1 || locations < 1 || boxes < 1 || carriers < 1 || slots < 1 || robots < 1 || contents < 1) {
+            throw new IllegalArgumentException("the numbers of persons, locations, boxes, carriers, slots, robots "
+                + "and contents must be greater than 0");
+        }
+        if (demands < 1) {
+            throw new IllegalArgumentException("demands must be greater than 0");
+        }
+        if (alternatives < 0.0 || alternatives > 1.0) {
+            throw new IllegalArgumentException("alternatives must be in [0, 1]");
+        }
+        if (alternatives > 0.0 && contents < 2) {
+            throw new IllegalArgumentException("alternatives need at least 2 contents");
+        }
+    }
+
+    /**
+     * Generates the problem.
+     *
+     * @return the PDDL description of the problem.
+     * @throws IllegalArgumentException if a parameter is out of its range.
+     */
+    public String generate() {
+        this.validate();
+        final Random random = new Random(seed);
+        final List<String> content = new ArrayList<>();
+        for (int i = 0; i < contents; i++) {
+            content.add(i < CONTENTS.size() ? CONTENTS.get(i) : "content" + (i + 1));
+        }
+
+        final StringBuilder pddl = new StringBuilder();
+        pddl.append(String.format(Locale.ROOT, "; Generated by EslGenerator -p %d -l %d -b %d -c %d -s %d -r %d "
+                + "-k %d -d %d -a %.2f --seed %d%n", persons, locations, boxes, carriers, slots, robots, contents,
+            demands, alternatives, seed));
+        pddl.append("(define (problem ").append(this.getName()).append(")\n\n");
+        pddl.append("  (:domain emergency-services-logistics)\n\n");
+
+        pddl.append("  (:objects\n");
+        pddl.append("    ").append(names("r", robots)).append(" - robot\n");
+        pddl.append("    ").append(names("p", persons)).append(" - person\n");
+        pddl.append("    ").append(names("b", boxes)).append(" - box\n");
+        pddl.append("    depot ").append(names("l", locations)).append(" - location\n");
+        pddl.append("    ").append(names("c", carriers)).append(" - carrier\n");
+        for (int c = 1; c <= carriers; c++) {
+            pddl.append("   ");
+            for (int s = 1; s <= slots; s++) {
+                pddl.append(" s").append(s).append("-c").append(c);
+            }
+            pddl.append(" - slot\n");
+        }
+        pddl.append("    ").append(String.join(" ", content)).append(" - content\n");
+        pddl.append("  )\n\n");
+
+        pddl.append("  (:init\n");
+        pddl.append("    (depot-at depot)\n");
+        pddl.append("   ").append(facts("at", "r", robots, "depot")).append('\n');
+        pddl.append("   ").append(facts("at", "c", carriers, "depot")).append('\n');
+        pddl.append("   ").append(facts("at", "b", boxes, "depot")).append('\n');
+        pddl.append("   ");
+        content.forEach(c -> pddl.append(" (at ").append(c).append(" depot)"));
+        pddl.append("\n   ");
+        // The persons are spread at random over the locations
+        for (int p = 1; p <= persons; p++) {
+            pddl.append(" (at p").append(p).append(" l").append(1 + random.nextInt(locations)).append(')');
+        }
+        pddl.append('\n');
+        for (int c = 1; c <= carriers; c++) {
+            pddl.append("   ");
+            for (int s = 1; s <= slots; s++) {
+                pddl.append(" (empty s").append(s).append("-c").append(c).append(" c").append(c).append(')');
+            }
+            pddl.append('\n');
+        }
+        pddl.append("  )\n\n");
+
+        pddl.append("  (:goal\n");
+        pddl.append("    (and\n");
+        for (int p = 1; p <= persons; p++) {
+            final List<String> needed = new ArrayList<>(content);
+            Collections.shuffle(needed, random);
+            if (random.nextDouble() < alternatives) {
+                pddl.append("      (satisfied-with-at-least-one p").append(p).append(' ').append(needed.get(0))
+                    .append(' ').append(needed.get(1)).append(")\n");
+            } else {
+                final int count = 1 + random.nextInt(Math.min(demands, contents));
+                for (int i = 0; i < count; i++) {
+                    pddl.append("      (has-content p").append(p).append(' ').append(needed.get(i)).append(")\n");
+                }
+            }
+        }
+        pddl.append("    )\n");
+        pddl.append("  )\n");
+        pddl.append(")\n");
+        return pddl.toString();
+    }
+
+    /**
+     * Returns the names of objects made of a prefix and of their number, e.g., {@code r1 r2}.
+     *
+     * @param prefix the prefix of the names.
+     * @param count  the number of objects.
+     * @return the names separated by spaces.
+     */
+    private static String names(final String prefix, final int count) {
+        final StringBuilder names = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            names.append(i == 1 ? "" : " ").append(prefix).append(i);
+        }
+        return names.toString();
+    }
+
+    /**
+     * Returns the facts of a binary predicate for objects named by a prefix and their number, with the same second
+     * argument, e.g., {@code (at r1 depot) (at r2 depot)}.
+     *
+     * @param predicate the predicate.
+     * @param prefix    the prefix of the names of the objects.
+     * @param count     the number of objects.
+     * @param argument  the second argument.
+     * @return the facts, each one preceded by a space.
+     */
+    private static String facts(final String predicate, final String prefix, final int count,
+                                final String argument) {
+        final StringBuilder facts = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            facts.append(" (").append(predicate).append(' ').append(prefix).append(i).append(' ').append(argument)
+                .append(')');
+        }
+        return facts.toString();
+    }
+
+    /**
+     * The command of the generator: the options of the generator and the output.
+     */
+    @CommandLine.Command(name = "EslGenerator",
+        description = "Generates a problem of the emergency-services-logistics domain.",
+        sortOptions = false,
+        mixinStandardHelpOptions = true)
+    private static final class Command implements Callable<Integer> {
+
+        /**
+         * The generator.
+         */
+        @CommandLine.Mixin
+        private EslGenerator generator;
+
+        /**
+         * The file of the problem generated, null to print it.
+         */
+        @CommandLine.Option(names = { "-o", "--output" }, paramLabel = "<file>",
+            description = "Write the problem to the file instead of the standard output.")
+        private File output;
+
+        /**
+         * Generates the problem and writes it to the output file or to the standard output.
+         *
+         * @return the exit code: 0 if the problem was generated, 1 if a parameter is out of its range.
+         * @throws IOException if the problem cannot be written.
+         */
+        @Override
+        public Integer call() throws IOException {
+            final String problem;
+            try {
+                problem = generator.generate();
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+            if (output == null) {
+                System.out.print(problem);
+            } else {
+                Files.writeString(output.toPath(), problem);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * The main method of the generator.
+     *
+     * @param args the arguments of the command line.
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(new Command()).execute(args));
+    }
+}
@@ -0,0 +1,288 @@
+package esl.bench;
+
+import esl.EslPlanner;
+import fr.uga.pddl4j.heuristics.state.StateHeuristic;
+import fr.uga.pddl4j.plan.Plan;
+import fr.uga.pddl4j.planners.LogLevel;
+import fr.uga.pddl4j.planners.SearchStrategy;
+import fr.uga.pddl4j.planners.Statistics;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * This class implements the scaling benchmark of the planner on generated problems of increasing sizes.
+ *
+ * <p>The problem of size {@code n} is generated by {@link EslGenerator} with its numbers of persons, locations, boxes,
+ * carriers and robots multiplied by {@code n}, the generator options giving the problem of size 1. Each problem is
+ * written to the working directory and solved by {@link EslPlanner} with each search strategy in turn, in the same
+ * JVM. A search strategy is not run on the larger problems once it failed to solve a problem, i.e., once it reached
+ * its breaking point. For each run, the benchmark reports the time of the search, the total time to solve the problem,
+ * parsing and grounding included, the nodes explored and created by the search, the memory used by the search, as
+ * estimated by the planner, and the peak of the heap of the JVM during the run.</p>
+ *
+ * <pre>
+ * {@code
+ * Usage:
+ *
+ * EslScaling [-h] [--[no-]stop-on-failure] [-e=<heuristic>] [-n=<sizes>[,<sizes>...]]... [-t=<timeout>]
+ *            [-w=<directory>] [-x=<file>] [-z=<strategies>[,<strategies>...]]... [generator options] <domain>
+ *
+ * Parameters:
+ *       <domain>              The domain file.
+ *
+ * Options:
+ *   -n, --sizes=<sizes>[,<sizes>...]
+ *                             Set the sizes of the problems (preset: 1,2,3,4,
+ *                               6,8).
+ *   -z, --strategies=<strategies>[,<strategies>...]
+ *                             Set the search strategies (preset: ASTAR,
+ *                               ENFORCED_HILL_CLIMBING, GREEDY_BEST_FIRST).
+ *   -e, --heuristic=<heuristic>
+ *                             Set the heuristic (preset: AJUSTED_SUM).
+ *   -t, --timeout=<timeout>   Set the timeout of a run in seconds (preset:
+ *                               60).
+ *       --[no-]stop-on-failure
+ *                             Do not run a search strategy on the problems
+ *                               larger than the first one it fails to solve
+ *                               (preset: true).
+ *   -w, --workdir=<directory> Set the directory of the problems generated
+ *                               (preset: scaling).
+ *   -x, --csv=<file>          Write the results to the file as CSV.
+ *   -h, --help                Show this help message and exit.
+ * }
+ * </pre>
+ *
+ * <p>The generator options are the ones of {@link EslGenerator}.</p>
+ */
+@CommandLine.Command(name = "EslScaling",
+    description = "Solves generated problems of increasing sizes with each search strategy.",
+    sortOptions = false,
+    mixinStandardHelpOptions = true)
+public final class EslScaling implements Callable<Integer> {
+
+    /**
+     * The domain file.
+     */
+    @CommandLine.Parameters(index = "0", paramLabel = "<domain>", description = "The domain file.")
+    private File domain;
+
+    /**
+     * The sizes of the problems.
+     */
+    @CommandLine.Option(names = { "-n", "--sizes" }, paramLabel = "<sizes>", split = ",",
+        defaultValue = "1,2,3,4,6,8", description = "Set the sizes of the problems (preset: 1,2,3,4,6,8).")
+    private List<Integer> sizes;
+
+    /**
+     * The search strategies.
+     */
+    @CommandLine.Option(names = { "-z", "--strategies" }, paramLabel = "<strategies>", split = ",",
+        defaultValue = "ASTAR,ENFORCED_HILL_CLIMBING,GREEDY_BEST_FIRST",
+        description = "Set the search strategies (preset: ASTAR, ENFORCED_HILL_CLIMBING, GREEDY_BEST_FIRST).")
+    private List<SearchStrategy.Name> strategies;
+
+    /**
+     * The heuristic.
+     */
+    @CommandLine.Option(names = { "-e", "--heuristic" }, paramLabel = "<heuristic>", defaultValue = "AJUSTED_SUM",
+        description = "Set the heuristic (preset: AJUSTED_SUM).")
+    private StateHeuristic.Name heuristic;
+
+    /**
+     * The timeout of a run in seconds.
+     */
+    @CommandLine.Option(names = { "-t", "--timeout" }, paramLabel = "<timeout>", defaultValue = "60",
+        description = "Set the timeout of a run in seconds (preset: 60).")
+    private int timeout;
+
+    /**
+     * Whether a search strategy is not run on the problems larger than the first one it fails to solve.
+     */
+    @CommandLine.Option(names = { "--stop-on-failure" }, negatable = true, defaultValue = "true",
+        fallbackValue = "true", description = "Do not run a search strategy on the problems larger than the first "
+            + "one it fails to solve (preset: true).")
+    private boolean stopOnFailure;
+
+    /**
+     * The directory of the problems generated.
+     */
+    @CommandLine.Option(names = { "-w", "--workdir" }, paramLabel = "<directory>", defaultValue = "scaling",
+        description = "Set the directory of the problems generated (preset: scaling).")
+    private File workdir;
+
+    /**
+     * The CSV file of the results, null to print them only.
+     */
+    @CommandLine.Option(names = { "-x", "--csv" }, paramLabel = "<file>",
+        description = "Write the results to the file as CSV.")
+    private File csv;
+
+    /**
+     * The generator of the problem of size 1.
+     */
+    @CommandLine.Mixin
+    private EslGenerator generator;
+
+    /**
+     * The results of the runs.
+     */
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * The result of the run of a search strategy on a problem.
+     */
+    private static final class Result {
+        private final int size;
+        private final String problem;
+        private final String strategy;
+        private final boolean solved;
+        private final int length;
+        private final long searchTime;
+        private final long time;
+        private final long explored;
+        private final long created;
+        private final long memory;
+        private final long heap;
+
+        private Result(int size, String problem, String strategy, boolean solved, int length, long searchTime,
+                       long time, long explored, long created, long memory, long heap) {
+            this.size = size;
+            this.problem = problem;
+            this.strategy = strategy;
+            this.solved = solved;
+            this.length = length;
+            this.searchTime = searchTime;
+            this.time = time;
+            this.explored = explored;
+            this.created = created;
+            this.memory = memory;
+            this.heap = heap;
+        }
+    }
+
+    /**
+     * Generates the problems and solves them with each search strategy.
+     *
+     * @return the exit code: 0 if the benchmark was run, 1 if a parameter of the generator is out of its range.
+     * @throws IOException if a problem or the results cannot be written.
+     */
+    @Override
+    public Integer call() throws IOException {
+        Files.createDirectories(workdir.toPath());
+        final List<SearchStrategy.Name> running = new ArrayList<>(strategies);
+        for (int size : sizes) {
+            if (running.isEmpty()) {
+                break;
+            }
+            final EslGenerator scaled = generator.scale(size);
+            final File problem = new File(workdir, scaled.getName() + ".pddl");
+            try {
+                Files.writeString(problem.toPath(), scaled.generate());
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+            for (SearchStrategy.Name strategy : new ArrayList<>(running)) {
+                final Result result = this.run(size, problem, strategy);
+                results.add(result);
+                System.out.printf(Locale.ROOT, "# size %d, %s, %s: %s in %.2f seconds searching (%.2f in total), "
+                        + "%d explored nodes, %.2f MBytes searching, %.2f MBytes of heap%n", size, problem.getName(),
+                    strategy, result.solved ? "plan of " + result.length + " actions" : "no plan",
+                    Statistics.millisecondToSecond(result.searchTime), Statistics.millisecondToSecond(result.time),
+                    result.explored,
+                    Statistics.byteToMByte(result.memory), Statistics.byteToMByte(result.heap));
+                if (!result.solved && stopOnFailure) {
+                    running.remove(strategy);
+                }
+            }
+        }
+        this.print();
+        return 0;
+    }
+
+    /**
+     * Solves a problem with a search strategy.
+     *
+     * @param size     the size of the problem.
+     * @param problem  the problem file.
+     * @param strategy the search strategy.
+     * @return the result of the run.
+     */
+    private Result run(final int size, final File problem, final SearchStrategy.Name strategy) {
+        final EslPlanner planner = new EslPlanner();
+        planner.setDomain(domain.getPath());
+        planner.setProblem(problem.getPath());
+        planner.setHeuristic(heuristic);
+        planner.setSearchStrategies(List.of(strategy));
+        planner.setTimeout(timeout);
+        planner.setLogLevel(LogLevel.OFF);
+        // The peak of the heap is measured from the heap left by the previous runs
+        System.gc();
+        final List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+                pools.add(pool);
+            }
+        }
+        Plan plan = null;
+        final long begin = System.currentTimeMillis();
+        try {
+            plan = planner.solve();
+        } catch (Exception e) {
+            System.err.println("* " + problem.getName() + ", " + strategy + ": " + e.getMessage());
+        }
+        final long time = System.currentTimeMillis() - begin;
+        final long heap = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        // The time of the search leaves out the parsing, the grounding and the statistics of the problem
+        return new Result(size, problem.getName(), strategy.name(), plan != null, plan == null ? 0 : plan.size(),
+            planner.getStatistics().getTimeToSearch(), time, planner.getExploredNodes(), planner.getCreatedNodes(),
+            planner.getStatistics().getMemoryUsedToSearch(), heap);
+    }
+
+    /**
+     * Prints the results of the runs and writes them to the CSV file, if any.
+     *
+     * @throws IOException if the results cannot be written.
+     */
+    private void print() throws IOException {
+        System.out.printf("%n%5s %-26s %8s %7s %10s %10s %12s %12s %12s %12s%n", "Size", "Strategy", "Solved",
+            "Length", "Search (s)", "Total (s)", "Explored", "Created", "Search (MB)", "Heap (MB)");
+        for (Result r : results) {
+            System.out.printf(Locale.ROOT, "%5d %-26s %8s %7d %10.2f %10.2f %12d %12d %12.2f %12.2f%n", r.size,
+                r.strategy, r.solved, r.length, Statistics.millisecondToSecond(r.searchTime),
+                Statistics.millisecondToSecond(r.time), r.explored, r.created, Statistics.byteToMByte(r.memory),
+                Statistics.byteToMByte(r.heap));
+        }
+        if (csv != null) {
+            try (PrintWriter writer = new PrintWriter(csv)) {
+                writer.println("size,problem,strategy,solved,length,search_time,total_time,explored,created,memory,"
+                    + "heap");
+                for (Result r : results) {
+                    writer.printf(Locale.ROOT, "%d,%s,%s,%b,%d,%d,%d,%d,%d,%d,%d%n", r.size, r.problem, r.strategy,
+                        r.solved, r.length, r.searchTime, r.time, r.explored, r.created, r.memory, r.heap);
+                }
+            }
+        }
+    }
+
+    /**
+     * The main method of the scaling benchmark.
+     *
+     * @param args the arguments of the command line.
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(new EslScaling()).execute(args));
+    }
+}
@@ -15,7 +15,7 @@ else
 	exit 1
 fi
 
-javac -d classes -cp ./lib/pddl4j-4.0.0.jar ./src/esl/*.java ./src/esl/heuristic/*.java ./src/esl/search/*.java ./src/utility/*.java
+javac -d classes -cp ./lib/pddl4j-4.0.0.jar ./src/esl/*.java ./src/esl/heuristic/*.java ./src/esl/search/*.java ./src/esl/temporal/*.java ./src/esl/decomposition/*.java ./src/utility/*.java
 
 echo "Classi compilate"
 echo "Esecuzione codice..."
@@ -0,0 +1,12 @@
+echo "Sto compilando le classi Java e i benchmark"
+
+domain_file="pddl_instances/esl-domain.pddl"
+
+javac -d classes -cp ./lib/pddl4j-4.0.0.jar ./src/esl/*.java ./src/esl/heuristic/*.java ./src/esl/search/*.java ./src/esl/temporal/*.java ./src/esl/decomposition/*.java ./src/utility/*.java ./bench/esl/bench/*.java
+
+echo "Classi compilate"
+echo "Esecuzione benchmark di scalabilita'..."
+
+# Gli argomenti sono passati al benchmark, ad esempio: ./scaling.sh -n 1,2,4,8 -p 4 -z ASTAR -x scaling.csv
+# Le istanze generate sono scritte nella cartella scaling
+java -Xms1g -Xmx4g -cp classes:lib/pddl4j-4.0.0.jar esl.bench.EslScaling $domain_file "$@"
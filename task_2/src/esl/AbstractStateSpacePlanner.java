@@ -15,7 +15,10 @@
 
 package esl;
 
+import esl.heuristic.ActionKind;
 import esl.heuristic.EslHeuristic;
+import esl.heuristic.HeuristicCache;
+import esl.heuristic.Profiler;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
 import fr.uga.pddl4j.parser.RequireKey;
 import fr.uga.pddl4j.plan.Plan;
@@ -26,15 +29,28 @@ import fr.uga.pddl4j.planners.Planner;
 import fr.uga.pddl4j.planners.PlannerConfiguration;
 import fr.uga.pddl4j.planners.ProblemNotSupportedException;
 import fr.uga.pddl4j.planners.SearchStrategy;
+import fr.uga.pddl4j.planners.Statistics;
 import fr.uga.pddl4j.planners.statespace.search.Node;
+import esl.search.OpenList;
 import esl.search.StateSpaceSearch;
 import fr.uga.pddl4j.problem.Problem;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This abstract class defines the main methods to access a state based planner.
@@ -65,6 +81,92 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
      */
     private StateHeuristic.Name heuristic;
 
+    /**
+     * The evaluation mode of the ESL heuristic.
+     */
+    private EslHeuristic.Evaluation evaluation;
+
+    /**
+     * The estimate added to the base heuristic by the ESL heuristic.
+     */
+    private EslHeuristic.Estimate estimate;
+
+    /**
+     * The number of threads used to evaluate the successors of a node.
+     */
+    private int parallelism;
+
+    /**
+     * The flag to run the search strategies concurrently.
+     */
+    private boolean portfolio;
+
+    /**
+     * The time given to the other search strategies to find a cheaper plan once a first plan is found, in
+     * milliseconds.
+     */
+    private long grace;
+
+    /**
+     * The flag to measure the memory used by the searches by walking their objects.
+     */
+    private boolean exactMemory;
+
+    /**
+     * The variant of the A* search strategy.
+     */
+    private StateSpaceSearch.AStarVariant astarVariant;
+
+    /**
+     * The type of the open list of the A* search strategies.
+     */
+    private OpenList.Type openList;
+
+    /**
+     * The tie-breaking policy of the open list of the A* search strategies.
+     */
+    private OpenList.TieBreaking tieBreaking;
+
+    /**
+     * The flag to expand first the helpful actions in the enforced hill climbing search.
+     */
+    private boolean helpfulActions;
+
+    /**
+     * The number of restarts of the enforced hill climbing search from the previous best node.
+     */
+    private int restarts;
+
+    /**
+     * The memory in MBytes of the cache of the values of the base heuristic.
+     */
+    private int cacheSize;
+
+    /**
+     * The eviction policy of the cache of the values of the base heuristic.
+     */
+    private HeuristicCache.Eviction cacheEviction;
+
+    /**
+     * The file where the profiling report of the ESL heuristic is appended, empty if the heuristic is not profiled.
+     */
+    private String profileFile;
+
+    /**
+     * The kinds of the actions whose pruning rule of the ESL heuristic is disabled.
+     */
+    private List<ActionKind> disabledRules;
+
+    /**
+     * The number of nodes explored by the searches of the last problem solved.
+     */
+    private volatile long exploredNodes;
+
+    /**
+     * The number of nodes created by the searches of the last problem solved.
+     */
+    private volatile long createdNodes;
+
     /**
      * Creates a new planner.
      */
@@ -151,6 +253,319 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
         return this.heuristicWeight;
     }
 
+    /**
+     * Sets the evaluation mode of the ESL heuristic.
+     *
+     * @param evaluation the evaluation mode of the ESL heuristic.
+     */
+    public void setEvaluation(final EslHeuristic.Evaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Returns the evaluation mode of the ESL heuristic.
+     *
+     * @return the evaluation mode of the ESL heuristic.
+     */
+    public final EslHeuristic.Evaluation getEvaluation() {
+        return this.evaluation;
+    }
+
+    /**
+     * Sets the estimate added to the base heuristic by the ESL heuristic.
+     *
+     * @param estimate the estimate added to the base heuristic.
+     */
+    public void setEstimate(final EslHeuristic.Estimate estimate) {
+        this.estimate = estimate;
+    }
+
+    /**
+     * Returns the estimate added to the base heuristic by the ESL heuristic.
+     *
+     * @return the estimate added to the base heuristic.
+     */
+    public final EslHeuristic.Estimate getEstimate() {
+        return this.estimate;
+    }
+
+    /**
+     * Sets the number of threads used to evaluate the successors of a node. The value 0 means one thread per
+     * available processor and the value 1 a sequential evaluation.
+     *
+     * @param parallelism the number of threads. The number of threads must be greater or equal to 0.
+     * @throws IllegalArgumentException if the number of threads is strictly less than 0.
+     */
+    public void setParallelism(final int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("parallelism must be greater or equal to 0");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the number of threads used to evaluate the successors of a node.
+     *
+     * @return the number of threads used to evaluate the successors of a node.
+     */
+    public final int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets if the search strategies are run concurrently. If so, each search strategy runs in its own thread with the
+     * timeout of the planner as deadline, instead of being tried after the failure of the previous ones.
+     *
+     * @param portfolio <code>true</code> to run the search strategies concurrently.
+     */
+    public void setPortfolio(final boolean portfolio) {
+        this.portfolio = portfolio;
+    }
+
+    /**
+     * Returns if the search strategies are run concurrently.
+     *
+     * @return <code>true</code> if the search strategies are run concurrently <code>false</code> otherwise.
+     */
+    public final boolean isPortfolio() {
+        return this.portfolio;
+    }
+
+    /**
+     * Sets the time given to the other search strategies to find a cheaper plan once a first plan is found, when the
+     * search strategies are run concurrently. With 0, the first plan found is returned.
+     *
+     * @param grace the time in milliseconds. The time must be greater or equal to 0.
+     * @throws IllegalArgumentException if the time is strictly less than 0.
+     */
+    public void setGrace(final long grace) {
+        if (grace < 0) {
+            throw new IllegalArgumentException("grace must be greater or equal to 0");
+        }
+        this.grace = grace;
+    }
+
+    /**
+     * Returns the time given to the other search strategies to find a cheaper plan once a first plan is found.
+     *
+     * @return the time in milliseconds.
+     */
+    public final long getGrace() {
+        return this.grace;
+    }
+
+    /**
+     * Sets if the memory used by the searches is measured exactly, by walking all the objects they keep, or estimated
+     * from the number of nodes they store. The exact measure can take seconds after a large search.
+     *
+     * @param exactMemory <code>true</code> to measure the memory used by the searches exactly.
+     */
+    public void setExactMemory(final boolean exactMemory) {
+        this.exactMemory = exactMemory;
+    }
+
+    /**
+     * Returns if the memory used by the searches is measured exactly.
+     *
+     * @return <code>true</code> if the memory used by the searches is measured exactly <code>false</code> otherwise.
+     */
+    public final boolean isExactMemory() {
+        return this.exactMemory;
+    }
+
+    /**
+     * Sets the variant of the A* search strategy.
+     *
+     * @param variant the variant of the A* search strategy.
+     */
+    public void setAStarVariant(final StateSpaceSearch.AStarVariant variant) {
+        this.astarVariant = variant;
+    }
+
+    /**
+     * Returns the variant of the A* search strategy.
+     *
+     * @return the variant of the A* search strategy.
+     */
+    public final StateSpaceSearch.AStarVariant getAStarVariant() {
+        return this.astarVariant;
+    }
+
+    /**
+     * Sets the type of the open list of the A* search strategies.
+     *
+     * @param openList the type of the open list.
+     */
+    public void setOpenList(final OpenList.Type openList) {
+        this.openList = openList;
+    }
+
+    /**
+     * Returns the type of the open list of the A* search strategies.
+     *
+     * @return the type of the open list.
+     */
+    public final OpenList.Type getOpenList() {
+        return this.openList;
+    }
+
+    /**
+     * Sets the tie-breaking policy of the open list of the A* search strategies, used by the bucket open list.
+     *
+     * @param tieBreaking the tie-breaking policy.
+     */
+    public void setTieBreaking(final OpenList.TieBreaking tieBreaking) {
+        this.tieBreaking = tieBreaking;
+    }
+
+    /**
+     * Returns the tie-breaking policy of the open list of the A* search strategies.
+     *
+     * @return the tie-breaking policy.
+     */
+    public final OpenList.TieBreaking getTieBreaking() {
+        return this.tieBreaking;
+    }
+
+    /**
+     * Sets if the enforced hill climbing search expands first the helpful actions of a node, the actions adding
+     * a goal of the first layer of its relaxed plan, and all its actions only on a plateau.
+     *
+     * @param helpfulActions <code>true</code> to expand first the helpful actions.
+     */
+    public void setHelpfulActions(final boolean helpfulActions) {
+        this.helpfulActions = helpfulActions;
+    }
+
+    /**
+     * Returns if the enforced hill climbing search expands first the helpful actions of a node.
+     *
+     * @return <code>true</code> if the helpful actions are expanded first <code>false</code> otherwise.
+     */
+    public final boolean isHelpfulActions() {
+        return this.helpfulActions;
+    }
+
+    /**
+     * Sets the number of restarts of the enforced hill climbing search from the previous best node when the plateau
+     * of the best node is exhausted. The value 0 means that the search fails at the first dead end.
+     *
+     * @param restarts the number of restarts. The number of restarts must be greater or equal to 0.
+     * @throws IllegalArgumentException if the number of restarts is strictly less than 0.
+     */
+    public void setRestarts(final int restarts) {
+        if (restarts < 0) {
+            throw new IllegalArgumentException("restarts must be greater or equal to 0");
+        }
+        this.restarts = restarts;
+    }
+
+    /**
+     * Returns the number of restarts of the enforced hill climbing search from the previous best node.
+     *
+     * @return the number of restarts of the enforced hill climbing search from the previous best node.
+     */
+    public final int getRestarts() {
+        return this.restarts;
+    }
+
+    /**
+     * Sets the memory in MBytes of the cache of the values of the base heuristic. The value 0 disables the cache.
+     *
+     * @param cacheSize the memory of the cache in MBytes. The memory must be greater or equal to 0.
+     * @throws IllegalArgumentException if the memory is strictly less than 0.
+     */
+    public void setCacheSize(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size must be greater or equal to 0");
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Returns the memory in MBytes of the cache of the values of the base heuristic.
+     *
+     * @return the memory in MBytes of the cache of the values of the base heuristic.
+     */
+    public final int getCacheSize() {
+        return this.cacheSize;
+    }
+
+    /**
+     * Sets the eviction policy of the cache of the values of the base heuristic.
+     *
+     * @param cacheEviction the eviction policy.
+     */
+    public void setCacheEviction(final HeuristicCache.Eviction cacheEviction) {
+        this.cacheEviction = cacheEviction;
+    }
+
+    /**
+     * Returns the eviction policy of the cache of the values of the base heuristic.
+     *
+     * @return the eviction policy of the cache of the values of the base heuristic.
+     */
+    public final HeuristicCache.Eviction getCacheEviction() {
+        return this.cacheEviction;
+    }
+
+    /**
+     * Sets the file where the profiling report of the ESL heuristic is appended. The empty path disables the
+     * profiling.
+     *
+     * @param profileFile the path of the report, empty to disable the profiling.
+     */
+    public void setProfileFile(final String profileFile) {
+        this.profileFile = profileFile;
+    }
+
+    /**
+     * Returns the file where the profiling report of the ESL heuristic is appended.
+     *
+     * @return the path of the report, empty if the heuristic is not profiled.
+     */
+    public final String getProfileFile() {
+        return this.profileFile;
+    }
+
+    /**
+     * Sets the kinds of the actions whose pruning rule of the ESL heuristic is disabled, for ablation runs.
+     *
+     * @param disabledRules the kinds of the actions whose pruning rule is disabled.
+     */
+    public void setDisabledRules(final List<ActionKind> disabledRules) {
+        this.disabledRules = disabledRules;
+    }
+
+    /**
+     * Returns the kinds of the actions whose pruning rule of the ESL heuristic is disabled.
+     *
+     * @return the kinds of the actions whose pruning rule is disabled.
+     */
+    public final List<ActionKind> getDisabledRules() {
+        return this.disabledRules;
+    }
+
+    /**
+     * Returns the number of nodes explored by the searches of the last problem solved, i.e., by all the search
+     * strategies tried or run concurrently.
+     *
+     * @return the number of nodes explored.
+     */
+    public final long getExploredNodes() {
+        return this.exploredNodes;
+    }
+
+    /**
+     * Returns the number of nodes created by the searches of the last problem solved, i.e., by all the search
+     * strategies tried or run concurrently.
+     *
+     * @return the number of nodes created.
+     */
+    public final long getCreatedNodes() {
+        return this.createdNodes;
+    }
+
     /**
      * Checks the planner configuration and returns if the configuration is valid. A configuration is valid if (1) the
      * domain and the problem files exist and can be read, (2) the timeout is greater than 0, (3) the weight of the
@@ -163,6 +578,18 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
         return super.hasValidConfiguration()
             && this.getHeuristicWeight() > 0.0
             && this.getHeuristic() != null
+            && this.getEvaluation() != null
+            && this.getEstimate() != null
+            && this.getParallelism() >= 0
+            && this.getGrace() >= 0
+            && this.getAStarVariant() != null
+            && this.getOpenList() != null
+            && this.getTieBreaking() != null
+            && this.getRestarts() >= 0
+            && this.getCacheSize() >= 0
+            && this.getCacheEviction() != null
+            && this.getProfileFile() != null
+            && this.getDisabledRules() != null
             && !this.getSearchStrategies().isEmpty();
     }
 
@@ -176,6 +603,30 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
             throw new InvalidConfigurationException("Invalid heuristic weight");
         } else if (this.getHeuristic() == null) {
             throw new InvalidConfigurationException("Undefined heuristic");
+        } else if (this.getEvaluation() == null) {
+            throw new InvalidConfigurationException("Undefined heuristic evaluation mode");
+        } else if (this.getEstimate() == null) {
+            throw new InvalidConfigurationException("Undefined heuristic estimate");
+        } else if (this.getParallelism() < 0) {
+            throw new InvalidConfigurationException("Invalid parallelism");
+        } else if (this.getGrace() < 0) {
+            throw new InvalidConfigurationException("Invalid grace time");
+        } else if (this.getAStarVariant() == null) {
+            throw new InvalidConfigurationException("Undefined A* variant");
+        } else if (this.getOpenList() == null) {
+            throw new InvalidConfigurationException("Undefined open list");
+        } else if (this.getTieBreaking() == null) {
+            throw new InvalidConfigurationException("Undefined tie-breaking policy");
+        } else if (this.getRestarts() < 0) {
+            throw new InvalidConfigurationException("Invalid number of restarts");
+        } else if (this.getCacheSize() < 0) {
+            throw new InvalidConfigurationException("Invalid cache size");
+        } else if (this.getCacheEviction() == null) {
+            throw new InvalidConfigurationException("Undefined cache eviction policy");
+        } else if (this.getProfileFile() == null) {
+            throw new InvalidConfigurationException("Undefined profiling report file");
+        } else if (this.getDisabledRules() == null) {
+            throw new InvalidConfigurationException("Undefined disabled pruning rules");
         } else if (this.getSearchStrategies().isEmpty()) {
             throw new InvalidConfigurationException("Undefined search strategies");
         }
@@ -194,6 +645,27 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
         config.setProperty(StateSpacePlanner.HEURISTIC_SETTING, StateSpacePlanner.DEFAULT_HEURISTIC.toString());
         config.setProperty(StateSpacePlanner.WEIGHT_HEURISTIC_SETTING,
             Double.toString(StateSpacePlanner.DEFAULT_WEIGHT_HEURISTIC));
+        config.setProperty(StateSpacePlanner.EVALUATION_SETTING, StateSpacePlanner.DEFAULT_EVALUATION.toString());
+        config.setProperty(StateSpacePlanner.ESTIMATE_SETTING, StateSpacePlanner.DEFAULT_ESTIMATE.toString());
+        config.setProperty(StateSpacePlanner.PARALLELISM_SETTING,
+            Integer.toString(StateSpacePlanner.DEFAULT_PARALLELISM));
+        config.setProperty(StateSpacePlanner.PORTFOLIO_SETTING, Boolean.toString(StateSpacePlanner.DEFAULT_PORTFOLIO));
+        config.setProperty(StateSpacePlanner.GRACE_SETTING, Long.toString(StateSpacePlanner.DEFAULT_GRACE));
+        config.setProperty(StateSpacePlanner.EXACT_MEMORY_SETTING,
+            Boolean.toString(StateSpacePlanner.DEFAULT_EXACT_MEMORY));
+        config.setProperty(StateSpacePlanner.ASTAR_VARIANT_SETTING, StateSpacePlanner.DEFAULT_ASTAR_VARIANT.toString());
+        config.setProperty(StateSpacePlanner.OPEN_LIST_SETTING, StateSpacePlanner.DEFAULT_OPEN_LIST.toString());
+        config.setProperty(StateSpacePlanner.TIE_BREAKING_SETTING, StateSpacePlanner.DEFAULT_TIE_BREAKING.toString());
+        config.setProperty(StateSpacePlanner.HELPFUL_ACTIONS_SETTING,
+            Boolean.toString(StateSpacePlanner.DEFAULT_HELPFUL_ACTIONS));
+        config.setProperty(StateSpacePlanner.RESTARTS_SETTING, Integer.toString(StateSpacePlanner.DEFAULT_RESTARTS));
+        config.setProperty(StateSpacePlanner.CACHE_SIZE_SETTING,
+            Integer.toString(StateSpacePlanner.DEFAULT_CACHE_SIZE));
+        config.setProperty(StateSpacePlanner.CACHE_EVICTION_SETTING,
+            StateSpacePlanner.DEFAULT_CACHE_EVICTION.toString());
+        config.setProperty(StateSpacePlanner.PROFILE_FILE_SETTING, StateSpacePlanner.DEFAULT_PROFILE_FILE);
+        config.setProperty(StateSpacePlanner.DISABLED_RULES_SETTING,
+            StateSpacePlanner.DEFAULT_DISABLED_RULES.toString());
         return config;
     }
 
@@ -208,6 +680,21 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
         config.setProperty(StateSpacePlanner.SEARCH_STRATEGIES_SETTING, this.getSearchStrategies().toString());
         config.setProperty(StateSpacePlanner.HEURISTIC_SETTING, this.getHeuristic().toString());
         config.setProperty(StateSpacePlanner.WEIGHT_HEURISTIC_SETTING, Double.toString(this.getHeuristicWeight()));
+        config.setProperty(StateSpacePlanner.EVALUATION_SETTING, this.getEvaluation().toString());
+        config.setProperty(StateSpacePlanner.ESTIMATE_SETTING, this.getEstimate().toString());
+        config.setProperty(StateSpacePlanner.PARALLELISM_SETTING, Integer.toString(this.getParallelism()));
+        config.setProperty(StateSpacePlanner.PORTFOLIO_SETTING, Boolean.toString(this.isPortfolio()));
+        config.setProperty(StateSpacePlanner.GRACE_SETTING, Long.toString(this.getGrace()));
+        config.setProperty(StateSpacePlanner.EXACT_MEMORY_SETTING, Boolean.toString(this.isExactMemory()));
+        config.setProperty(StateSpacePlanner.ASTAR_VARIANT_SETTING, this.getAStarVariant().toString());
+        config.setProperty(StateSpacePlanner.OPEN_LIST_SETTING, this.getOpenList().toString());
+        config.setProperty(StateSpacePlanner.TIE_BREAKING_SETTING, this.getTieBreaking().toString());
+        config.setProperty(StateSpacePlanner.HELPFUL_ACTIONS_SETTING, Boolean.toString(this.isHelpfulActions()));
+        config.setProperty(StateSpacePlanner.RESTARTS_SETTING, Integer.toString(this.getRestarts()));
+        config.setProperty(StateSpacePlanner.CACHE_SIZE_SETTING, Integer.toString(this.getCacheSize()));
+        config.setProperty(StateSpacePlanner.CACHE_EVICTION_SETTING, this.getCacheEviction().toString());
+        config.setProperty(StateSpacePlanner.PROFILE_FILE_SETTING, this.getProfileFile());
+        config.setProperty(StateSpacePlanner.DISABLED_RULES_SETTING, this.getDisabledRules().toString());
         return config;
     }
 
@@ -238,11 +725,95 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
             this.setHeuristic(StateHeuristic.Name.valueOf(configuration.getProperty(
                 StateSpacePlanner.HEURISTIC_SETTING)));
         }
+        if (configuration.getProperty(StateSpacePlanner.EVALUATION_SETTING) == null) {
+            this.setEvaluation(StateSpacePlanner.DEFAULT_EVALUATION);
+        } else {
+            this.setEvaluation(EslHeuristic.Evaluation.valueOf(configuration.getProperty(
+                StateSpacePlanner.EVALUATION_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.ESTIMATE_SETTING) == null) {
+            this.setEstimate(StateSpacePlanner.DEFAULT_ESTIMATE);
+        } else {
+            this.setEstimate(EslHeuristic.Estimate.valueOf(configuration.getProperty(
+                StateSpacePlanner.ESTIMATE_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.PARALLELISM_SETTING) == null) {
+            this.setParallelism(StateSpacePlanner.DEFAULT_PARALLELISM);
+        } else {
+            this.setParallelism(Integer.parseInt(configuration.getProperty(
+                StateSpacePlanner.PARALLELISM_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.PORTFOLIO_SETTING) == null) {
+            this.setPortfolio(StateSpacePlanner.DEFAULT_PORTFOLIO);
+        } else {
+            this.setPortfolio(Boolean.parseBoolean(configuration.getProperty(StateSpacePlanner.PORTFOLIO_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.GRACE_SETTING) == null) {
+            this.setGrace(StateSpacePlanner.DEFAULT_GRACE);
+        } else {
+            this.setGrace(Long.parseLong(configuration.getProperty(StateSpacePlanner.GRACE_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.EXACT_MEMORY_SETTING) == null) {
+            this.setExactMemory(StateSpacePlanner.DEFAULT_EXACT_MEMORY);
+        } else {
+            this.setExactMemory(Boolean.parseBoolean(configuration.getProperty(
+                StateSpacePlanner.EXACT_MEMORY_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.ASTAR_VARIANT_SETTING) == null) {
+            this.setAStarVariant(StateSpacePlanner.DEFAULT_ASTAR_VARIANT);
+        } else {
+            this.setAStarVariant(StateSpaceSearch.AStarVariant.valueOf(configuration.getProperty(
+                StateSpacePlanner.ASTAR_VARIANT_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.OPEN_LIST_SETTING) == null) {
+            this.setOpenList(StateSpacePlanner.DEFAULT_OPEN_LIST);
+        } else {
+            this.setOpenList(OpenList.Type.valueOf(configuration.getProperty(StateSpacePlanner.OPEN_LIST_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.TIE_BREAKING_SETTING) == null) {
+            this.setTieBreaking(StateSpacePlanner.DEFAULT_TIE_BREAKING);
+        } else {
+            this.setTieBreaking(OpenList.TieBreaking.valueOf(configuration.getProperty(
+                StateSpacePlanner.TIE_BREAKING_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.HELPFUL_ACTIONS_SETTING) == null) {
+            this.setHelpfulActions(StateSpacePlanner.DEFAULT_HELPFUL_ACTIONS);
+        } else {
+            this.setHelpfulActions(Boolean.parseBoolean(configuration.getProperty(
+                StateSpacePlanner.HELPFUL_ACTIONS_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.RESTARTS_SETTING) == null) {
+            this.setRestarts(StateSpacePlanner.DEFAULT_RESTARTS);
+        } else {
+            this.setRestarts(Integer.parseInt(configuration.getProperty(StateSpacePlanner.RESTARTS_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.CACHE_SIZE_SETTING) == null) {
+            this.setCacheSize(StateSpacePlanner.DEFAULT_CACHE_SIZE);
+        } else {
+            this.setCacheSize(Integer.parseInt(configuration.getProperty(StateSpacePlanner.CACHE_SIZE_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.CACHE_EVICTION_SETTING) == null) {
+            this.setCacheEviction(StateSpacePlanner.DEFAULT_CACHE_EVICTION);
+        } else {
+            this.setCacheEviction(HeuristicCache.Eviction.valueOf(configuration.getProperty(
+                StateSpacePlanner.CACHE_EVICTION_SETTING)));
+        }
+        if (configuration.getProperty(StateSpacePlanner.PROFILE_FILE_SETTING) == null) {
+            this.setProfileFile(StateSpacePlanner.DEFAULT_PROFILE_FILE);
+        } else {
+            this.setProfileFile(configuration.getProperty(StateSpacePlanner.PROFILE_FILE_SETTING));
+        }
+        if (configuration.getProperty(StateSpacePlanner.DISABLED_RULES_SETTING) == null) {
+            this.setDisabledRules(StateSpacePlanner.DEFAULT_DISABLED_RULES);
+        } else {
+            this.setDisabledRules(AbstractStateSpacePlanner.toActionKinds(configuration.getProperty(
+                StateSpacePlanner.DISABLED_RULES_SETTING)));
+        }
     }
 
     /**
      * Search a solution plan to a specified domain and problem. The method search a solution plan by trying iteratively
-     * all the search strategies defined.
+     * all the search strategies defined, or by running them concurrently if the planner is configured as a portfolio.
      *
      * @param problem the problem to solve.
      * @return the plan found or null if no plan was found.
@@ -252,7 +823,64 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
         if (!this.isSupported(problem)) {
             throw new ProblemNotSupportedException(("Problem not supported"));
         }
+        // The heuristic compiled for the problem is shared by the search strategies: the profiling and the ablation
+        // of its pruning rules are set once for all of them
+        final EslHeuristic esl = EslHeuristic.getInstance(problem, this.getHeuristic());
+        esl.setDisabledRules(this.getDisabledRules());
+        if (!this.getProfileFile().isEmpty()) {
+            esl.setProfiler(new Profiler());
+        }
+        if (this.getEstimate() == EslHeuristic.Estimate.LANDMARKS) {
+            esl.setEstimate(this.getEstimate());
+            LOGGER.info("* Landmark graph: " + esl.getLandmarks() + "\n");
+        }
+        this.exploredNodes = 0;
+        this.createdNodes = 0;
+        try {
+            if (this.isPortfolio() && this.getSearchStrategies().size() > 1) {
+                return this.solveConcurrently(problem);
+            }
+            return this.solveSequentially(problem);
+        } finally {
+            // The heuristic compiled for the problem is not needed anymore
+            final EslHeuristic heuristic = EslHeuristic.release(problem);
+            if (heuristic != null && heuristic.getCache() != null) {
+                LOGGER.info("* Heuristic cache: " + heuristic.getCache() + "\n");
+            }
+            if (heuristic != null && heuristic.getProfiler() != null) {
+                this.writeProfile(problem, heuristic);
+            }
+        }
+    }
+
+    /**
+     * Appends the profiling report of the ESL heuristic of a problem to the profiling report file, as a JSON line.
+     *
+     * @param problem   the problem solved.
+     * @param heuristic the ESL heuristic of the problem.
+     */
+    private void writeProfile(final Problem problem, final EslHeuristic heuristic) {
+        final String report = heuristic.getProfiler().toJson(problem, heuristic.getDisabledRules(),
+            heuristic.getCache());
+        try {
+            // Several problems solved at the same time in batch mode append to the same file
+            synchronized (AbstractStateSpacePlanner.class) {
+                Files.writeString(Paths.get(this.getProfileFile()), report + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            LOGGER.error("* Profiling report not written: " + e.getMessage() + "\n");
+        }
+    }
 
+    /**
+     * Search a solution plan by trying iteratively all the search strategies defined. The search stops when a search
+     * strategy succeed.
+     *
+     * @param problem the problem to solve.
+     * @return the plan found or null if no plan was found.
+     */
+    private Plan solveSequentially(final Problem problem) {
         Plan plan = null;
         final Iterator<SearchStrategy.Name> i = this.getSearchStrategies().iterator();
         int timeout = this.getTimeout();
@@ -262,10 +890,11 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
             LOGGER.info("* Starting " + strategy.name() + " search with "
                 + this.getConfiguration().getProperty(AbstractStateSpacePlanner.HEURISTIC_SETTING) + " heuristic and " +
                     EslHeuristic.NAME+" \n");
-            StateSpaceSearch search = StateSpaceSearch.getInstance(strategy, this.getHeuristic(),
-                this.getHeuristicWeight(), timeout);
+            final StateSpaceSearch search = this.createSearch(strategy, timeout);
             final Node solution = search.searchSolutionNode(problem);
             plan = search.extractPlan(solution, problem);
+            this.exploredNodes += search.getExploredNodes();
+            this.createdNodes += search.getCreatedNodes();
             if (solution != null) {
                 LOGGER.info("* " + strategy.name() + " search succeeded\n");
                 this.getStatistics().setTimeToSearch(search.getSearchingTime());
@@ -274,12 +903,142 @@ public abstract class AbstractStateSpacePlanner extends AbstractPlanner implemen
                 LOGGER.info("* " + strategy.name() + " search failed\n");
             }
             final long end = System.currentTimeMillis();
+            this.getStatistics().setTimeToSearch(search.getSearchingTime());
             this.getStatistics().setMemoryUsedToSearch(search.getMemoryUsed());
             timeout -= ((end - begin) / 1000);
         }
         return plan;
     }
 
+    /**
+     * Creates a search strategy with the settings of the planner.
+     *
+     * @param strategy the name of the search strategy.
+     * @param timeout  the time out of the search in seconds.
+     * @return the search strategy.
+     */
+    private StateSpaceSearch createSearch(final SearchStrategy.Name strategy, final int timeout) {
+        final StateSpaceSearch search = StateSpaceSearch.getInstance(strategy, this.getHeuristic(),
+            this.getHeuristicWeight(), timeout, this.getAStarVariant());
+        search.setEvaluation(this.getEvaluation());
+        search.setEstimate(this.getEstimate());
+        search.setParallelism(this.getParallelism());
+        search.setExactMemory(this.isExactMemory());
+        search.setOpenList(this.getOpenList());
+        search.setTieBreaking(this.getTieBreaking());
+        search.setHelpfulActions(this.isHelpfulActions());
+        search.setRestarts(this.getRestarts());
+        search.setCacheSize(this.getCacheSize());
+        search.setCacheEviction(this.getCacheEviction());
+        return search;
+    }
+
+    /**
+     * Search a solution plan by running all the search strategies defined concurrently, each one in its own thread and
+     * with the timeout of the planner as shared deadline. The first plan found is returned, or, if a grace time is set,
+     * the cheapest plan found before the end of the grace time that follows the first plan. The search strategies
+     * still running are then cancelled and the statistics of every search strategy are logged.
+     *
+     * @param problem the problem to solve.
+     * @return the plan found or null if no plan was found.
+     */
+    private Plan solveConcurrently(final Problem problem) {
+        final List<SearchStrategy.Name> strategies = this.getSearchStrategies();
+        final List<StateSpaceSearch> searches = new ArrayList<>();
+        final Plan[] plans = new Plan[strategies.size()];
+        final long deadline = System.currentTimeMillis() + this.getTimeout() * 1000L;
+        final ExecutorService executor = Executors.newFixedThreadPool(strategies.size(), r -> {
+            final Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        LOGGER.info("* Starting " + strategies + " searches concurrently with "
+            + this.getConfiguration().getProperty(AbstractStateSpacePlanner.HEURISTIC_SETTING) + " heuristic and "
+            + EslHeuristic.NAME + " \n");
+        for (int i = 0; i < strategies.size(); i++) {
+            final int index = i;
+            final StateSpaceSearch search = this.createSearch(strategies.get(i), this.getTimeout());
+            searches.add(search);
+            completion.submit(() -> {
+                plans[index] = search.extractPlan(search.searchSolutionNode(problem), problem);
+                return index;
+            });
+        }
+
+        int best = -1;
+        long end = deadline;
+        try {
+            for (int done = 0; done < strategies.size() && (best == -1 || this.getGrace() > 0); done++) {
+                final Future<Integer> future = completion.poll(end - System.currentTimeMillis(),
+                    TimeUnit.MILLISECONDS);
+                if (future == null) {
+                    break;
+                }
+                try {
+                    final int index = future.get();
+                    if (plans[index] != null && (best == -1 || plans[index].cost() < plans[best].cost())) {
+                        if (best == -1) {
+                            end = Math.min(deadline, System.currentTimeMillis() + this.getGrace());
+                        }
+                        best = index;
+                    }
+                } catch (ExecutionException e) {
+                    LOGGER.error("* search failed with an error: " + e.getCause() + "\n");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The search strategies check the cancellation at each expansion: waiting for them is short
+        searches.forEach(StateSpaceSearch::cancel);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long memory = 0;
+        for (int i = 0; i < searches.size(); i++) {
+            final StateSpaceSearch search = searches.get(i);
+            final String status = plans[i] != null ? "succeeded" : search.isCancelled() ? "cancelled" : "failed";
+            LOGGER.info(String.format("* %s search %s: %d explored, %d created, %d pending nodes, "
+                    + "%.2f seconds searching, %.2f MBytes%s", strategies.get(i).name(), status,
+                search.getExploredNodes(), search.getCreatedNodes(), search.getPendingNodes(),
+                Statistics.millisecondToSecond(search.getSearchingTime()),
+                Statistics.byteToMByte(search.getMemoryUsed()),
+                plans[i] != null ? ", plan of cost " + plans[i].cost() : "") + "\n");
+            memory += search.getMemoryUsed();
+            this.exploredNodes += search.getExploredNodes();
+            this.createdNodes += search.getCreatedNodes();
+        }
+        // The searches run at the same time: the memory used is the memory of all the searches
+        this.getStatistics().setMemoryUsedToSearch(memory);
+        if (best != -1) {
+            LOGGER.info("* " + strategies.get(best).name() + " plan selected\n");
+            this.getStatistics().setTimeToSearch(searches.get(best).getSearchingTime());
+        }
+        return best == -1 ? null : plans[best];
+    }
+
+    /**
+     * Returns the kinds of action of a list written as by {@code List.toString()}, e.g., {@code [MOVE, FILL_BOX]}.
+     *
+     * @param kinds the list of kinds of action.
+     * @return the kinds of action.
+     */
+    private static List<ActionKind> toActionKinds(final String kinds) {
+        final String list = kinds.replace("[", "").replace("]", "").trim();
+        final List<ActionKind> result = new ArrayList<>();
+        if (!list.isEmpty()) {
+            for (String kind : list.split(",")) {
+                result.add(ActionKind.valueOf(kind.trim()));
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns if a specified problem is supported by the planner.
      *
@@ -19,11 +19,27 @@
 
 package esl;
 
+import esl.decomposition.GoalDecomposition;
+import esl.heuristic.ActionKind;
+import esl.heuristic.EslHeuristic;
+import esl.heuristic.HeuristicCache;
+import esl.search.OpenList;
+import esl.search.StateSpaceSearch;
+import esl.temporal.PlanScheduler;
+import esl.temporal.TemporalProblem;
+import esl.temporal.TemporalSearch;
+import esl.temporal.TimedPlan;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
 import fr.uga.pddl4j.parser.DefaultParsedProblem;
+import fr.uga.pddl4j.parser.ParsedDomain;
+import fr.uga.pddl4j.parser.ParsedProblem;
+import fr.uga.pddl4j.parser.Parser;
+import fr.uga.pddl4j.plan.Plan;
 import fr.uga.pddl4j.planners.Planner;
 import fr.uga.pddl4j.planners.PlannerConfiguration;
+import fr.uga.pddl4j.planners.ProblemNotSupportedException;
 import fr.uga.pddl4j.planners.SearchStrategy;
+import fr.uga.pddl4j.planners.Statistics;
 
 import fr.uga.pddl4j.problem.DefaultProblem;
 import fr.uga.pddl4j.problem.Problem;
@@ -31,7 +47,18 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import picocli.CommandLine;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class implements Fast Forward planner based on Enforced Hill Climbing algorithm and AStar search.
@@ -42,7 +69,7 @@ import java.util.Arrays;
  * <pre>
  * {@code
  * EslPlanner [-hV] [-l=<logLevel>] [-t=<timeout>] [-w=<weight>] <domain>
- *             <problem>
+ *             <problem> [<problems>...]
  *
  * Description:
  *
@@ -52,6 +79,8 @@ import java.util.Arrays;
  * Parameters:
  *       <domain>              The domain file.
  *       <problem>             The problem file.
+ *       [<problems>...]       The other problem files or directories solved
+ *                               in batch mode.
  *
  * Options:
  *   -l, --log=<logLevel>      Set the level of trace: ALL, DEBUG, INFO, ERROR,
@@ -59,6 +88,111 @@ import java.util.Arrays;
  *   -t, --timeout=<timeout>   Set the time out of the planner in seconds (
  *                               preset 600s).
  *   -w, --weight=<weight>     Set the weight of the heuristic (preset 1.0).
+ *   -e, --heuristic=<heuristic>
+ *                             Set the heuristic : AJUSTED_SUM, AJUSTED_SUM2,
+ *                               AJUSTED_SUM2M, COMBO, MAX, FAST_FORWARD,
+ *                               SET_LEVEL, SUM, SUM_MUTEX (preset: FAST_FORWARD)
+ *   -s, --strategies=<strategies>
+ *                             Set the search strategies tried in turn until
+ *                               one succeeds: ASTAR, ENFORCED_HILL_CLIMBING,
+ *                               GREEDY_BEST_FIRST (preset:
+ *                               ASTAR,ENFORCED_HILL_CLIMBING)
+ *   -v, --evaluation=<evaluation>
+ *                             Set the evaluation mode of the ESL heuristic:
+ *                               PREDICATES, BITSET, INCREMENTAL (preset:
+ *                               BITSET)
+ *       --estimate=<estimate> Set the estimate added to the base heuristic:
+ *                               ESL, the goals, positions and box mismatches
+ *                               left, or LANDMARKS, the landmarks still
+ *                               required on the path to the node (preset: ESL).
+ *                               LANDMARKS is experimental and may evaluate more
+ *                               states than ESL, e.g., 4 times more on p3
+ *   -p, --parallelism=<parallelism>
+ *                             Set the number of threads used to evaluate the
+ *                               successors of a node, 0 for all the processors
+ *                               (preset: 1)
+ *       --portfolio           Run the search strategies concurrently and
+ *                               return the first plan found.
+ *   -g, --grace=<grace>       Set the time in milliseconds given to the other
+ *                               search strategies to find a cheaper plan once a
+ *                               first plan is found with --portfolio (preset: 0)
+ *   -a, --astar=<variant>     Set the variant of the A* search: EAGER, DEFERRED,
+ *                               ANYTIME (preset: EAGER). ANYTIME starts with a
+ *                               weight of 5 and lowers it down to -w, returning
+ *                               the best plan found before the timeout
+ *       --open-list=<openList>
+ *                             Set the open list of the A* search: HEAP,
+ *                               BUCKET (preset: HEAP)
+ *       --tie-breaking=<tieBreaking>
+ *                             Set the tie-breaking policy of the bucket open
+ *                               list: LOW_H_LIFO, LOW_H_FIFO, FIFO (preset:
+ *                               LOW_H_LIFO)
+ *       --[no-]helpful-actions
+ *                             Expand first the helpful actions of a node in
+ *                               the enforced hill climbing search, the actions
+ *                               adding a goal of the first layer of its relaxed
+ *                               plan, and all its actions only on a plateau
+ *                               (preset: true)
+ *       --restarts=<restarts> Set the number of restarts of the enforced hill
+ *                               climbing search from the previous best node when
+ *                               the plateau of the best node is exhausted, 0 to
+ *                               fail at the first dead end (preset: 100)
+ *       --cache=<cacheSize>   Set the memory in MBytes of the cache of the
+ *                               values of the base heuristic, 0 to disable it
+ *                               (preset: 0). Only the enforced hill climbing
+ *                               search evaluates a state again
+ *       --cache-eviction=<cacheEviction>
+ *                             Set the eviction policy of the cache of the
+ *                               values of the base heuristic: LRU, FIFO
+ *                               (preset: LRU)
+ *       --profile=<file>      Profile the components of the estimate and the
+ *                               pruning rules of the ESL heuristic and append
+ *                               the report of each problem to the file as a
+ *                               JSON line (preset: no profiling)
+ *       --disable-rules=<rules>
+ *                             Disable the pruning rules of the ESL heuristic
+ *                               for the actions of these kinds: MOVE,
+ *                               MOVE_CARRIER, FILL_BOX, GIVE_CONTENT,
+ *                               SATISFIED_WITH_AT_LEAST_ONE (preset: none)
+ *       --exact-memory        Measure the memory used by the searches by walking
+ *                               their objects instead of estimating it from the
+ *                               number of nodes stored.
+ *   -b, --batch               Solve in batch the problem and the other problems
+ *                               given, each one being a problem file or a
+ *                               directory of problem files.
+ *   -j, --jobs=<jobs>         Set the number of problems solved at the same
+ *                               time in batch mode, or of subproblems with
+ *                               --decompose, 0 for all the processors
+ *                               (preset: 0)
+ *       --decompose           Decompose the problem into one subproblem for
+ *                               each group of robots and carriers, the goals
+ *                               being clustered by location, solve the
+ *                               subproblems at the same time and merge their
+ *                               plans, the problem being solved as a whole if
+ *                               the merged plan is not valid.
+ *       --temporal            Solve the problem with the durative domain by a
+ *                               search over decision epochs minimizing the
+ *                               makespan, guided by the ESL heuristic of the
+ *                               classical domain.
+ *       --classical-domain=<file>
+ *                             Set the classical domain whose pruning rules and
+ *                               estimate guide the temporal search (preset:
+ *                               pddl_instances/esl-domain.pddl)
+ *       --plan=<file>         Write the temporal plan, or the plan deordered
+ *                               with --deorder, to the file in the format of
+ *                               PlanSys2 (preset: none)
+ *       --deorder             Deorder the plan found and schedule its actions
+ *                               at their earliest start times, the independent
+ *                               actions of different robots being done at the
+ *                               same time.
+ *       --durative-domain=<file>
+ *                             Set the durative domain giving the durations of
+ *                               the actions of the plan deordered (preset:
+ *                               durations of 1)
+ *       --durative-problem=<file>
+ *                             Set the problem giving the values of the numeric
+ *                               fluents of the durative domain (preset: the
+ *                               problem)
  *   -h, --help                Show this help message and exit.
  *   -V, --version             Print version information and exit.
  *  }
@@ -98,6 +232,56 @@ public final class EslPlanner extends AbstractStateSpacePlanner  {
      */
     private static final Logger LOGGER = LogManager.getLogger(EslPlanner.class.getName());
 
+    /**
+     * The flag to solve in batch all the problems given on the command line.
+     */
+    private boolean batch;
+
+    /**
+     * The problem files or directories given after the problem, solved in batch mode.
+     */
+    private List<String> problems = new ArrayList<>();
+
+    /**
+     * The number of problems solved at the same time in batch mode.
+     */
+    private int jobs;
+
+    /**
+     * The flag to decompose the problem into subproblems, one for each group of robots and carriers.
+     */
+    private boolean decompose;
+
+    /**
+     * The flag to solve the problem with the temporal search, the domain having durative actions.
+     */
+    private boolean temporal;
+
+    /**
+     * The classical ESL domain whose pruning rules and estimate guide the temporal search.
+     */
+    private File classicalDomain = new File("pddl_instances/esl-domain.pddl");
+
+    /**
+     * The file where the temporal plan is written, empty to only log it.
+     */
+    private String planFile = "";
+
+    /**
+     * The flag to deorder the plan found and schedule its actions at their earliest start times.
+     */
+    private boolean deorder;
+
+    /**
+     * The durative domain giving the durations of the actions of the concurrent plan, null for durations of 1.
+     */
+    private File durativeDomain;
+
+    /**
+     * The problem of the durative domain giving the values of its numeric fluents, null for the problem.
+     */
+    private File durativeProblem;
+
     /**
      * Creates a new planner with default parameters.
      */
@@ -155,6 +339,569 @@ public final class EslPlanner extends AbstractStateSpacePlanner  {
         super.setHeuristic(heuristic);
     }
 
+    /**
+     * Sets the search strategies used to solve a planning problem, tried in the specified order.
+     *
+     * @param strategies the search strategies.
+     * @throws IllegalArgumentException if a search strategy is not ASTAR, ENFORCED_HILL_CLIMBING or
+     *      GREEDY_BEST_FIRST.
+     */
+    @CommandLine.Option(names = { "-s", "--strategies" }, split = ",", paramLabel = "<strategies>",
+            defaultValue = "ASTAR,ENFORCED_HILL_CLIMBING",
+            description = "Set the search strategies tried in turn until one succeeds: ASTAR, ENFORCED_HILL_CLIMBING, "
+                    + "GREEDY_BEST_FIRST (preset: ASTAR,ENFORCED_HILL_CLIMBING)")
+    @Override
+    public void setSearchStrategies(final List<SearchStrategy.Name> strategies) {
+        for (SearchStrategy.Name strategy : strategies) {
+            if (!EslPlanner.isSupported(strategy)) {
+                throw new IllegalArgumentException("search strategy " + strategy + " is not supported");
+            }
+        }
+        super.setSearchStrategies(strategies);
+    }
+
+    /**
+     * Sets the evaluation mode of the ESL heuristic.
+     *
+     * @param evaluation the evaluation mode of the ESL heuristic.
+     */
+    @CommandLine.Option(names = { "-v", "--evaluation" }, defaultValue = "BITSET",
+            description = "Set the evaluation mode of the ESL heuristic: PREDICATES, BITSET, INCREMENTAL (preset: BITSET)")
+    public void setEvaluation(EslHeuristic.Evaluation evaluation) {
+        super.setEvaluation(evaluation);
+    }
+
+    /**
+     * Sets the estimate added to the base heuristic by the ESL heuristic.
+     *
+     * @param estimate the estimate added to the base heuristic.
+     */
+    @CommandLine.Option(names = { "--estimate" }, defaultValue = "ESL",
+            description = "Set the estimate added to the base heuristic: ESL, the goals, positions and box mismatches "
+                    + "left, or LANDMARKS, the landmarks still required on the path to the node (preset: ESL). "
+                    + "LANDMARKS is experimental and may evaluate more states than ESL, e.g., 4 times more on p3")
+    public void setEstimate(final EslHeuristic.Estimate estimate) {
+        super.setEstimate(estimate);
+    }
+
+    /**
+     * Sets the number of threads used to evaluate the successors of a node.
+     *
+     * @param parallelism the number of threads.
+     */
+    @CommandLine.Option(names = { "-p", "--parallelism" }, defaultValue = "1",
+            description = "Set the number of threads used to evaluate the successors of a node, 0 for all the "
+                    + "processors (preset: 1)")
+    public void setParallelism(final int parallelism) {
+        super.setParallelism(parallelism);
+    }
+
+    /**
+     * Sets if the search strategies are run concurrently.
+     *
+     * @param portfolio <code>true</code> to run the search strategies concurrently.
+     */
+    @CommandLine.Option(names = { "--portfolio" }, defaultValue = "false",
+            description = "Run the search strategies concurrently and return the first plan found.")
+    public void setPortfolio(final boolean portfolio) {
+        super.setPortfolio(portfolio);
+    }
+
+    /**
+     * Sets the time given to the other search strategies to find a cheaper plan once a first plan is found.
+     *
+     * @param grace the time in milliseconds.
+     */
+    @CommandLine.Option(names = { "-g", "--grace" }, defaultValue = "0",
+            description = "Set the time in milliseconds given to the other search strategies to find a cheaper plan "
+                    + "once a first plan is found with --portfolio (preset: 0)")
+    public void setGrace(final long grace) {
+        super.setGrace(grace);
+    }
+
+    /**
+     * Sets the variant of the A* search strategy.
+     *
+     * @param variant the variant of the A* search strategy.
+     */
+    @CommandLine.Option(names = { "-a", "--astar" }, defaultValue = "EAGER", paramLabel = "<variant>",
+            description = "Set the variant of the A* search: EAGER, DEFERRED, ANYTIME (preset: EAGER). ANYTIME "
+                + "starts with a weight of 5 and lowers it down to -w, returning the best plan found before the timeout")
+    public void setAStarVariant(final StateSpaceSearch.AStarVariant variant) {
+        super.setAStarVariant(variant);
+    }
+
+    /**
+     * Sets the type of the open list of the A* search strategies.
+     *
+     * @param openList the type of the open list.
+     */
+    @CommandLine.Option(names = { "--open-list" }, defaultValue = "HEAP",
+            description = "Set the open list of the A* search: HEAP, BUCKET (preset: HEAP)")
+    public void setOpenList(final OpenList.Type openList) {
+        super.setOpenList(openList);
+    }
+
+    /**
+     * Sets the tie-breaking policy of the open list of the A* search strategies.
+     *
+     * @param tieBreaking the tie-breaking policy.
+     */
+    @CommandLine.Option(names = { "--tie-breaking" }, defaultValue = "LOW_H_LIFO",
+            description = "Set the tie-breaking policy of the bucket open list: LOW_H_LIFO, LOW_H_FIFO, FIFO "
+                    + "(preset: LOW_H_LIFO)")
+    public void setTieBreaking(final OpenList.TieBreaking tieBreaking) {
+        super.setTieBreaking(tieBreaking);
+    }
+
+    /**
+     * Sets if the enforced hill climbing search expands first the helpful actions of a node.
+     *
+     * @param helpfulActions <code>true</code> to expand first the helpful actions.
+     */
+    @CommandLine.Option(names = { "--helpful-actions" }, negatable = true, defaultValue = "true",
+            description = "Expand first the helpful actions of a node in the enforced hill climbing search, the "
+                    + "actions adding a goal of the first layer of its relaxed plan, and all its actions only on a "
+                    + "plateau (preset: true)")
+    public void setHelpfulActions(final boolean helpfulActions) {
+        super.setHelpfulActions(helpfulActions);
+    }
+
+    /**
+     * Sets the number of restarts of the enforced hill climbing search from the previous best node when the plateau
+     * of the best node is exhausted.
+     *
+     * @param restarts the number of restarts. The number of restarts must be greater or equal to 0.
+     */
+    @CommandLine.Option(names = { "--restarts" }, defaultValue = "100",
+            description = "Set the number of restarts of the enforced hill climbing search from the previous best "
+                    + "node when the plateau of the best node is exhausted, 0 to fail at the first dead end "
+                    + "(preset: 100)")
+    public void setRestarts(final int restarts) {
+        super.setRestarts(restarts);
+    }
+
+    /**
+     * Sets the memory in MBytes of the cache of the values of the base heuristic.
+     *
+     * @param cacheSize the memory of the cache in MBytes, 0 to disable it.
+     */
+    @CommandLine.Option(names = { "--cache" }, defaultValue = "0",
+            description = "Set the memory in MBytes of the cache of the values of the base heuristic, 0 to disable "
+                    + "it (preset: 0). Only the enforced hill climbing search evaluates a state again")
+    public void setCacheSize(final int cacheSize) {
+        super.setCacheSize(cacheSize);
+    }
+
+    /**
+     * Sets the eviction policy of the cache of the values of the base heuristic.
+     *
+     * @param cacheEviction the eviction policy.
+     */
+    @CommandLine.Option(names = { "--cache-eviction" }, defaultValue = "LRU",
+            description = "Set the eviction policy of the cache of the values of the base heuristic: LRU, FIFO "
+                    + "(preset: LRU)")
+    public void setCacheEviction(final HeuristicCache.Eviction cacheEviction) {
+        super.setCacheEviction(cacheEviction);
+    }
+
+    /**
+     * Sets the file where the profiling report of the ESL heuristic is appended.
+     *
+     * @param profileFile the path of the report, empty to disable the profiling.
+     */
+    @CommandLine.Option(names = { "--profile" }, paramLabel = "<file>", defaultValue = "",
+            description = "Profile the components of the estimate and the pruning rules of the ESL heuristic and "
+                    + "append the report of each problem to the file as a JSON line (preset: no profiling)")
+    public void setProfileFile(final String profileFile) {
+        super.setProfileFile(profileFile);
+    }
+
+    /**
+     * Sets the pruning rules of the ESL heuristic disabled, for ablation runs.
+     *
+     * @param disabledRules the kinds of the actions whose pruning rule is disabled.
+     */
+    @CommandLine.Option(names = { "--disable-rules" }, split = ",", paramLabel = "<rules>",
+            description = "Disable the pruning rules of the ESL heuristic for the actions of these kinds: MOVE, "
+                    + "MOVE_CARRIER, FILL_BOX, GIVE_CONTENT, SATISFIED_WITH_AT_LEAST_ONE (preset: none)")
+    public void setDisabledRules(final List<ActionKind> disabledRules) {
+        super.setDisabledRules(disabledRules);
+    }
+
+    /**
+     * Sets if the memory used by the searches is measured exactly.
+     *
+     * @param exactMemory <code>true</code> to measure the memory used by the searches exactly.
+     */
+    @CommandLine.Option(names = { "--exact-memory" }, defaultValue = "false",
+            description = "Measure the memory used by the searches by walking their objects instead of estimating it "
+                    + "from the number of nodes stored.")
+    public void setExactMemory(final boolean exactMemory) {
+        super.setExactMemory(exactMemory);
+    }
+
+    /**
+     * Sets if the problems given on the command line are solved in batch.
+     *
+     * @param batch <code>true</code> to solve the problems in batch.
+     */
+    @CommandLine.Option(names = { "-b", "--batch" }, defaultValue = "false",
+            description = "Solve in batch the problem and the other problems given, each one being a problem file or "
+                    + "a directory of problem files.")
+    public void setBatch(final boolean batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Returns if the problems given on the command line are solved in batch.
+     *
+     * @return <code>true</code> if the problems are solved in batch <code>false</code> otherwise.
+     */
+    public final boolean isBatch() {
+        return this.batch;
+    }
+
+    /**
+     * Sets the problem files or directories solved in batch mode in addition to the problem.
+     *
+     * @param problems the problem files or directories.
+     */
+    @CommandLine.Parameters(index = "2..*", arity = "0..*", paramLabel = "<problems>",
+            description = "The other problem files or directories solved in batch mode.")
+    public void setProblems(final List<String> problems) {
+        this.problems = problems == null ? new ArrayList<>() : problems;
+    }
+
+    /**
+     * Returns the problem files or directories solved in batch mode in addition to the problem.
+     *
+     * @return the problem files or directories.
+     */
+    public final List<String> getProblems() {
+        return this.problems;
+    }
+
+    /**
+     * Sets the number of problems solved at the same time in batch mode, or of subproblems in decomposition mode.
+     *
+     * @param jobs the number of problems, 0 for one problem per available processor.
+     * @throws IllegalArgumentException if the number of problems is strictly less than 0.
+     */
+    @CommandLine.Option(names = { "-j", "--jobs" }, defaultValue = "0",
+            description = "Set the number of problems solved at the same time in batch mode, or of subproblems with "
+                    + "--decompose, 0 for all the processors (preset: 0)")
+    public void setJobs(final int jobs) {
+        if (jobs < 0) {
+            throw new IllegalArgumentException("jobs must be greater or equal to 0");
+        }
+        this.jobs = jobs;
+    }
+
+    /**
+     * Returns the number of problems solved at the same time in batch mode, or of subproblems in decomposition mode.
+     *
+     * @return the number of problems solved at the same time.
+     */
+    public final int getJobs() {
+        return this.jobs;
+    }
+
+    /**
+     * Sets if the problem is decomposed into subproblems, one for each group of robots and carriers.
+     *
+     * @param decompose <code>true</code> to decompose the problem.
+     */
+    @CommandLine.Option(names = { "--decompose" }, defaultValue = "false",
+            description = "Decompose the problem into one subproblem for each group of robots and carriers, the goals "
+                    + "being clustered by location, solve the subproblems at the same time and merge their plans, the "
+                    + "problem being solved as a whole if the merged plan is not valid.")
+    public void setDecompose(final boolean decompose) {
+        this.decompose = decompose;
+    }
+
+    /**
+     * Returns if the problem is decomposed into subproblems, one for each group of robots and carriers.
+     *
+     * @return <code>true</code> if the problem is decomposed <code>false</code> otherwise.
+     */
+    public final boolean isDecompose() {
+        return this.decompose;
+    }
+
+    /**
+     * Sets if the problem is solved with the temporal search, the domain having durative actions.
+     *
+     * @param temporal <code>true</code> to solve the problem with the temporal search.
+     */
+    @CommandLine.Option(names = { "--temporal" }, defaultValue = "false",
+            description = "Solve the problem with the durative domain by a search over decision epochs minimizing "
+                    + "the makespan, guided by the ESL heuristic of the classical domain.")
+    public void setTemporal(final boolean temporal) {
+        this.temporal = temporal;
+    }
+
+    /**
+     * Returns if the problem is solved with the temporal search.
+     *
+     * @return <code>true</code> if the problem is solved with the temporal search <code>false</code> otherwise.
+     */
+    public final boolean isTemporal() {
+        return this.temporal;
+    }
+
+    /**
+     * Sets the classical ESL domain whose pruning rules and estimate guide the temporal search.
+     *
+     * @param classicalDomain the classical domain.
+     */
+    @CommandLine.Option(names = { "--classical-domain" }, paramLabel = "<file>",
+            defaultValue = "pddl_instances/esl-domain.pddl",
+            description = "Set the classical domain whose pruning rules and estimate guide the temporal search "
+                    + "(preset: pddl_instances/esl-domain.pddl)")
+    public void setClassicalDomain(final File classicalDomain) {
+        this.classicalDomain = classicalDomain;
+    }
+
+    /**
+     * Returns the classical ESL domain whose pruning rules and estimate guide the temporal search.
+     *
+     * @return the classical domain.
+     */
+    public final File getClassicalDomain() {
+        return this.classicalDomain;
+    }
+
+    /**
+     * Sets the file where the temporal plan is written.
+     *
+     * @param planFile the path of the plan, empty to only log it.
+     */
+    @CommandLine.Option(names = { "--plan" }, paramLabel = "<file>", defaultValue = "",
+            description = "Write the temporal plan, or the plan deordered with --deorder, to the file in the format "
+                    + "of PlanSys2 (preset: none)")
+    public void setPlanFile(final String planFile) {
+        this.planFile = planFile;
+    }
+
+    /**
+     * Returns the file where the temporal plan is written.
+     *
+     * @return the path of the plan, empty if the plan is only logged.
+     */
+    public final String getPlanFile() {
+        return this.planFile;
+    }
+
+    /**
+     * Sets if the plan found is deordered and its actions scheduled at their earliest start times.
+     *
+     * @param deorder <code>true</code> to deorder the plan found.
+     */
+    @CommandLine.Option(names = { "--deorder" }, defaultValue = "false",
+            description = "Deorder the plan found and schedule its actions at their earliest start times, the "
+                    + "independent actions of different robots being done at the same time.")
+    public void setDeorder(final boolean deorder) {
+        this.deorder = deorder;
+    }
+
+    /**
+     * Returns if the plan found is deordered and its actions scheduled at their earliest start times.
+     *
+     * @return <code>true</code> if the plan found is deordered <code>false</code> otherwise.
+     */
+    public final boolean isDeorder() {
+        return this.deorder;
+    }
+
+    /**
+     * Sets the durative domain giving the durations of the actions of the concurrent plan.
+     *
+     * @param durativeDomain the durative domain, null for durations of 1.
+     */
+    @CommandLine.Option(names = { "--durative-domain" }, paramLabel = "<file>",
+            description = "Set the durative domain giving the durations of the actions of the plan deordered "
+                    + "(preset: durations of 1)")
+    public void setDurativeDomain(final File durativeDomain) {
+        this.durativeDomain = durativeDomain;
+    }
+
+    /**
+     * Returns the durative domain giving the durations of the actions of the concurrent plan.
+     *
+     * @return the durative domain, null for durations of 1.
+     */
+    public final File getDurativeDomain() {
+        return this.durativeDomain;
+    }
+
+    /**
+     * Sets the problem of the durative domain giving the values of its numeric fluents.
+     *
+     * @param durativeProblem the problem of the durative domain, null for the problem solved.
+     */
+    @CommandLine.Option(names = { "--durative-problem" }, paramLabel = "<file>",
+            description = "Set the problem giving the values of the numeric fluents of the durative domain (preset: "
+                    + "the problem)")
+    public void setDurativeProblem(final File durativeProblem) {
+        this.durativeProblem = durativeProblem;
+    }
+
+    /**
+     * Returns the problem of the durative domain giving the values of its numeric fluents.
+     *
+     * @return the problem of the durative domain, null for the problem solved.
+     */
+    public final File getDurativeProblem() {
+        return this.durativeProblem;
+    }
+
+    /**
+     * Solves the problem, by decomposition first in decomposition mode, and, if the plan found is deordered, logs the
+     * concurrent plan.
+     *
+     * @param problem the problem to solve.
+     * @return the plan found or null if no plan was found.
+     * @throws ProblemNotSupportedException if the problem to solve is not supported by the planner.
+     */
+    @Override
+    public Plan solve(final Problem problem) throws ProblemNotSupportedException {
+        Plan plan = this.isDecompose() ? this.solveDecomposed(problem) : null;
+        if (plan == null) {
+            plan = super.solve(problem);
+        }
+        if (plan != null && this.isDeorder()) {
+            this.schedule(problem, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Solves the problem by decomposition: the subproblems of the {@link GoalDecomposition} of the problem are
+     * instantiated one after the other, then solved in parallel, each one by its own planner with the configuration of this planner, and
+     * their plans are merged and checked against the problem.
+     *
+     * @param problem the problem to solve.
+     * @return the merged plan or null if the problem cannot be decomposed, a subproblem is not solved or the merged
+     *      plan is not valid.
+     */
+    private Plan solveDecomposed(final Problem problem) {
+        final long begin = System.currentTimeMillis();
+        final GoalDecomposition decomposition = new GoalDecomposition(problem, this.getDomainFile());
+        final int size = decomposition.size();
+        if (size < 2) {
+            LOGGER.info("* Problem not decomposed: less than two groups of robots, carriers and boxes with goals\n");
+            return null;
+        }
+        final StringBuilder groups = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            groups.append("  ").append(i + 1).append(". ").append(decomposition.describe(i)).append('\n');
+        }
+        LOGGER.info("* Problem decomposed into " + size + " subproblems:\n" + groups);
+
+        // The subproblems are parsed and instantiated one after the other, as the problems in batch mode
+        final List<Problem> instances = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Problem instance = null;
+            try {
+                instance = decomposition.instantiate(i);
+            } catch (IOException e) {
+                LOGGER.error(e.getMessage() + "\n");
+            }
+            if (instance == null) {
+                LOGGER.warn("* Subproblem " + (i + 1) + " not instantiated: the problem is solved as a whole\n");
+                return null;
+            }
+            instances.add(instance);
+        }
+
+        final int threads = this.getJobs() == 0 ? Runtime.getRuntime().availableProcessors() : this.getJobs();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, size)));
+        final List<Future<Plan>> futures = new ArrayList<>();
+        final EslPlanner[] planners = new EslPlanner[size];
+        for (int i = 0; i < size; i++) {
+            final int index = i;
+            planners[index] = new EslPlanner(this.getConfiguration());
+            futures.add(executor.submit(() -> planners[index].solve(instances.get(index))));
+        }
+        executor.shutdown();
+
+        final List<Plan> plans = new ArrayList<>();
+        long memory = 0;
+        for (int i = 0; i < size; i++) {
+            Plan plan = null;
+            try {
+                plan = futures.get(i).get();
+            } catch (ExecutionException e) {
+                LOGGER.error("* Subproblem " + (i + 1) + ": " + e.getCause() + "\n");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (plan == null) {
+                LOGGER.warn("* Subproblem " + (i + 1) + " not solved: the problem is solved as a whole\n");
+                executor.shutdownNow();
+                return null;
+            }
+            plans.add(plan);
+            memory += planners[i].getStatistics().getMemoryUsedToSearch();
+        }
+        final Plan merged = decomposition.merge(instances, plans);
+        if (merged == null || !decomposition.isValid(merged)) {
+            LOGGER.warn("* Merged plan not valid: the problem is solved as a whole\n");
+            return null;
+        }
+        final long end = System.currentTimeMillis();
+        LOGGER.info(String.format("* Decomposition succeeded: %d plans merged into a plan of %d actions in %.2f "
+            + "seconds", size, merged.size(), Statistics.millisecondToSecond(end - begin)) + "\n");
+        this.getStatistics().setTimeToSearch(end - begin);
+        this.getStatistics().setMemoryUsedToSearch(memory);
+        return merged;
+    }
+
+    /**
+     * Deorders a plan, schedules its actions at their earliest start times with the durations of the durative domain,
+     * if any, and logs the concurrent plan and its makespan. The concurrent plan is written to the plan file, if any.
+     *
+     * @param problem the problem solved.
+     * @param plan    the plan found.
+     */
+    private void schedule(final Problem problem, final Plan plan) {
+        TemporalProblem durative = null;
+        if (this.getDurativeDomain() != null) {
+            final File file = this.getDurativeProblem() == null ? this.getProblemFile() : this.getDurativeProblem();
+            try {
+                durative = TemporalProblem.parse(this.getDurativeDomain(), file);
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.error("* Durative domain not read, durations of 1 used: " + e.getMessage() + "\n");
+            }
+        }
+        final PlanScheduler scheduler;
+        try {
+            scheduler = new PlanScheduler(problem, this.getDomainFile(), durative);
+        } catch (FileNotFoundException e) {
+            LOGGER.error("* Plan not deordered: " + e.getMessage() + "\n");
+            return;
+        }
+        final TimedPlan concurrent = scheduler.schedule(plan);
+        LOGGER.info(String.format("* Plan deordered: %d orderings kept between %d actions", scheduler.getOrderings(),
+            plan.size()) + "\n");
+        if (scheduler.getUndefinedDurations() > 0) {
+            LOGGER.warn("* " + scheduler.getUndefinedDurations() + " actions without a duration in the durative domain "
+                + "last 1\n");
+        }
+        final double sequential = concurrent.getActions().stream().mapToDouble(TimedPlan.TimedAction::getDuration)
+            .sum();
+        LOGGER.info(String.format("%nconcurrent plan as follows:%n%n%s%nmakespan: %.5f (%.5f for the sequential "
+            + "plan)%n", concurrent, concurrent.getMakespan(), sequential));
+        if (!this.getPlanFile().isEmpty()) {
+            try {
+                Files.writeString(Path.of(this.getPlanFile()), concurrent.toString());
+            } catch (IOException e) {
+                LOGGER.error(e.getMessage() + "\n");
+            }
+        }
+    }
+
     /**
      * Instantiates the planning problem from a parsed problem.
      *
@@ -171,16 +918,209 @@ public final class EslPlanner extends AbstractStateSpacePlanner  {
     /**
      * Checks the planner configuration and returns if the configuration is valid. A configuration is valid if (1) the
      * domain and the problem files exist and can be read, (2) the timeout is greater than 0, (3) the weight of the
-     * heuristic is greater than 0, (4) the heuristic is a not null and (5) the list of search strategies to use is
-     * ASTAR and ENFORCE_HILL_CLIMBING.
+     * heuristic is greater than 0, (4) the heuristic is a not null and (5) the search strategies to use are among
+     * ASTAR, ENFORCED_HILL_CLIMBING and GREEDY_BEST_FIRST.
      *
      * @return <code>true</code> if the configuration is valid <code>false</code> otherwise.
      */
     public boolean hasValidConfiguration() {
         return super.hasValidConfiguration()
-            && this.getSearchStrategies().size() == 2
-            && this.getSearchStrategies().contains(SearchStrategy.Name.ENFORCED_HILL_CLIMBING)
-            && this.getSearchStrategies().contains(SearchStrategy.Name.ASTAR);
+            && this.getSearchStrategies().stream().allMatch(EslPlanner::isSupported);
+    }
+
+    /**
+     * Returns if a search strategy is supported by the planner: ASTAR, ENFORCED_HILL_CLIMBING or GREEDY_BEST_FIRST.
+     *
+     * @param strategy the search strategy.
+     * @return <code>true</code> if the search strategy is supported <code>false</code> otherwise.
+     */
+    private static boolean isSupported(final SearchStrategy.Name strategy) {
+        return strategy == SearchStrategy.Name.ASTAR || strategy == SearchStrategy.Name.ENFORCED_HILL_CLIMBING
+            || strategy == SearchStrategy.Name.GREEDY_BEST_FIRST;
+    }
+
+    /**
+     * Runs the planner from the command line: solves the problem, with the temporal search if the domain has durative
+     * actions, or, in batch mode, all the problems given.
+     *
+     * @return the exit code of the planner.
+     */
+    @Override
+    public Integer call() {
+        if (this.isTemporal()) {
+            return this.solveTemporal();
+        }
+        return this.isBatch() ? this.solveBatch() : super.call();
+    }
+
+    /**
+     * Solves the problem with the temporal search. The domain and the problem are read and grounded by
+     * {@link TemporalProblem}, since PDDL4J cannot instantiate the durative ESL domain, and the plan found is logged
+     * and written to the plan file, if any, with its makespan.
+     *
+     * @return the exit code of the planner: 0 if the problem was searched, 1 if it cannot be read.
+     */
+    private int solveTemporal() {
+        final long begin = System.currentTimeMillis();
+        final TemporalProblem problem;
+        try {
+            problem = TemporalProblem.parse(this.getDomainFile(), this.getProblemFile());
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.fatal(e.getMessage() + "\n");
+            return 1;
+        }
+        final long grounded = System.currentTimeMillis();
+        LOGGER.info(String.format("* Problem %s grounded: %d actions, %d fluents in %.2f seconds",
+            problem.getProblemName(), problem.getActions().size(), problem.getFluentCount(),
+            Statistics.millisecondToSecond(grounded - begin)) + "\n");
+        if (!this.getClassicalDomain().canRead()) {
+            LOGGER.warn("* Classical domain " + this.getClassicalDomain() + " not found: the temporal search is "
+                + "guided by the number of goals not satisfied\n");
+        }
+        LOGGER.info("* Starting temporal search with " + this.getHeuristic() + " heuristic and " + EslHeuristic.NAME
+            + "\n");
+        final TemporalSearch search = new TemporalSearch(problem, this.getClassicalDomain(), this.getHeuristic(),
+            this.getHeuristicWeight(), this.getTimeout() * 1000);
+        final TimedPlan plan = search.search();
+        final long end = System.currentTimeMillis();
+        if (plan == null) {
+            LOGGER.info(String.format("* Temporal search failed: %d explored, %d created nodes in %.2f seconds",
+                search.getExploredNodes(), search.getCreatedNodes(), Statistics.millisecondToSecond(end - grounded))
+                + "\n");
+            return 0;
+        }
+        LOGGER.info(String.format("* Temporal search succeeded: %d explored, %d created nodes in %.2f seconds",
+            search.getExploredNodes(), search.getCreatedNodes(), Statistics.millisecondToSecond(end - grounded))
+            + "\n");
+        LOGGER.info(String.format("%nfound plan as follows:%n%n%s%nmakespan: %.5f%n", plan,
+            plan.getMakespan()));
+        if (!this.getPlanFile().isEmpty()) {
+            try {
+                Files.writeString(Path.of(this.getPlanFile()), plan.toString());
+            } catch (IOException e) {
+                LOGGER.error(e.getMessage() + "\n");
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Solves in batch the problems given on the command line. The domain is parsed once, the problems are parsed
+     * one after the other, then instantiated and solved in parallel, each one by its own planner with the
+     * configuration of this planner. The plan of each problem is logged in the order of the problems, followed by a
+     * summary of the throughput of the batch.
+     *
+     * @return the exit code of the planner: 0 if the batch was run, 1 if the domain cannot be parsed.
+     */
+    private int solveBatch() {
+        final long begin = System.currentTimeMillis();
+        final Parser parser = new Parser();
+        final ParsedDomain domain;
+        try {
+            domain = parser.parseDomain(this.getDomainFile());
+        } catch (FileNotFoundException e) {
+            LOGGER.fatal(e.getMessage() + "\n");
+            return 1;
+        }
+        if (!parser.getErrorManager().isEmpty()) {
+            parser.getErrorManager().getMessages().forEach(m -> LOGGER.fatal(m.toString()));
+            return 1;
+        }
+
+        final List<File> files = this.getBatchProblemFiles();
+        final List<DefaultParsedProblem> parsedProblems = new ArrayList<>();
+        for (File file : files) {
+            parser.getErrorManager().clear();
+            DefaultParsedProblem parsedProblem = null;
+            try {
+                final ParsedProblem problem = parser.parseProblem(file);
+                if (parser.getErrorManager().isEmpty()) {
+                    parsedProblem = new DefaultParsedProblem(domain, problem);
+                } else {
+                    parser.getErrorManager().getMessages().forEach(m -> LOGGER.error(m.toString()));
+                }
+            } catch (FileNotFoundException e) {
+                LOGGER.error(e.getMessage() + "\n");
+            }
+            parsedProblems.add(parsedProblem);
+        }
+
+        final int threads = this.getJobs() == 0 ? Runtime.getRuntime().availableProcessors() : this.getJobs();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())));
+        final List<Future<Plan>> plans = new ArrayList<>();
+        final Problem[] instances = new Problem[files.size()];
+        final EslPlanner[] planners = new EslPlanner[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            final int index = i;
+            final DefaultParsedProblem parsedProblem = parsedProblems.get(i);
+            plans.add(executor.submit(() -> {
+                if (parsedProblem == null) {
+                    return null;
+                }
+                // The parsed problems share the parsed domain: the instantiations are done one at a time
+                synchronized (domain) {
+                    instances[index] = this.instantiate(parsedProblem);
+                }
+                planners[index] = new EslPlanner(this.getConfiguration());
+                planners[index].setProblem(files.get(index).getPath());
+                return planners[index].solve(instances[index]);
+            }));
+        }
+        executor.shutdown();
+
+        int solved = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Plan plan = null;
+            try {
+                plan = plans.get(i).get();
+            } catch (ExecutionException e) {
+                LOGGER.error("* " + files.get(i).getName() + ": " + e.getCause() + "\n");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (plan != null) {
+                solved++;
+                LOGGER.info(String.format("* %s: plan of %d actions found in %.2f seconds%n%n%s%n",
+                    files.get(i).getName(), plan.size(),
+                    Statistics.millisecondToSecond(planners[i].getStatistics().getTimeToSearch()),
+                    instances[i].toString(plan)));
+            } else {
+                LOGGER.info("* " + files.get(i).getName() + ": no plan found\n");
+            }
+        }
+        final long time = System.currentTimeMillis() - begin;
+        LOGGER.info(String.format("* %d problems solved out of %d in %.2f seconds with %d threads "
+                + "(%.2f problems per second)%n", solved, files.size(), Statistics.millisecondToSecond(time),
+            threads, time == 0 ? 0.0 : files.size() * 1000.0 / time));
+        return 0;
+    }
+
+    /**
+     * Returns the problem files to solve in batch mode: the problem and the other problems given, where a directory
+     * stands for the PDDL files it contains, except the domain file, in the order of their names.
+     *
+     * @return the problem files to solve in batch mode.
+     */
+    private List<File> getBatchProblemFiles() {
+        final List<String> paths = new ArrayList<>();
+        paths.add(this.getProblem());
+        paths.addAll(this.getProblems());
+        final List<File> files = new ArrayList<>();
+        for (String path : paths) {
+            final File file = new File(path);
+            if (file.isDirectory()) {
+                final File[] content = file.listFiles((dir, name) -> name.endsWith(".pddl")
+                    && !new File(dir, name).getAbsoluteFile().equals(this.getDomainFile().getAbsoluteFile()));
+                if (content != null) {
+                    Arrays.sort(content);
+                    files.addAll(Arrays.asList(content));
+                }
+            } else {
+                files.add(file);
+            }
+        }
+        return files;
     }
 
     /**
@@ -13,6 +13,11 @@ package esl;/*
  * <http://www.gnu.org/licenses/>
  */
 
+import esl.heuristic.ActionKind;
+import esl.heuristic.EslHeuristic;
+import esl.heuristic.HeuristicCache;
+import esl.search.OpenList;
+import esl.search.StateSpaceSearch;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
 import fr.uga.pddl4j.planners.Planner;
 
@@ -61,4 +66,154 @@ public interface StateSpacePlanner extends Planner {
      */
     static final double DEFAULT_WEIGHT_HEURISTIC = 1.0;
 
+    /**
+     * The EVALUATION property used for planner configuration.
+     */
+    static final String EVALUATION_SETTING = "EVALUATION";
+
+    /**
+     * The default value of the EVALUATION property used for planner configuration.
+     */
+    static final EslHeuristic.Evaluation DEFAULT_EVALUATION = EslHeuristic.Evaluation.BITSET;
+
+    /**
+     * The ESTIMATE property used for planner configuration.
+     */
+    static final String ESTIMATE_SETTING = "ESTIMATE";
+
+    /**
+     * The default value of the ESTIMATE property used for planner configuration.
+     */
+    static final EslHeuristic.Estimate DEFAULT_ESTIMATE = EslHeuristic.Estimate.ESL;
+
+    /**
+     * The PARALLELISM property used for planner configuration.
+     */
+    static final String PARALLELISM_SETTING = "PARALLELISM";
+
+    /**
+     * The default value of the PARALLELISM property used for planner configuration.
+     */
+    static final int DEFAULT_PARALLELISM = 1;
+
+    /**
+     * The PORTFOLIO property used for planner configuration.
+     */
+    static final String PORTFOLIO_SETTING = "PORTFOLIO";
+
+    /**
+     * The default value of the PORTFOLIO property used for planner configuration.
+     */
+    static final boolean DEFAULT_PORTFOLIO = false;
+
+    /**
+     * The GRACE property used for planner configuration.
+     */
+    static final String GRACE_SETTING = "GRACE";
+
+    /**
+     * The default value of the GRACE property used for planner configuration in milliseconds.
+     */
+    static final long DEFAULT_GRACE = 0;
+
+    /**
+     * The EXACT_MEMORY property used for planner configuration.
+     */
+    static final String EXACT_MEMORY_SETTING = "EXACT_MEMORY";
+
+    /**
+     * The default value of the EXACT_MEMORY property used for planner configuration.
+     */
+    static final boolean DEFAULT_EXACT_MEMORY = false;
+
+    /**
+     * The ASTAR_VARIANT property used for planner configuration.
+     */
+    static final String ASTAR_VARIANT_SETTING = "ASTAR_VARIANT";
+
+    /**
+     * The default value of the ASTAR_VARIANT property used for planner configuration.
+     */
+    static final StateSpaceSearch.AStarVariant DEFAULT_ASTAR_VARIANT = StateSpaceSearch.DEFAULT_ASTAR_VARIANT;
+
+    /**
+     * The OPEN_LIST property used for planner configuration.
+     */
+    static final String OPEN_LIST_SETTING = "OPEN_LIST";
+
+    /**
+     * The default value of the OPEN_LIST property used for planner configuration.
+     */
+    static final OpenList.Type DEFAULT_OPEN_LIST = OpenList.DEFAULT_TYPE;
+
+    /**
+     * The TIE_BREAKING property used for planner configuration.
+     */
+    static final String TIE_BREAKING_SETTING = "TIE_BREAKING";
+
+    /**
+     * The default value of the TIE_BREAKING property used for planner configuration.
+     */
+    static final OpenList.TieBreaking DEFAULT_TIE_BREAKING = OpenList.DEFAULT_TIE_BREAKING;
+
+    /**
+     * The HELPFUL_ACTIONS property used for planner configuration.
+     */
+    static final String HELPFUL_ACTIONS_SETTING = "HELPFUL_ACTIONS";
+
+    /**
+     * The default value of the HELPFUL_ACTIONS property used for planner configuration.
+     */
+    static final boolean DEFAULT_HELPFUL_ACTIONS = StateSpaceSearch.DEFAULT_HELPFUL_ACTIONS;
+
+    /**
+     * The RESTARTS property used for planner configuration.
+     */
+    static final String RESTARTS_SETTING = "RESTARTS";
+
+    /**
+     * The default value of the RESTARTS property used for planner configuration.
+     */
+    static final int DEFAULT_RESTARTS = StateSpaceSearch.DEFAULT_RESTARTS;
+
+    /**
+     * The CACHE_SIZE property used for planner configuration.
+     */
+    static final String CACHE_SIZE_SETTING = "CACHE_SIZE";
+
+    /**
+     * The default value of the CACHE_SIZE property used for planner configuration.
+     */
+    static final int DEFAULT_CACHE_SIZE = StateSpaceSearch.DEFAULT_CACHE_SIZE;
+
+    /**
+     * The CACHE_EVICTION property used for planner configuration.
+     */
+    static final String CACHE_EVICTION_SETTING = "CACHE_EVICTION";
+
+    /**
+     * The default value of the CACHE_EVICTION property used for planner configuration.
+     */
+    static final HeuristicCache.Eviction DEFAULT_CACHE_EVICTION = HeuristicCache.DEFAULT_EVICTION;
+
+    /**
+     * The PROFILE_FILE property used for planner configuration.
+     */
+    static final String PROFILE_FILE_SETTING = "PROFILE_FILE";
+
+    /**
+     * The default value of the PROFILE_FILE property used for planner configuration.
+     */
+    static final String DEFAULT_PROFILE_FILE = "";
+
+    /**
+     * The DISABLED_RULES property used for planner configuration.
+     */
+    static final String DISABLED_RULES_SETTING = "DISABLED_RULES";
+
+    /**
+     * The default value of the DISABLED_RULES property used for planner configuration.
+     */
+    static final List<ActionKind> DEFAULT_DISABLED_RULES = List.of();
+
 }
@@ -0,0 +1,346 @@
+package esl.decomposition;
+
+import fr.uga.pddl4j.parser.Connector;
+import fr.uga.pddl4j.parser.DefaultParsedProblem;
+import fr.uga.pddl4j.parser.Expression;
+import fr.uga.pddl4j.parser.ParsedDomain;
+import fr.uga.pddl4j.parser.ParsedProblem;
+import fr.uga.pddl4j.parser.Parser;
+import fr.uga.pddl4j.parser.Symbol;
+import fr.uga.pddl4j.parser.TypedSymbol;
+import fr.uga.pddl4j.plan.Plan;
+import fr.uga.pddl4j.plan.SequentialPlan;
+import fr.uga.pddl4j.problem.DefaultProblem;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Decomposition of a classical ESL problem into subproblems solved independently, one for each group of robots and
+ * carriers.
+ *
+ * <p>The robots are dealt to {@code k} groups in turn, {@code k} being the smallest of the numbers of robots, carriers
+ * and boxes. A carrier held by a robot goes to the group of the robot and the other carriers, in turn, to the group
+ * having the fewest carriers; the slots and the boxes on a carrier go to the group of the carrier. The goals are
+ * clustered by the location of their person, and the clusters, the largest first, go to the group having the fewest
+ * goals. The other boxes, in turn, go to the group having the most goals per box. The groups without goals are left
+ * out.</p>
+ *
+ * <p>The subproblem of a group has the objects and the atoms of the initial state of the problem, except the ones of
+ * the robots, carriers, slots and boxes of the other groups, and the goals of the group. Since no box is shared and
+ * the contents of the depot are not consumed by {@code fill-box}, the plans of the subproblems do not compete for a
+ * resource, and the plan of the problem is the plans of the subproblems one after the other. The merged plan is still
+ * checked against the problem, e.g., for a person given a content by the plan of another group, and rejected if not
+ * valid.</p>
+ */
+public final class GoalDecomposition {
+
+    private final Problem problem;
+    private final File domain;
+    // owners: the group of each robot, carrier, slot and box; the objects without a group are shared.
+    private final Map<String, Integer> owners = new HashMap<>();
+    // goals.get(g): the goals of the group g.
+    private final List<List<Expression<String>>> goals = new ArrayList<>();
+    // locations.get(g): the locations of the persons of the goals of the group g.
+    private final List<List<String>> locations = new ArrayList<>();
+
+    /**
+     * Decomposes a problem.
+     *
+     * @param problem the problem, instantiated.
+     * @param domain  the domain of the problem, parsed again with each subproblem.
+     */
+    public GoalDecomposition(Problem problem, File domain) {
+        this.problem = problem;
+        this.domain = domain;
+        final ParsedProblem parsed = problem.getParsedProblem();
+        final List<String> robots = this.getObjects("robot");
+        final List<String> carriers = this.getObjects("carrier");
+        final List<String> boxes = this.getObjects("box");
+        final List<Expression<String>> goal = conjuncts(parsed.getGoal());
+        final int k = Math.min(robots.size(), Math.min(carriers.size(), boxes.size()));
+        if (k < 2 || goal.stream().anyMatch(e -> e.getConnector() != Connector.ATOM)) {
+            return;
+        }
+
+        for (int i = 0; i < robots.size(); i++) {
+            owners.put(robots.get(i), i % k);
+        }
+        final Map<String, String> positions = new HashMap<>();
+        for (Expression<String> atom : parsed.getInit()) {
+            final List<String> args = arguments(atom);
+            if (predicate(atom).equals("is-holding") && args.size() == 2 && owners.containsKey(args.get(0))) {
+                owners.putIfAbsent(args.get(1), owners.get(args.get(0)));
+            } else if (predicate(atom).equals("at") && args.size() == 2) {
+                positions.put(args.get(0), args.get(1));
+            }
+        }
+        final int[] carrierCount = new int[k];
+        carriers.stream().filter(owners::containsKey).forEach(c -> carrierCount[owners.get(c)]++);
+        for (String carrier : carriers) {
+            if (!owners.containsKey(carrier)) {
+                final int g = argMin(carrierCount);
+                owners.put(carrier, g);
+                carrierCount[g]++;
+            }
+        }
+        final int[] boxCount = new int[k];
+        for (Expression<String> atom : parsed.getInit()) {
+            final List<String> args = arguments(atom);
+            if ((predicate(atom).equals("empty") || predicate(atom).equals("on-carrier")) && args.size() == 2
+                && carriers.contains(args.get(1)) && !owners.containsKey(args.get(0))) {
+                owners.put(args.get(0), owners.get(args.get(1)));
+                if (boxes.contains(args.get(0))) {
+                    boxCount[owners.get(args.get(1))]++;
+                }
+            }
+        }
+
+        // The goals of the persons at the same location form a cluster, the goals without a person a cluster each
+        final List<String> persons = this.getObjects("person");
+        final Map<String, List<Expression<String>>> clusters = new LinkedHashMap<>();
+        for (Expression<String> atom : goal) {
+            final String person = arguments(atom).stream().filter(persons::contains).findFirst().orElse(null);
+            final String location = person == null ? null : positions.get(person);
+            clusters.computeIfAbsent(location == null ? atom.toString() : location, l -> new ArrayList<>())
+                .add(atom);
+        }
+        final int[] goalCount = new int[k];
+        for (int g = 0; g < k; g++) {
+            goals.add(new ArrayList<>());
+            locations.add(new ArrayList<>());
+        }
+        clusters.entrySet().stream()
+            .sorted(Comparator.comparingInt((Map.Entry<String, List<Expression<String>>> e) -> -e.getValue().size()))
+            .forEach(e -> {
+                final int g = argMin(goalCount);
+                goals.get(g).addAll(e.getValue());
+                goalCount[g] += e.getValue().size();
+                if (positions.containsValue(e.getKey())) {
+                    locations.get(g).add(e.getKey());
+                }
+            });
+        for (String box : boxes) {
+            if (!owners.containsKey(box)) {
+                int best = -1;
+                for (int g = 0; g < k; g++) {
+                    if (goalCount[g] > 0 && (best == -1 || (double) goalCount[g] / (boxCount[g] + 1)
+                        > (double) goalCount[best] / (boxCount[best] + 1))) {
+                        best = g;
+                    }
+                }
+                if (best == -1) {
+                    break;
+                }
+                owners.put(box, best);
+                boxCount[best]++;
+            }
+        }
+
+        // The groups without goals are left out, their robots, carriers, slots and boxes with them
+        final int[] index = new int[k];
+        int size = 0;
+        for (int g = 0; g < k; g++) {
+            index[g] = goalCount[g] > 0 ? size++ : -1;
+        }
+        owners.replaceAll((object, g) -> index[g]);
+        goals.removeIf(List::isEmpty);
+        for (int g = k - 1; g >= 0; g--) {
+            if (index[g] == -1) {
+                locations.remove(g);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of subproblems, 0 if the problem cannot be decomposed, i.e., if it has less than two robots,
+     * carriers or boxes, or a goal that is not a conjunction of atoms.
+     */
+    public int size() {
+        return goals.size();
+    }
+
+    /**
+     * Returns a description of a subproblem: its robots, carriers, slots and boxes, in order of declaration, and its
+     * goals, e.g., {@code b1 b3 ca s1-ca s2-ca r1: 9 goals at l4 l6 l1 l2}.
+     */
+    public String describe(int subproblem) {
+        final String objects = this.getObjects(null).stream()
+            .filter(o -> owners.getOrDefault(o, -1) == subproblem).collect(Collectors.joining(" "));
+        return String.format("%s: %d goals at %s", objects, goals.get(subproblem).size(),
+            String.join(" ", locations.get(subproblem)));
+    }
+
+    /**
+     * Parses and instantiates a subproblem with the domain of the problem.
+     *
+     * @param subproblem the index of the subproblem.
+     * @return the subproblem instantiated or null if it cannot be parsed.
+     * @throws IOException if the subproblem cannot be written to a temporary file or the domain cannot be read.
+     */
+    public Problem instantiate(int subproblem) throws IOException {
+        final Parser parser = new Parser();
+        final ParsedDomain parsedDomain = parser.parseDomain(domain);
+        if (!parser.getErrorManager().isEmpty()) {
+            return null;
+        }
+        final Path file = Files.createTempFile("subproblem-" + (subproblem + 1), ".pddl");
+        try {
+            Files.writeString(file, this.toPddl(subproblem, parsedDomain.getDomainName().getValue()));
+            final ParsedProblem parsedProblem = parser.parseProblem(file.toFile());
+            if (!parser.getErrorManager().isEmpty()) {
+                return null;
+            }
+            final Problem instance = new DefaultProblem(new DefaultParsedProblem(parsedDomain, parsedProblem));
+            instance.instantiate();
+            return instance;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Returns the PDDL text of a subproblem of a domain.
+     */
+    private String toPddl(int subproblem, String domainName) {
+        final ParsedProblem parsed = problem.getParsedProblem();
+        final StringBuilder str = new StringBuilder("(define (problem subproblem-").append(subproblem + 1)
+            .append(") (:domain ").append(domainName).append(")\n(:objects");
+        for (TypedSymbol<String> object : parsed.getObjects()) {
+            if (this.isVisible(object.getValue(), subproblem)) {
+                str.append(' ').append(object.getValue());
+                if (!object.getTypes().isEmpty()) {
+                    str.append(" - ").append(object.getTypes().get(0).getValue());
+                }
+            }
+        }
+        str.append(")\n(:init");
+        for (Expression<String> atom : parsed.getInit()) {
+            if (arguments(atom).stream().allMatch(o -> this.isVisible(o, subproblem))) {
+                str.append(' ').append(atom);
+            }
+        }
+        str.append(")\n(:goal (and");
+        goals.get(subproblem).forEach(atom -> str.append(' ').append(atom));
+        return str.append(")))\n").toString();
+    }
+
+    /**
+     * Merges the plans of the subproblems into a plan of the problem, the plans one after the other. An action of a
+     * subproblem is mapped to the action of the problem with the same name and objects that is applicable in the state
+     * reached so far: the instantiation splits the disjunctive preconditions, e.g., the one of
+     * {@code satisfied-with-at-least-one}, into several actions with the same name and objects.
+     *
+     * @param subproblems the subproblems, in order.
+     * @param plans       the plans of the subproblems, in order.
+     * @return the merged plan or null if an action of a plan has no applicable counterpart in the problem.
+     */
+    public Plan merge(List<Problem> subproblems, List<Plan> plans) {
+        final Map<String, List<Action>> actions = new HashMap<>();
+        problem.getActions().forEach(op -> actions.computeIfAbsent(toString(problem, op), k -> new ArrayList<>())
+            .add(op));
+        final SequentialPlan merged = new SequentialPlan();
+        State state = new State(problem.getInitialState());
+        for (int i = 0; i < plans.size(); i++) {
+            for (Action op : plans.get(i).actions()) {
+                final State current = state;
+                final Action action = actions.getOrDefault(toString(subproblems.get(i), op), List.of()).stream()
+                    .filter(candidate -> candidate.isApplicable(current)).findFirst().orElse(null);
+                if (action == null) {
+                    return null;
+                }
+                merged.add(merged.size(), action);
+                state = apply(action, state);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Returns if a plan is valid for the problem: each action is applicable in turn from the initial state and the
+     * goal holds at the end.
+     */
+    public boolean isValid(Plan plan) {
+        State state = new State(problem.getInitialState());
+        for (Action op : plan.actions()) {
+            if (!op.isApplicable(state)) {
+                return false;
+            }
+            state = apply(op, state);
+        }
+        return state.satisfy(problem.getGoal());
+    }
+
+    /**
+     * Returns the state reached by applying an action in a state, left unchanged.
+     */
+    private static State apply(Action op, State state) {
+        final State next = new State(state);
+        op.getConditionalEffects().stream().filter(ce -> state.satisfy(ce.getCondition()))
+            .forEach(ce -> next.apply(ce.getEffect()));
+        return next;
+    }
+
+    /**
+     * Returns if an object is in a subproblem, i.e., if it belongs to no group or to the group of the subproblem.
+     */
+    private boolean isVisible(String object, int subproblem) {
+        final Integer owner = owners.get(object);
+        return owner == null || owner == subproblem;
+    }
+
+    /**
+     * Returns the objects of a type in order of declaration, all the objects if the type is null.
+     */
+    private List<String> getObjects(String type) {
+        return problem.getParsedProblem().getObjects().stream()
+            .filter(o -> type == null || (!o.getTypes().isEmpty() && o.getTypes().get(0).getValue().equals(type)))
+            .map(TypedSymbol::getValue).toList();
+    }
+
+    /**
+     * Returns an action of a problem by name and objects, e.g., {@code fill-box r1 b1 food depot}.
+     */
+    private static String toString(Problem problem, Action op) {
+        final StringBuilder key = new StringBuilder(op.getName());
+        for (int object : op.getInstantiations()) {
+            key.append(' ').append(problem.getConstantSymbols().get(object));
+        }
+        return key.toString();
+    }
+
+    private static List<Expression<String>> conjuncts(Expression<String> goal) {
+        return goal.getConnector() == Connector.AND ? goal.getChildren() : List.of(goal);
+    }
+
+    private static String predicate(Expression<String> atom) {
+        return atom.getConnector() == Connector.ATOM ? atom.getSymbol().getValue() : "";
+    }
+
+    private static List<String> arguments(Expression<String> atom) {
+        return atom.getConnector() == Connector.ATOM
+            ? atom.getArguments().stream().map(Symbol::getValue).toList() : List.of();
+    }
+
+    private static int argMin(int[] values) {
+        int res = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[res]) {
+                res = i;
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,42 @@
+package esl.heuristic;
+
+/**
+ * The kinds of action of the emergency-services-logistics domain.
+ */
+public enum ActionKind {
+
+    FILL_BOX("fill-box"),
+    UNFILL_BOX("unfill-box"),
+    GIVE_CONTENT("give-content"),
+    SATISFIED_WITH_AT_LEAST_ONE("satisfied-with-at-least-one"),
+    HOLD_CARRIER("hold-carrier"),
+    RELEASE_CARRIER("release-carrier"),
+    LOAD_CARRIER("load-carrier"),
+    UNLOAD_CARRIER("unload-carrier"),
+    MOVE("move"),
+    MOVE_CARRIER("move-carrier"),
+    // Any action not declared in the ESL domain.
+    OTHER("");
+
+    private final String actionName;
+
+    ActionKind(String actionName) {
+        this.actionName = actionName;
+    }
+
+    public String getActionName() {
+        return actionName;
+    }
+
+    /**
+     * Returns the kind of the action with the specified name, OTHER if the action is not an ESL action.
+     */
+    public static ActionKind fromName(String name) {
+        for (ActionKind kind : values()) {
+            if (kind != OTHER && kind.actionName.equals(name)) {
+                return kind;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,116 @@
+package esl.heuristic;
+
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pruning rules of the ESL heuristic compiled once per grounded problem.
+ *
+ * <p>Each action index is mapped to its {@link ActionKind} and to the part of the rule that does not depend on the
+ * state: the goals the action can serve, the fluents that make it useless and the objects it involves. The check done
+ * for each node is then reduced to a few bit tests against the state. Since the relevant goals are a subset of the
+ * goal, an action serves an unsatisfied goal if and only if the state does not include all its relevant goals.</p>
+ */
+final class ActionRelevance {
+
+    private final BitsetEvaluator evaluator;
+    private final ActionKind[] kinds;
+    // relevantGoals[a]: the goals that the action a can serve.
+    private final BitVector[] relevantGoals;
+    // blockingFluents[a]: the action a is not worth if one of these fluents holds.
+    private final BitVector[] blockingFluents;
+    // requiredFluents[a]: the action a is not worth if none of these fluents holds.
+    private final BitVector[] requiredFluents;
+    // Destination and carrier of the move-carrier actions, -1 for the other actions.
+    private final int[] destinations;
+    private final int[] carriers;
+    private final Map<Action, Integer> indexes;
+
+    ActionRelevance(Problem problem, BitsetEvaluator evaluator) {
+        this.evaluator = evaluator;
+        final List<Action> actions = problem.getActions();
+        this.kinds = new ActionKind[actions.size()];
+        this.relevantGoals = new BitVector[actions.size()];
+        this.blockingFluents = new BitVector[actions.size()];
+        this.requiredFluents = new BitVector[actions.size()];
+        this.destinations = new int[actions.size()];
+        this.carriers = new int[actions.size()];
+        this.indexes = new IdentityHashMap<>(actions.size());
+        for (int a = 0; a < actions.size(); a++) {
+            final Action op = actions.get(a);
+            indexes.put(op, a);
+            kinds[a] = ActionKind.fromName(op.getName());
+            destinations[a] = -1;
+            carriers[a] = -1;
+            compile(a, op);
+        }
+    }
+
+    private void compile(int a, Action op) {
+        final int[] parameters = op.getInstantiations();
+        switch (kinds[a]) {
+            case MOVE:
+                // As the list based rule, the destination is read from the parameters of the action
+                requiredFluents[a] = evaluator.getAtCarrier(op.getParameters()[2]);
+                break;
+            case MOVE_CARRIER: //(?r ?from ?to ?c)
+                destinations[a] = parameters[2];
+                carriers[a] = parameters[3];
+                break;
+            case FILL_BOX: { //(?r ?box ?element ?location)
+                final int element = parameters[2];
+                relevantGoals[a] = evaluator.getGoalsRequiring(element);
+                //L'elemento è già in una cassa
+                blockingFluents[a] = evaluator.getHasInsideByContent(element);
+                break;
+            }
+            case GIVE_CONTENT: //(?r ?p ?elem ?b ?l)
+                relevantGoals[a] = new BitVector(evaluator.getGoalsMentioning(parameters[1]));
+                relevantGoals[a].and(evaluator.getGoalsMentioning(parameters[2]));
+                break;
+            case SATISFIED_WITH_AT_LEAST_ONE: { //(?p ?content ?content)
+                relevantGoals[a] = new BitVector(evaluator.getGoalsMentioning(parameters[0]));
+                relevantGoals[a].and(evaluator.getGoalsMentioning(parameters[1]));
+                relevantGoals[a].and(evaluator.getGoalsMentioning(parameters[2]));
+                for (int g = relevantGoals[a].nextSetBit(0); g >= 0; g = relevantGoals[a].nextSetBit(g + 1)) {
+                    if (!evaluator.isSatisfiedWithAtLeastOne(g)) {
+                        relevantGoals[a].clear(g);
+                    }
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    ActionKind getKind(int action) {
+        return kinds[action];
+    }
+
+    int indexOf(Action op) {
+        return indexes.get(op);
+    }
+
+    boolean isWorth(State state, int action) {
+        switch (kinds[action]) {
+            case MOVE:
+                return state.intersects(requiredFluents[action]);
+            case MOVE_CARRIER:
+                return evaluator.evaluateMoveCarrier(state, destinations[action], carriers[action]);
+            case FILL_BOX:
+                return !state.intersects(blockingFluents[action]) && !state.include(relevantGoals[action]);
+            case GIVE_CONTENT:
+            case SATISFIED_WITH_AT_LEAST_ONE:
+                return !state.include(relevantGoals[action]);
+            default:
+                return true;
+        }
+    }
+}
@@ -2,9 +2,10 @@ package esl.heuristic;
 
 import java.util.Objects;
 
-public class Argument implements Cloneable {
-    private int argument_id;
-    private String argument_name;
+// Arguments are immutable, so the same instance is shared by all the predicates of the problem.
+public final class Argument {
+    private final int argument_id;
+    private final String argument_name;
 
     public Argument(int argument_id, String argument_name) {
         this.argument_id = argument_id;
@@ -27,18 +28,6 @@ public class Argument implements Cloneable {
                 "," + argument_name + '>';
     }
 
-    @Override
-    public Argument clone() {
-        try {
-            Argument clone = (Argument) super.clone();
-            clone.argument_id=this.argument_id;
-            clone.argument_name=this.argument_name;
-            return clone;
-        } catch (CloneNotSupportedException e) {
-            throw new AssertionError();
-        }
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
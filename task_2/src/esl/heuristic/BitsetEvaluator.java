@@ -0,0 +1,448 @@
+package esl.heuristic;
+
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.problem.operator.ConditionalEffect;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.util.Arrays;
+
+/**
+ * Bitset implementation of the ESL estimate and pruning rules.
+ *
+ * <p>All the masks are computed once per problem, so that the evaluation of a state reduces to word-level
+ * AND/ANDNOT operations over the bits of the PDDL4J {@link State} and to a few array lookups, without decoding the
+ * state into {@link Predicate} objects. The results are the same as the ones of the list based evaluation of
+ * {@link EslHeuristic}.</p>
+ */
+final class BitsetEvaluator {
+
+    private final FluentTable fluents;
+
+    // Symbols of the predicates used by the heuristic, -1 when the predicate is not declared.
+    private final int at;
+    private final int hasInside;
+    private final int satisfiedWithAtLeastOne;
+
+    // Type membership of the objects of the problem, indexed by object id.
+    private final boolean[] isRobot;
+    private final boolean[] isPerson;
+    private final boolean[] isCarrier;
+
+    // Positive fluents of the goal.
+    private final BitVector goalMask;
+    // goalsMentioning[o]: goals that contain the object o among their arguments.
+    private final BitVector[] goalsMentioning;
+    // goalsRequiring[e]: goals that require the element e, i.e., the goals where e is the second argument, or the
+    // third one for satisfied-with-at-least-one.
+    private final BitVector[] goalsRequiring;
+
+    // (at ?r ?l) fluents where ?r is a robot.
+    private final BitVector robotAtMask;
+    // (at ?p ?l) fluents where ?p is a person.
+    private final BitVector personAtMask;
+    // personAtByPerson[p]: (at p ?l) fluents where p is a person.
+    private final BitVector[] personAtByPerson;
+    // atByLocation[l]: (at ?o l) fluents.
+    private final BitVector[] atByLocation;
+    // (has-inside ?b ?elem) fluents.
+    private final BitVector hasInsideMask;
+    // hasInsideByContent[e]: (has-inside ?b e) fluents.
+    private final BitVector[] hasInsideByContent;
+    // hasInsideByBox[b]: (has-inside b ?elem) fluents.
+    private final BitVector[] hasInsideByBox;
+    // onCarrierByCarrier[c]: (on-carrier ?b c) fluents.
+    private final BitVector[] onCarrierByCarrier;
+    // emptyByCarrier[c]: (empty ?s c) fluents.
+    private final BitVector[] emptyByCarrier;
+    // atCarrier[o]: (at ...) fluents containing o and a carrier among their arguments.
+    private final BitVector[] atCarrier;
+    // depotAt[l]: id of the fluent (depot-at l), -1 if it does not exist.
+    private final int[] depotAt;
+    // full[b]: id of the fluent (full b), -1 if it does not exist.
+    private final int[] full;
+    // Scratch buffers of an estimate, one per thread since the successors may be evaluated in parallel.
+    private final ThreadLocal<Scratch> scratch;
+
+    BitsetEvaluator(Problem problem, FluentTable fluents, ObjectIndex objectIndex) {
+        this.fluents = fluents;
+        this.at = fluents.getSymbol("at");
+        this.hasInside = fluents.getSymbol("has-inside");
+        this.satisfiedWithAtLeastOne = fluents.getSymbol("satisfied-with-at-least-one");
+        final int onCarrier = fluents.getSymbol("on-carrier");
+        final int empty = fluents.getSymbol("empty");
+        final int depotAtSymbol = fluents.getSymbol("depot-at");
+        final int fullSymbol = fluents.getSymbol("full");
+
+        final int objects = fluents.getObjectCount();
+        this.isRobot = membership(objectIndex, "robot", objects);
+        this.isPerson = membership(objectIndex, "person", objects);
+        this.isCarrier = membership(objectIndex, "carrier", objects);
+
+        this.goalMask = new BitVector(problem.getGoal().getPositiveFluents());
+        this.goalsMentioning = newMasks(objects);
+        this.goalsRequiring = newMasks(objects);
+        for (int g = goalMask.nextSetBit(0); g >= 0; g = goalMask.nextSetBit(g + 1)) {
+            for (int arg : fluents.getArguments(g)) {
+                goalsMentioning[arg].set(g);
+            }
+            goalsRequiring[fluents.getArgument(g, 1)].set(g);
+            if (fluents.getSymbol(g) == satisfiedWithAtLeastOne) {
+                goalsRequiring[fluents.getArgument(g, 2)].set(g);
+            }
+        }
+
+        this.robotAtMask = new BitVector();
+        this.personAtMask = new BitVector();
+        this.personAtByPerson = newMasks(objects);
+        this.atByLocation = newMasks(objects);
+        this.hasInsideMask = new BitVector();
+        this.hasInsideByContent = newMasks(objects);
+        this.hasInsideByBox = newMasks(objects);
+        this.onCarrierByCarrier = newMasks(objects);
+        this.emptyByCarrier = newMasks(objects);
+        this.atCarrier = newMasks(objects);
+        this.depotAt = newIndex(objects);
+        this.full = newIndex(objects);
+        for (int f = 0; f < fluents.size(); f++) {
+            final int symbol = fluents.getSymbol(f);
+            final int[] args = fluents.getArguments(f);
+            if (symbol == at) {
+                if (isRobot[args[0]]) {
+                    robotAtMask.set(f);
+                }
+                if (isPerson[args[0]]) {
+                    personAtMask.set(f);
+                    personAtByPerson[args[0]].set(f);
+                }
+                atByLocation[args[1]].set(f);
+                if (isCarrier[args[0]] || isCarrier[args[1]]) {
+                    atCarrier[args[0]].set(f);
+                    atCarrier[args[1]].set(f);
+                }
+            } else if (symbol == hasInside) {
+                hasInsideMask.set(f);
+                hasInsideByBox[args[0]].set(f);
+                hasInsideByContent[args[1]].set(f);
+            } else if (symbol == onCarrier) {
+                onCarrierByCarrier[args[1]].set(f);
+            } else if (symbol == empty) {
+                emptyByCarrier[args[1]].set(f);
+            } else if (symbol == depotAtSymbol) {
+                depotAt[args[0]] = f;
+            } else if (symbol == fullSymbol) {
+                full[args[0]] = f;
+            }
+        }
+        final int touches = 2 * goalMask.cardinality() + hasInsideMask.cardinality();
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(objects, touches));
+    }
+
+    private static boolean[] membership(ObjectIndex objectIndex, String type, int objects) {
+        final boolean[] res = new boolean[objects];
+        for (int object : objectIndex.getObjects(type)) {
+            res[object] = true;
+        }
+        return res;
+    }
+
+    private static BitVector[] newMasks(int size) {
+        final BitVector[] res = new BitVector[size];
+        for (int i = 0; i < size; i++) {
+            res[i] = new BitVector();
+        }
+        return res;
+    }
+
+    private static int[] newIndex(int size) {
+        final int[] res = new int[size];
+        Arrays.fill(res, -1);
+        return res;
+    }
+
+    /**
+     * Returns the goals of the problem not yet satisfied in the state. The bitset is the buffer of the thread, valid
+     * until its next call.
+     */
+    BitVector getUnsatisfiedGoals(State state) {
+        final BitVector unsatisfied = this.scratch.get().unsatisfied;
+        unsatisfied.clear();
+        unsatisfied.or(goalMask);
+        unsatisfied.andNot(state);
+        return unsatisfied;
+    }
+
+    //METODI CALCOLO EURISTICA
+    int estimate(State state) {
+        final BitVector unsatisfied = getUnsatisfiedGoals(state);
+        return unsatisfied.cardinality()
+            + getPositionsToReach(state, unsatisfied)
+            + checkBoxes(state, unsatisfied);
+    }
+
+    EstimateComponents getComponents(State state) {
+        final BitVector unsatisfied = getUnsatisfiedGoals(state);
+        return new EstimateComponents(unsatisfied.cardinality(),
+            getPositionsToReach(state, unsatisfied),
+            checkBoxes(state, unsatisfied));
+    }
+
+    /**
+     * Updates the components of the parent state with the fluents changed by the action. Only the persons and the
+     * elements mentioned by the changed fluents are evaluated again, so the cost depends on the size of the effect and
+     * not on the size of the state. The components are computed from scratch only when the presence of a robot in the
+     * world changes, since it enables or disables all the positions to reach.
+     */
+    EstimateComponents update(State parent, EstimateComponents components, State next, Action op) {
+        if (parent.intersects(robotAtMask) != next.intersects(robotAtMask)) {
+            return getComponents(next);
+        }
+        final int[] changed = getChangedFluents(parent, next, op);
+        int goals = components.getGoals();
+        final int[] persons = new int[3 * changed.length];
+        int nbPersons = 0;
+        final int[] elements = new int[2 * changed.length];
+        int nbElements = 0;
+        for (int f : changed) {
+            if (goalMask.get(f)) {
+                goals += next.get(f) ? -1 : 1;
+                for (int arg : fluents.getArguments(f)) {
+                    nbPersons = addDistinct(persons, nbPersons, arg);
+                }
+                nbElements = addDistinct(elements, nbElements, fluents.getArgument(f, 1));
+                if (fluents.getSymbol(f) == satisfiedWithAtLeastOne) {
+                    nbElements = addDistinct(elements, nbElements, fluents.getArgument(f, 2));
+                }
+            }
+            if (personAtMask.get(f)) {
+                nbPersons = addDistinct(persons, nbPersons, fluents.getArgument(f, 0));
+            }
+            if (hasInsideMask.get(f)) {
+                nbElements = addDistinct(elements, nbElements, fluents.getArgument(f, 1));
+            }
+        }
+        int positions = components.getPositions();
+        if (next.intersects(robotAtMask)) {
+            for (int i = 0; i < nbPersons; i++) {
+                positions += getPositionsToReach(next, persons[i]) - getPositionsToReach(parent, persons[i]);
+            }
+        }
+        int boxes = components.getBoxes();
+        for (int i = 0; i < nbElements; i++) {
+            boxes += Math.abs(getBalance(next, elements[i])) - Math.abs(getBalance(parent, elements[i]));
+        }
+        return new EstimateComponents(goals, positions, boxes);
+    }
+
+    /**
+     * Returns the fluents of the effects of the action whose value differs between the two states.
+     */
+    private static int[] getChangedFluents(State parent, State next, Action op) {
+        int[] changed = new int[8];
+        int size = 0;
+        for (ConditionalEffect ce : op.getConditionalEffects()) {
+            for (int sign = 0; sign < 2; sign++) {
+                final BitVector fluents = sign == 0
+                    ? ce.getEffect().getPositiveFluents()
+                    : ce.getEffect().getNegativeFluents();
+                for (int f = fluents.nextSetBit(0); f >= 0; f = fluents.nextSetBit(f + 1)) {
+                    if (parent.get(f) != next.get(f) && indexOf(changed, size, f) < 0) {
+                        if (size == changed.length) {
+                            changed = Arrays.copyOf(changed, 2 * size);
+                        }
+                        changed[size++] = f;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(changed, size);
+    }
+
+    private static int addDistinct(int[] values, int size, int value) {
+        if (indexOf(values, size, value) < 0) {
+            values[size++] = value;
+        }
+        return size;
+    }
+
+    private static int indexOf(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Number of positions of the person p to reach in the state, assuming that there is a robot in the world.
+    private int getPositionsToReach(State state, int person) {
+        if (state.include(goalsMentioning[person])) {
+            return 0;
+        }
+        return count(state, personAtByPerson[person]);
+    }
+
+    // Number of times the element e is required by the unsatisfied goals minus the number of boxes containing it.
+    private int getBalance(State state, int element) {
+        int balance = 0;
+        final BitVector goals = goalsRequiring[element];
+        for (int g = goals.nextSetBit(0); g >= 0; g = goals.nextSetBit(g + 1)) {
+            if (!state.get(g)) {
+                balance += fluents.getArgument(g, 1) == element ? 1 : 0;
+                if (fluents.getSymbol(g) == satisfiedWithAtLeastOne && fluents.getArgument(g, 2) == element) {
+                    balance++;
+                }
+            }
+        }
+        return balance - count(state, hasInsideByContent[element]);
+    }
+
+    private static int count(State state, BitVector mask) {
+        int count = 0;
+        for (int f = mask.nextSetBit(0); f >= 0; f = mask.nextSetBit(f + 1)) {
+            if (state.get(f)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int getPositionsToReach(State state, BitVector unsatisfied) {
+        //Senza robot nel mondo non c'è nessuna posizione da raggiungere
+        if (!state.intersects(robotAtMask)) {
+            return 0;
+        }
+        int positions = 0;
+        for (int f = personAtMask.nextSetBit(0); f >= 0; f = personAtMask.nextSetBit(f + 1)) {
+            if (state.get(f) && goalsMentioning[fluents.getArgument(f, 0)].intersects(unsatisfied)) {
+                positions++;
+            }
+        }
+        return positions;
+    }
+
+    int checkBoxes(State state, BitVector unsatisfied) {
+        // balance[e] > 0: e is required more times than it is loaded, balance[e] < 0: e is loaded but not needed
+        final Scratch scratch = this.scratch.get();
+        final int[] balance = scratch.balance;
+        final int[] touched = scratch.touched;
+        int nbTouched = 0;
+        for (int g = unsatisfied.nextSetBit(0); g >= 0; g = unsatisfied.nextSetBit(g + 1)) {
+            touched[nbTouched++] = fluents.getArgument(g, 1);
+            balance[fluents.getArgument(g, 1)]++;
+            if (fluents.getSymbol(g) == satisfiedWithAtLeastOne) {
+                touched[nbTouched++] = fluents.getArgument(g, 2);
+                balance[fluents.getArgument(g, 2)]++;
+            }
+        }
+        for (int f = hasInsideMask.nextSetBit(0); f >= 0; f = hasInsideMask.nextSetBit(f + 1)) {
+            if (state.get(f)) {
+                touched[nbTouched++] = fluents.getArgument(f, 1);
+                balance[fluents.getArgument(f, 1)]--;
+            }
+        }
+        // Only the elements touched have a balance: the first read of each one resets it, so that the next reads of
+        // the same element count 0 and the buffer is all zero for the next call
+        int mismatches = 0;
+        for (int i = 0; i < nbTouched; i++) {
+            mismatches += Math.abs(balance[touched[i]]);
+            balance[touched[i]] = 0;
+        }
+        return mismatches;
+    }
+
+    /**
+     * The scratch buffers of the estimate of a thread.
+     */
+    private static final class Scratch {
+        // The goals not satisfied.
+        private final BitVector unsatisfied = new BitVector();
+        // balance[e]: the balance of the element e, all zero between two calls of checkBoxes.
+        private final int[] balance;
+        // The elements whose balance was changed by checkBoxes, possibly several times: at most two per goal and one per
+        // (has-inside ?b ?elem) fluent.
+        private final int[] touched;
+
+        private Scratch(int objects, int touches) {
+            this.balance = new int[objects];
+            this.touched = new int[touches];
+        }
+    }
+
+    // Accessors to the masks used to compile the ActionRelevance of the problem.
+
+    BitVector getGoalsMentioning(int object) {
+        return goalsMentioning[object];
+    }
+
+    BitVector getGoalsRequiring(int element) {
+        return goalsRequiring[element];
+    }
+
+    BitVector getHasInsideByContent(int element) {
+        return hasInsideByContent[element];
+    }
+
+    BitVector getAtCarrier(int object) {
+        return object < atCarrier.length ? atCarrier[object] : new BitVector();
+    }
+
+    boolean isSatisfiedWithAtLeastOne(int fluent) {
+        return fluents.getSymbol(fluent) == satisfiedWithAtLeastOne;
+    }
+
+    //METODI POTATURA ALBERO DI RICERCA
+    boolean evaluateMoveCarrier(State state, int destination, int carrier) {
+
+        //Caso 1: verso il deposito solo con uno spazio libero sul carrello o una cassa vuota
+        if (depotAt[destination] >= 0 && state.get(depotAt[destination])) {
+            if (state.intersects(emptyByCarrier[carrier])) {
+                return true;
+            }
+            final BitVector onCarrier = onCarrierByCarrier[carrier];
+            for (int f = onCarrier.nextSetBit(0); f >= 0; f = onCarrier.nextSetBit(f + 1)) {
+                final int box = fluents.getArgument(f, 0);
+                if (state.get(f) && (full[box] < 0 || !state.get(full[box]))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        //Caso 2: verso le altre destinazioni solo se qualcuno vuole ciò che è sul carrello
+        final BitVector atDestination = atByLocation[destination];
+        for (int f = atDestination.nextSetBit(0); f >= 0; f = atDestination.nextSetBit(f + 1)) {
+            if (!state.get(f)) {
+                continue;
+            }
+            final BitVector wanting = goalsMentioning[fluents.getArgument(f, 0)];
+            for (int g = wanting.nextSetBit(0); g >= 0; g = wanting.nextSetBit(g + 1)) {
+                if (!state.get(g) && carries(state, carrier, g)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns if a box on the carrier contains one of the elements wanted by the goal, i.e., one of the goal arguments
+     * following the first one.
+     */
+    private boolean carries(State state, int carrier, int goal) {
+        final BitVector onCarrier = onCarrierByCarrier[carrier];
+        for (int f = onCarrier.nextSetBit(0); f >= 0; f = onCarrier.nextSetBit(f + 1)) {
+            if (!state.get(f)) {
+                continue;
+            }
+            final BitVector contents = hasInsideByBox[fluents.getArgument(f, 0)];
+            for (int h = contents.nextSetBit(0); h >= 0; h = contents.nextSetBit(h + 1)) {
+                if (state.get(h) && fluents.containsArgument(goal, fluents.getArgument(h, 1), 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -2,43 +2,87 @@ package esl.heuristic;
 
 import fr.uga.pddl4j.heuristics.state.RelaxedGraphHeuristic;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
-import fr.uga.pddl4j.parser.TypedSymbol;
-import fr.uga.pddl4j.problem.Fluent;
 import fr.uga.pddl4j.problem.Problem;
 import fr.uga.pddl4j.problem.State;
 import fr.uga.pddl4j.problem.operator.Action;
 import fr.uga.pddl4j.problem.operator.Condition;
 import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.util.BitVector;
 import utility.Utility;
 
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public final class EslHeuristic extends RelaxedGraphHeuristic {
 
     public final static String NAME = "EslHeuristic By Carmelo-Carmelo-Vittorio";
 
+    /**
+     * The evaluation modes of the heuristic: PREDICATES decodes each state into a list of {@link Predicate},
+     * BITSET works directly on the bits of the state using masks precomputed once per problem and INCREMENTAL
+     * works as BITSET, but updates the components of the estimate of a successor from the ones of its parent.
+     */
+    public enum Evaluation {
+        PREDICATES,
+        BITSET,
+        INCREMENTAL
+    }
+
+    /**
+     * The estimates added to the base heuristic: ESL counts the goals not yet satisfied, the positions still to reach
+     * and the box mismatches, and LANDMARKS counts the landmarks of the {@link LandmarkGraph} of the problem still
+     * required, the landmarks accepted being tracked along the path to each node.
+     */
+    public enum Estimate {
+        ESL,
+        LANDMARKS
+    }
 
-    // Keyword 'volatile': read and write operations on this field are atomic
-    private static volatile EslHeuristic instance = null;
+
+    // One heuristic per problem: the heuristic is compiled for the objects, the fluents and the actions of its problem,
+    // so that problems solved in the same JVM, even at the same time, never share it
+    private static final Map<Problem, EslHeuristic> instances = new ConcurrentHashMap<>();
 
     private final Problem problem;
-    private final StateHeuristic heuristic;
+    // The base PDDL4J heuristics keep the relaxed planning graph in their fields and cannot be shared between
+    // threads: each thread evaluating states gets its own instance.
+    private final ThreadLocal<StateHeuristic> heuristic;
+
 
+    // fluentTable: compact table that translates the ID of an existing fluent within the problem
+    // into its predicate symbol and the IDs of its arguments. It also provides the Predicate view of
+    // a fluent, built on demand, for the PREDICATES evaluation mode.
+    private final FluentTable fluentTable;
+    // objectIndex: index of the objects of the problem by type, with the slots of each carrier read from the initial
+    // state. For example, the objects of the robot type might be [0, 3].
+    private final ObjectIndex objectIndex;
+    // Ids of the types used by the pruning rules and the estimate, -1 when no object has the type.
+    private final int robotType;
+    private final int personType;
+    private final int boxType;
+    private final int carrierType;
 
-    // idConditionMap: Map that translates the ID of an existing predicate within the problem
-    // into a more understandable object. It allows associating an ID with a predicate,
-    // providing a convenient way to access and interpret conditions within the system.
-    private final Map<Integer,Predicate> idConditionMap;
-    // The typeToArguments map associates the argument type name with a list of instantiated arguments in the problem.
-    // For example, it might look like: robot:[<id:r1>, <id:r2>]
-    private final Map<String,List<Argument>> typeToArguments;
+    // Masks and rules used by the BITSET evaluation mode.
+    private final BitsetEvaluator bitsetEvaluator;
+    // Pruning rules compiled for each action of the problem, used by the BITSET evaluation mode.
+    private final ActionRelevance actionRelevance;
 
+    private volatile Evaluation evaluation = Evaluation.BITSET;
 
-    //Map containing pairs <String, Integer>, where String refers to the unique name of the carrier,
-    // and Integer indicates the available space on that carrier.
-    private Map<String,Integer> carrierInfo;
+    private volatile Estimate estimate = Estimate.ESL;
+    // Landmarks of the problem, built the first time the landmark estimate is set.
+    private volatile LandmarkGraph landmarks;
+
+    // Cache of the values of the base heuristic, the costly part of the estimate, null when disabled. The cache is
+    // shared by the search strategies solving the problem.
+    private volatile HeuristicCache cache;
+
+    // Counters of the components of the estimate and of the pruning rules, null when the heuristic is not profiled,
+    // and pruning rules disabled for ablation runs: the actions of these kinds are always worth to be applied.
+    private volatile Profiler profiler;
+    private volatile Set<ActionKind> disabledRules = EnumSet.noneOf(ActionKind.class);
 
 
 
@@ -49,89 +93,146 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
     public EslHeuristic(Problem problem, StateHeuristic.Name heuristic){
         super(problem);
         this.problem=problem;
-        this.heuristic = StateHeuristic.getInstance(heuristic, problem);
-        this.idConditionMap=new HashMap<>();
-        typeToArguments=new HashMap<>();
-        createIdConditionMap();
-        createTypeToArguments();
-        setUpVariableOfTheProblem();
-
-    }
-    private void setUpVariableOfTheProblem(){
-
-
-        //Determiniamo il numero di slot per ogni carrier istanziato all'interno del problema
-        carrierInfo=new HashMap<>();
-        for (Argument curr_carrier:this.typeToArguments.get("carrier")){
-            String curr_carrier_name=curr_carrier.getArgument_name();
-            Integer curr_carrier_slots=0;
-            List<Argument> slots=this.typeToArguments.get("slot");
-            for(Argument curr_slot:slots){
-                if(curr_slot.getArgument_name().contains(curr_carrier_name)){
-                    curr_carrier_slots++;
-                }
-            }
-            carrierInfo.put(curr_carrier_name,curr_carrier_slots);
-        }
+        this.heuristic = ThreadLocal.withInitial(() -> StateHeuristic.getInstance(heuristic, problem));
+        super.setAdmissible(false);
+        this.fluentTable=new FluentTable(problem);
+        this.objectIndex=new ObjectIndex(problem, fluentTable);
+        this.robotType=objectIndex.getType("robot");
+        this.personType=objectIndex.getType("person");
+        this.boxType=objectIndex.getType("box");
+        this.carrierType=objectIndex.getType("carrier");
+        this.bitsetEvaluator = new BitsetEvaluator(problem, fluentTable, objectIndex);
+        this.actionRelevance = new ActionRelevance(problem, bitsetEvaluator);
+    }
 
+    public static EslHeuristic getInstance(Problem problem, StateHeuristic.Name heuristic){
+        return instances.computeIfAbsent(problem, p -> new EslHeuristic(p, heuristic));
+    }
 
+    /**
+     * Releases the heuristic of a problem once the problem is solved.
+     *
+     * @return the heuristic released or null if no heuristic was created for the problem.
+     */
+    public static EslHeuristic release(Problem problem){
+        return instances.remove(problem);
+    }
+    public Evaluation getEvaluation() {
+        return evaluation;
+    }
 
+    public void setEvaluation(Evaluation evaluation) {
+        this.evaluation = Objects.requireNonNull(evaluation);
     }
 
-    private void createIdConditionMap(){
-        Integer i=0;
-        for (Fluent f:problem.getFluents()){
-            String[] curr=problem.toString(f).replaceAll("[()]", "").split(" ");
-            Predicate curr_p=new Predicate(f.getSymbol(),curr[0],f.getArguments(),curr);
+    public Estimate getEstimate() {
+        return estimate;
+    }
 
-            idConditionMap.put(i,curr_p);
-            i++;
+    /**
+     * Sets the estimate added to the base heuristic, building the landmarks of the problem the first time the
+     * landmark estimate is set.
+     */
+    public synchronized void setEstimate(Estimate estimate) {
+        if (estimate == Estimate.LANDMARKS && landmarks == null) {
+            this.landmarks = new LandmarkGraph(problem, fluentTable, objectIndex);
         }
+        this.estimate = Objects.requireNonNull(estimate);
     }
-    private void createTypeToArguments() {
-        int id=0; //Gli oggetti sono inseriti nella lista in maniera ordinata
-        for(TypedSymbol<String> elem:problem.getParsedProblem().getObjects()){
-            String type=elem.getTypes().get(0).toString();
-            String obj=elem.getValue();
 
-            if(!typeToArguments.containsKey(type)) {
-                typeToArguments.put(type, new LinkedList<>());
+    /**
+     * Returns the landmarks of the problem, null if the landmark estimate was never set.
+     */
+    public LandmarkGraph getLandmarks() {
+        return landmarks;
+    }
 
-                typeToArguments.get(type).add(new Argument(id,obj));
-            }
-            else
-                typeToArguments.get(type).add(new Argument(id,obj));
-            id++;
+    public HeuristicCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the cache of the values of the base heuristic. The cache is kept if it has already the memory and the
+     * eviction policy requested, so that the values cached by a search strategy are reused by the next ones.
+     *
+     * @param size     the memory in MBytes given to the cache, 0 to disable it.
+     * @param eviction the eviction policy of the cache.
+     */
+    public synchronized void setCache(int size, HeuristicCache.Eviction eviction) {
+        final long capacity = size * 1024L * 1024L;
+        if (size == 0) {
+            this.cache = null;
+        } else if (cache == null || cache.getCapacity() != capacity || cache.getEviction() != eviction) {
+            this.cache = new HeuristicCache(capacity, problem.getFluents().size(), eviction);
         }
+    }
 
+    public Profiler getProfiler() {
+        return profiler;
+    }
 
+    /**
+     * Sets the profiler of the heuristic, null to stop profiling.
+     */
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
     }
 
-    public static EslHeuristic getInstance(Problem problem, StateHeuristic.Name heuristic){
-        if (instance == null) {
-            synchronized(EslHeuristic.class) {
-                if (instance == null) {
-                    instance = new EslHeuristic(problem, heuristic);
-                }
-            }
-        }
-        return instance;
+    public Set<ActionKind> getDisabledRules() {
+        return disabledRules;
+    }
+
+    /**
+     * Disables the pruning rules of the actions of the specified kinds, for ablation runs.
+     */
+    public void setDisabledRules(Collection<ActionKind> disabledRules) {
+        this.disabledRules = disabledRules.isEmpty() ? EnumSet.noneOf(ActionKind.class)
+            : EnumSet.copyOf(disabledRules);
+    }
+
+    public FluentTable getFluentTable() {
+        return fluentTable;
+    }
+
+    public ObjectIndex getObjectIndex() {
+        return objectIndex;
     }
+
     public List<Predicate> getPredicates(int[] state){
-        List<Predicate> res=new LinkedList<>();
+        List<Predicate> res=new ArrayList<>(state.length);
         for (int x : state){
-            res.add(this.idConditionMap.get(x));
+            res.add(this.fluentTable.getPredicate(x));
         }
         return res;
     }
 
 
     //METODI POTATURA ALBERO DI RICERCA
-    public boolean isWorth(Node current, Action op){
+    public boolean isWorth(Node current, int action){
+        final ActionKind kind = actionRelevance.getKind(action);
+        if (disabledRules.contains(kind)) {
+            return true;
+        }
+        final Profiler profiler = this.profiler;
+        if (profiler == null) {
+            return evaluateRule(current, action);
+        }
+        final long start = System.nanoTime();
+        final boolean worth = evaluateRule(current, action);
+        profiler.recordRule(kind, System.nanoTime() - start, worth);
+        return worth;
+    }
 
-        String action_name=op.getName();
+    public boolean isWorth(Node current, Action op){
+        return isWorth(current, actionRelevance.indexOf(op));
+    }
 
-        switch (action_name){
+    private boolean evaluateRule(Node current, int action){
+        if (evaluation != Evaluation.PREDICATES) {
+            return actionRelevance.isWorth(current, action);
+        }
+        final Action op = problem.getActions().get(action);
+        switch (op.getName()){
             case "move":
                 return evaluateMove(current,op);
             case "move-carrier":
@@ -209,7 +310,7 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
         // List of elements contained in all the boxes of the world
         List<Argument> boxContents = state.stream()
                 .filter(p -> "has-inside".equals(p.getName()))
-                .map(p -> p.getArguments().get(1))
+                .map(p -> p.getArgument(1))
                 .collect(Collectors.toList());
 
         requiredGoalElements.removeAll(boxContents);
@@ -236,15 +337,15 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
 
 
         //Caso 1: Mi muovo verso il deposito se e soltano se ho almeno uno spazio libero sul carrello o ho una cassa vuota(Altrimenti non posso caricare nulla);
-        if(state.stream().filter(x-> x.getName().equals("depot-at")).anyMatch(x -> x.getArguments().get(0).getArgument_id()==des_id)){
+        if(state.stream().filter(x-> x.getName().equals("depot-at")).anyMatch(x -> x.getArgument(0).getArgument_id()==des_id)){
             //Se esiste almeno uno spazio libero sul carrello oppure se almeno una cassa su di me è vuota allora torno al deposito altrimenti no.
             int carrier_id=parameters[3];
             int empty_spaces= (int) state.stream().filter(x -> x.getName().equals("empty")
-                    && x.getArguments().get(1).getArgument_id() == carrier_id).count();
+                    && x.getArgument(1).getArgument_id() == carrier_id).count();
             //(on-carrier ?b - box ?c - carrier)
             //Lista di casse che sono sul carrier corrente e sono vuote;
             int empty_boxes_on_carrier= (int) state.stream().filter(x -> x.getName().equals("on-carrier") && x.containsArgByID(carrier_id))
-                    .map(x -> x.getArguments().get(0))//Lista di casse che sono sul carrier corrente (che stiamo muovendo)
+                    .map(x -> x.getArgument(0))//Lista di casse che sono sul carrier corrente (che stiamo muovendo)
                     .filter(box -> !state.contains(new Predicate("full", box))).count();//(full ?b - box) //Prendiamo il numero di casse che sono sul carrier corrente e sono vuore;
             return (empty_spaces+empty_boxes_on_carrier)>0;
         }
@@ -253,9 +354,9 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
         //Mi muovo solo verso destinazioni, che sono diverse dal deposito, se ci sono persone che vogliono ciò che ho nel carrello
         for(Predicate p: state.stream().filter(p -> p.getName().equals("at")).collect(Collectors.toList())){
             //il Predicato p ha forma (at object location)
-            int location=p.getArguments().get(1).getArgument_id();
+            int location=p.getArgument(1).getArgument_id();
             if(des_id==location){//Analizziamo la destinazione
-                int obj_id=p.getArguments().get(0).getArgument_id(); //Abbiamo l'id dell'oggetto nella posizione in cui ci vogliamo spostare
+                int obj_id=p.getArgument(0).getArgument_id(); //Abbiamo l'id dell'oggetto nella posizione in cui ci vogliamo spostare
                 for (Predicate curr_goal:goalNotAlreadySatisfied.stream().filter(curr_p -> curr_p.containsArgByID(obj_id)).collect(Collectors.toList())){
                     //Alla posizione des_id c'è un obj_id che vuole almeno un content;
                     //Lista degli elementi che obj_id vuole
@@ -264,17 +365,17 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
                     //Devo verificare se il content è presente nel mio carrello
                     int carrier_id=parameters[3];
                     //Prendo le casse sul carrier_id e le controllo
-                    for(Argument box:typeToArguments.get("box")) {
+                    for(int box:objectIndex.getObjects(boxType)) {
                         //Controlla che il box è sul carrier  on-carrier ?b - box ?c - carrier
                         if (state.stream().filter(x -> x.getName().equals("on-carrier"))
-                                .anyMatch(x -> x.getArguments().get(0).getArgument_name().equals(box.getArgument_name()) &&
-                                        x.getArguments().get(1).getArgument_id()==carrier_id)){ //risulta vero che on-carrier box carrier_id
+                                .anyMatch(x -> x.getArgument(0).getArgument_id()==box &&
+                                        x.getArgument(1).getArgument_id()==carrier_id)){ //risulta vero che on-carrier box carrier_id
                             //Devo vedere se la cassa contiene almeno uno degli elementi richiesti
                             //(has-inside ?b - box ?elem - content ) ; box ?b has content ?elem
                             //Ritorna vero se almeno uno degli elementi richiesti è presente nella box corrente
                             if( state.stream().filter(x -> x.getName().equals("has-inside"))
-                                    .anyMatch(x -> x.getArguments().get(0).getArgument_name().equals(box.getArgument_name()) &&
-                                            wantedContent.contains(x.getArguments().get(1)))) {
+                                    .anyMatch(x -> x.getArgument(0).getArgument_id()==box &&
+                                            wantedContent.contains(x.getArgument(1)))) {
                                 return true;
                             }
                         }
@@ -303,12 +404,10 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
         //Check if exist Carrier at destination des_id in the current state
         List<Predicate> state= getPredicates(current.stream().toArray());
         for(Predicate p: state){
-            if(p.getName().equals("at") && p.containsArgByID(des_id)){
-                for(Argument carrier:typeToArguments.get("carrier")){
-                    String carrier_name=carrier.getArgument_name();
-                    if(p.containsArgByName(carrier_name))
-                        return true;
-                }
+            //(at ?o ?l): il carrello è sempre il primo argomento
+            if(p.getName().equals("at") && p.containsArgByID(des_id)
+                    && objectIndex.isOfType(p.getArgument(0).getArgument_id(), carrierType)){
+                return true;
             }
         }
         return false;
@@ -316,7 +415,17 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
 
     //METODI CALCOLO EURISTICA
     public int estimate(State next, Condition goal){
-        super.setAdmissible(false);
+        if (estimate == Estimate.LANDMARKS && goal.equals(problem.getGoal())) {
+            return landmarks.getComponents(next).getValue()+estimateBase(next,goal);
+        }
+        final Profiler profiler = this.profiler;
+        if (evaluation != Evaluation.PREDICATES && goal.equals(problem.getGoal())) {
+            if (profiler != null) {
+                return getProfiledComponents(next, profiler).getValue()+estimateBase(next,goal);
+            }
+            return bitsetEvaluator.estimate(next)+estimateBase(next,goal);
+        }
+        long start = profiler == null ? 0 : System.nanoTime();
         int estimated_value=0;
 
         List<Predicate> next_state= getPredicates(next.stream().toArray());
@@ -328,40 +437,126 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
 
         //Dobbiamo ancora effettuare tante azioni ancora quanti sono i goal da soddisfare
         estimated_value+=goals_not_satisfied_yet.size();
+        start = record(profiler, Profiler.Component.GOALS, start);
         //Dobbiamo ancora effettuare tante azioni quante sono i posti differenti in cui dobbiamo ancora andare;
         estimated_value+=getPositionsToReach(next_state,goals_not_satisfied_yet);
+        start = record(profiler, Profiler.Component.POSITIONS, start);
         //Dobbiamo ancora effettuare tante azioni quanti sono gli item richiesti non ancora caricati nelle casse.
         estimated_value+=checkBoxes(next_state,goals_not_satisfied_yet);
+        record(profiler, Profiler.Component.BOXES, start);
         //Dobbiamo effettuare tante azioni quanto sono le scatole da caricare sul carrier;
         //estimated_value+=getBoxToFill(next_state,goals_not_satisfied_yet);
 
 
 
-        return estimated_value+heuristic.estimate(next,goal);
+        return estimated_value+estimateBase(next,goal);
     }
 
     public double estimate(Node next, Condition goal) {
         return this.estimate((State) next,goal);
     }
 
+    //METODI CALCOLO INCREMENTALE DELL'EURISTICA
+
+    /**
+     * Returns the components of the estimate of the state, computed from scratch.
+     */
+    public EstimateComponents getComponents(State state) {
+        if (estimate == Estimate.LANDMARKS) {
+            return landmarks.getComponents(state);
+        }
+        final Profiler profiler = this.profiler;
+        if (profiler != null) {
+            return getProfiledComponents(state, profiler);
+        }
+        return bitsetEvaluator.getComponents(state);
+    }
+
+    /**
+     * Returns the components of the ESL estimate of the state, computed from scratch and timed one by one.
+     */
+    private EstimateComponents getProfiledComponents(State state, Profiler profiler) {
+        long start = System.nanoTime();
+        final BitVector unsatisfied = bitsetEvaluator.getUnsatisfiedGoals(state);
+        final int goals = unsatisfied.cardinality();
+        start = record(profiler, Profiler.Component.GOALS, start);
+        final int positions = bitsetEvaluator.getPositionsToReach(state, unsatisfied);
+        start = record(profiler, Profiler.Component.POSITIONS, start);
+        final int boxes = bitsetEvaluator.checkBoxes(state, unsatisfied);
+        record(profiler, Profiler.Component.BOXES, start);
+        return new EstimateComponents(goals, positions, boxes);
+    }
+
+    /**
+     * Records the time elapsed since start in a component of the profiler, if any, and returns the current time.
+     */
+    private static long record(Profiler profiler, Profiler.Component component, long start) {
+        if (profiler == null) {
+            return 0;
+        }
+        final long end = System.nanoTime();
+        profiler.recordComponent(component, end - start);
+        return end;
+    }
+
+    /**
+     * Returns the components of the estimate of the state obtained by applying the action op to the parent state.
+     * The components are updated from the ones of the parent, or computed from scratch if the parent components are
+     * not known.
+     */
+    public EstimateComponents getComponents(State next, State parent, EstimateComponents parentComponents, Action op) {
+        if (parentComponents == null) {
+            return getComponents(next);
+        }
+        if (estimate == Estimate.LANDMARKS) {
+            return landmarks.update(next, parentComponents);
+        }
+        final Profiler profiler = this.profiler;
+        final long start = profiler == null ? 0 : System.nanoTime();
+        final EstimateComponents components = bitsetEvaluator.update(parent, parentComponents, next, op);
+        record(profiler, Profiler.Component.UPDATE, start);
+        assert components.equals(bitsetEvaluator.getComponents(next)) : "incremental estimate out of sync";
+        return components;
+    }
+
+    /**
+     * Returns the estimate of the state from its already computed components.
+     */
+    public int estimate(State next, Condition goal, EstimateComponents components) {
+        if (components == null || !goal.equals(problem.getGoal())) {
+            return this.estimate(next, goal);
+        }
+        return components.getValue()+estimateBase(next,goal);
+    }
+
+    /**
+     * Returns the estimate of the base PDDL4J heuristic of the state, read from the cache when the cache is enabled
+     * and the goal is the goal of the problem.
+     */
+    public int estimateBase(State next, Condition goal) {
+        final Profiler profiler = this.profiler;
+        final long start = profiler == null ? 0 : System.nanoTime();
+        final HeuristicCache cache = this.cache;
+        final int value = cache == null || !goal.equals(problem.getGoal()) ? heuristic.get().estimate(next,goal)
+            : cache.estimate(next, state -> heuristic.get().estimate(state,goal));
+        record(profiler, Profiler.Component.BASE, start);
+        return value;
+    }
+
     private int getPositionsToReach(List<Predicate> next_state,List<Predicate> goals_not_satisfied_yet){
         int positions_to_reach;
         //Dobbiamo effettuare tante azioni quante sono i posti differenti in cui dobbiamo ancora andare;
         List<Predicate> robots_positions=next_state.stream().filter(p-> p.getName().equals("at") &&
-                typeToArguments.get("robot").contains(p.getArguments().get(0))).collect(Collectors.toList());
+                objectIndex.isOfType(p.getArgument(0).getArgument_id(), robotType)).collect(Collectors.toList());
         List<Predicate> persons_positions_to_reach=next_state.stream().filter(p-> p.getName().equals("at") &&
-                        typeToArguments.get("person").contains(p.getArguments().get(0)))
+                        objectIndex.isOfType(p.getArgument(0).getArgument_id(), personType))
                 .filter(p-> { //Se la persona è presente almeno in un goal non soddisfatto allora dobbiamo raggiungerla
-                            Argument person = p.getArguments().get(0);
-                            Argument location_p=p.getArguments().get(1);
+                            Argument person = p.getArgument(0);
                             for (Predicate g : goals_not_satisfied_yet)
                                 if (g.containsArgByID(person.getArgument_id())) //Ok dobbiamo raggiungere la persona
-                                    for(Predicate robot_position:robots_positions) {
-                                        //Se c'è un robot in quella posizione però non dobbiamo raggiungerla
-                                        Argument location_r=robot_position.getArguments().get(1);
-                                        if(location_r!=location_p)
-                                            return true;
-                                    }
+                                    //Le posizioni dei robot erano confrontate per riferimento su argomenti clonati,
+                                    //quindi basta che esista almeno un robot
+                                    return !robots_positions.isEmpty();
                             return false;
                         }
                 )
@@ -374,7 +569,7 @@ public final class EslHeuristic extends RelaxedGraphHeuristic {
         // List of elements contained in the boxes
         List<Argument> boxContents = predicates.stream()
                 .filter(p -> "has-inside".equals(p.getName()))
-                .map(p -> p.getArguments().get(1))
+                .map(p -> p.getArgument(1))
                 .collect(Collectors.toList());
 
         // List of elements required to achieve the goal
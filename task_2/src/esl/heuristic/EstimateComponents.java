@@ -0,0 +1,82 @@
+package esl.heuristic;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * The components of the ESL estimate of a state, without the base PDDL4J heuristic: the number of goals not yet
+ * satisfied, the number of positions still to reach and the number of box mismatches, or, with the landmark estimate,
+ * the number of landmarks still required and the landmarks accepted on the path to the state. The components of a
+ * node are kept by the search to update the estimate of its successors incrementally.
+ */
+public final class EstimateComponents {
+
+    private final int goals;
+    private final int positions;
+    private final int boxes;
+    private final int landmarks;
+    // accepted: the landmarks accepted, null for the ESL estimate. The set is shared and must not be modified.
+    private final BitSet accepted;
+
+    public EstimateComponents(int goals, int positions, int boxes) {
+        this.goals = goals;
+        this.positions = positions;
+        this.boxes = boxes;
+        this.landmarks = 0;
+        this.accepted = null;
+    }
+
+    public EstimateComponents(int landmarks, BitSet accepted) {
+        this.goals = 0;
+        this.positions = 0;
+        this.boxes = 0;
+        this.landmarks = landmarks;
+        this.accepted = accepted;
+    }
+
+    public int getGoals() {
+        return goals;
+    }
+
+    public int getPositions() {
+        return positions;
+    }
+
+    public int getBoxes() {
+        return boxes;
+    }
+
+    public int getLandmarks() {
+        return landmarks;
+    }
+
+    public BitSet getAccepted() {
+        return accepted;
+    }
+
+    public int getValue() {
+        return goals + positions + boxes + landmarks;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EstimateComponents that = (EstimateComponents) o;
+        return goals == that.goals && positions == that.positions && boxes == that.boxes
+            && landmarks == that.landmarks && Objects.equals(accepted, that.accepted);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(goals, positions, boxes, landmarks, accepted);
+    }
+
+    @Override
+    public String toString() {
+        if (accepted != null) {
+            return "<landmarks:" + landmarks + ", accepted:" + accepted.cardinality() + ">";
+        }
+        return "<goals:" + goals + ", positions:" + positions + ", boxes:" + boxes + ">";
+    }
+}
@@ -0,0 +1,130 @@
+package esl.heuristic;
+
+import fr.uga.pddl4j.problem.Fluent;
+import fr.uga.pddl4j.problem.Problem;
+
+import java.util.List;
+
+/**
+ * Immutable table of the grounded fluents of a problem, indexed by fluent id.
+ *
+ * <p>Each fluent is stored as the id of its predicate symbol and a primitive array with the ids of its arguments, so
+ * that the heuristic and the pruning rules can read the fluents without any allocation. Names are resolved through
+ * the symbol tables of the problem, never by parsing the string representation of the fluents. The arrays returned
+ * by the table are shared and must not be modified.</p>
+ */
+public final class FluentTable {
+
+    private final int[] symbols;
+    private final int[][] arguments;
+    private final String[] predicateNames;
+    // One Argument per object of the problem, shared by all the predicates.
+    private final Argument[] objects;
+
+    // Predicates built on demand for the PREDICATES evaluation mode.
+    private volatile Predicate[] predicates;
+
+    public FluentTable(Problem problem) {
+        final List<Fluent> fluents = problem.getFluents();
+        this.symbols = new int[fluents.size()];
+        this.arguments = new int[fluents.size()][];
+        for (int f = 0; f < fluents.size(); f++) {
+            symbols[f] = fluents.get(f).getSymbol();
+            arguments[f] = fluents.get(f).getArguments().clone();
+        }
+        this.predicateNames = problem.getPredicateSymbols().toArray(new String[0]);
+        final List<String> constants = problem.getConstantSymbols();
+        this.objects = new Argument[constants.size()];
+        for (int o = 0; o < objects.length; o++) {
+            objects[o] = new Argument(o, constants.get(o));
+        }
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public int getObjectCount() {
+        return objects.length;
+    }
+
+    /**
+     * Returns the id of the predicate symbol with the specified name, -1 if the predicate is not declared.
+     */
+    public int getSymbol(String predicate) {
+        for (int s = 0; s < predicateNames.length; s++) {
+            if (predicateNames[s].equals(predicate)) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    public int getSymbol(int fluent) {
+        return symbols[fluent];
+    }
+
+    public String getPredicateName(int fluent) {
+        return predicateNames[symbols[fluent]];
+    }
+
+    public int getArity(int fluent) {
+        return arguments[fluent].length;
+    }
+
+    public int getArgument(int fluent, int index) {
+        return arguments[fluent][index];
+    }
+
+    /**
+     * Returns the ids of the arguments of the fluent. The array is shared and must not be modified.
+     */
+    public int[] getArguments(int fluent) {
+        return arguments[fluent];
+    }
+
+    public boolean containsArgument(int fluent, int object) {
+        return indexOf(arguments[fluent], object, 0) >= 0;
+    }
+
+    public boolean containsArgument(int fluent, int object, int from) {
+        return indexOf(arguments[fluent], object, from) >= 0;
+    }
+
+    public Argument getObject(int object) {
+        return objects[object];
+    }
+
+    /**
+     * Returns the predicate view of the fluent.
+     */
+    public Predicate getPredicate(int fluent) {
+        Predicate[] res = predicates;
+        if (res == null) {
+            synchronized (this) {
+                res = predicates;
+                if (res == null) {
+                    res = new Predicate[symbols.length];
+                    for (int f = 0; f < res.length; f++) {
+                        final Argument[] args = new Argument[arguments[f].length];
+                        for (int i = 0; i < args.length; i++) {
+                            args[i] = objects[arguments[f][i]];
+                        }
+                        res[f] = new Predicate(symbols[f], predicateNames[symbols[f]], args);
+                    }
+                    predicates = res;
+                }
+            }
+        }
+        return res[fluent];
+    }
+
+    private static int indexOf(int[] args, int object, int from) {
+        for (int i = from; i < args.length; i++) {
+            if (args[i] == object) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,156 @@
+package esl.heuristic;
+
+import fr.uga.pddl4j.problem.State;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded cache of heuristic values keyed by the fingerprint of the states, i.e., the words of their bits.
+ *
+ * <p>The number of states cached is derived from the memory given to the cache and from the size of the states, and
+ * the state evicted when the cache is full is the least recently used one (LRU) or the oldest one (FIFO). The cache is
+ * shared by the threads evaluating states: a value missing is computed outside the lock, so that two threads missing
+ * the same state may both compute it.</p>
+ */
+public final class HeuristicCache {
+
+    /**
+     * The eviction policies of the cache.
+     */
+    public enum Eviction {
+        LRU,
+        FIFO
+    }
+
+    /**
+     * The default eviction policy of the cache.
+     */
+    public static final Eviction DEFAULT_EVICTION = Eviction.LRU;
+
+    // Bytes used by a cached state besides its words: the fingerprint, the header of its array of words, the entry of
+    // the map, the boxed value and the slot of the table of the map.
+    private static final int ENTRY_OVERHEAD = 24 + 16 + 40 + 16 + 8;
+
+    private final long capacity;
+    private final Eviction eviction;
+    private final int width;
+    private final int maxEntries;
+    private final Map<Fingerprint, Integer> values;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new empty cache.
+     *
+     * @param capacity the memory in bytes given to the cache.
+     * @param fluents  the number of fluents of the problem.
+     * @param eviction the eviction policy.
+     */
+    public HeuristicCache(long capacity, int fluents, Eviction eviction) {
+        this.capacity = capacity;
+        this.eviction = eviction;
+        this.width = Math.max(1, (fluents + Long.SIZE - 1) / Long.SIZE);
+        this.maxEntries = (int) Math.min(Integer.MAX_VALUE, capacity / (ENTRY_OVERHEAD + (long) width * Long.BYTES));
+        this.values = new LinkedHashMap<>(16, 0.75f, eviction == Eviction.LRU) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Fingerprint, Integer> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    /**
+     * Returns the value of a state, read from the cache or computed and cached if the state is not cached.
+     *
+     * @param state     the state.
+     * @param evaluator the function computing the value of a state.
+     * @return the value of the state.
+     */
+    public int estimate(State state, ToIntFunction<State> evaluator) {
+        final Fingerprint key = new Fingerprint(state, width);
+        synchronized (this) {
+            final Integer value = values.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+        }
+        final int value = evaluator.applyAsInt(state);
+        synchronized (this) {
+            values.put(key, value);
+        }
+        return value;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns an estimate of the bytes used by the states cached.
+     *
+     * @return the bytes used by the cache.
+     */
+    public synchronized long getMemoryUsed() {
+        return values.size() * (ENTRY_OVERHEAD + (long) width * Long.BYTES);
+    }
+
+    @Override
+    public synchronized String toString() {
+        final long lookups = hits + misses;
+        return String.format("%d hits, %d misses (%.1f%% hits), %d states cached, %.2f MBytes", hits, misses,
+            lookups == 0 ? 0.0 : 100.0 * hits / lookups, values.size(), getMemoryUsed() / (1024.0 * 1024.0));
+    }
+
+    /**
+     * The words of the bits of a state, with their hash code.
+     */
+    private static final class Fingerprint {
+
+        private final long[] words;
+        private final int hash;
+
+        private Fingerprint(State state, int width) {
+            this.words = new long[width];
+            for (int f = state.nextSetBit(0); f >= 0; f = state.nextSetBit(f + 1)) {
+                words[f / Long.SIZE] |= 1L << f;
+            }
+            long h = 0;
+            for (long word : words) {
+                h = (h ^ word) * 0x9E3779B97F4A7C15L;
+            }
+            this.hash = (int) (h ^ (h >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Fingerprint && Arrays.equals(words, ((Fingerprint) o).words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package esl.heuristic;
+
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.problem.operator.ConditionalEffect;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable graph of the landmarks of a problem, the facts that every plan makes true at some point, ordered by the
+ * greedy-necessary orderings, built once from the grounded problem.
+ *
+ * <p>The landmarks are found by backchaining from the goals in the delete relaxation, as the RHW landmarks of LAMA. A
+ * landmark is a fluent or a disjunction of fluents. The possible first achievers of a landmark not true in the
+ * initial state are the effects adding one of its fluents that are reachable in the delete relaxation without
+ * achieving the landmark, an effect being the conditional effect of an action with the precondition of the action. A
+ * fluent required by all the first achievers is a landmark, and the fluents of the same predicate and types of
+ * arguments, e.g., {@code (at ?r - robot l4)}, required by each first achiever make up a disjunctive landmark; both
+ * are ordered before the landmark. For instance, {@code (has-content p1 food)} gets {@code (has-inside ?b food)} for
+ * the boxes {@code ?b}, which gets {@code (at ?r depot)} for the robots {@code ?r}, while {@code (at ?b l1)} gets
+ * {@code (on-carrier ?b ?c)} and {@code (is-holding ?r ?c)}. The orderings making a cycle are dropped.</p>
+ *
+ * <p>The landmarks of a search node are tracked along its path, as LAMA does: the landmarks true in the initial
+ * state are accepted, and a landmark becomes accepted in a node when it holds and all the landmarks ordered before it
+ * were accepted in the parent. The landmarks still required are the ones not accepted, and the accepted ones that do
+ * not hold but are goals or are ordered before a landmark not accepted. Without the parent of a node, the landmarks
+ * holding in the node and the ones ordered before them are accepted.</p>
+ */
+public final class LandmarkGraph {
+
+    /**
+     * The maximal number of fluents of a disjunctive landmark (16): larger disjunctions hold in nearly any state.
+     */
+    private static final int MAX_DISJUNCTION = 16;
+
+    /**
+     * The fluents of the landmarks: landmarks[l] are the fluents of the landmark l, in increasing order.
+     */
+    private final int[][] landmarks;
+
+    /**
+     * The landmarks ordered before each landmark.
+     */
+    private final int[][] parents;
+
+    /**
+     * The landmarks ordered after each landmark.
+     */
+    private final int[][] children;
+
+    /**
+     * The landmarks that are goals of the problem.
+     */
+    private final BitSet goals = new BitSet();
+
+    /**
+     * The number of orderings between the landmarks.
+     */
+    private final int orderings;
+
+    /**
+     * Creates the landmark graph of a problem.
+     *
+     * @param problem the grounded problem.
+     * @param fluents the fluent table of the problem.
+     * @param objects the index of the objects of the problem by type.
+     */
+    public LandmarkGraph(Problem problem, FluentTable fluents, ObjectIndex objects) {
+        final int fluentCount = problem.getFluents().size();
+        // The effects of the actions, with the positive fluents of their precondition and the fluents they add
+        final List<int[]> preconditions = new ArrayList<>();
+        final List<int[]> adds = new ArrayList<>();
+        for (Action op : problem.getActions()) {
+            for (ConditionalEffect ce : op.getConditionalEffects()) {
+                final BitVector pre = (BitVector) op.getPrecondition().getPositiveFluents().clone();
+                pre.or(ce.getCondition().getPositiveFluents());
+                final int[] added = ce.getEffect().getPositiveFluents().stream().toArray();
+                if (added.length > 0) {
+                    preconditions.add(pre.stream().toArray());
+                    adds.add(added);
+                }
+            }
+        }
+        final int[][] effectsRequiring = index(preconditions, fluentCount);
+        final int[][] effectsAdding = index(adds, fluentCount);
+        final BitVector init = problem.getInitialState().getPositiveFluents();
+
+        // keys[f]: the predicate and the types of the arguments of the fluent f
+        final Map<String, Integer> keyIds = new HashMap<>();
+        final int[] keys = new int[fluentCount];
+        for (int f = 0; f < fluentCount; f++) {
+            final StringBuilder key = new StringBuilder().append(fluents.getSymbol(f));
+            for (int object : fluents.getArguments(f)) {
+                key.append(' ').append(objects.getType(object));
+            }
+            keys[f] = keyIds.computeIfAbsent(key.toString(), k -> keyIds.size());
+        }
+
+        final Map<List<Integer>, Integer> ids = new LinkedHashMap<>();
+        final List<List<Integer>> edges = new ArrayList<>();
+        final Deque<Integer> queue = new ArrayDeque<>();
+        for (int g : problem.getGoal().getPositiveFluents().stream().toArray()) {
+            final int l = add(List.of(g), ids, edges, queue);
+            goals.set(l);
+        }
+        final List<List<Integer>> found = new ArrayList<>(ids.keySet());
+        while (!queue.isEmpty()) {
+            final int l = queue.poll();
+            final List<Integer> landmark = found.get(l);
+            if (landmark.stream().anyMatch(init::get)) {
+                continue;
+            }
+            final BitSet reached = reach(landmark, preconditions, adds, effectsRequiring, init, fluentCount);
+            final List<int[]> achievers = new ArrayList<>();
+            landmark.stream().flatMapToInt(f -> Arrays.stream(effectsAdding[f])).distinct().forEach(e -> {
+                if (Arrays.stream(preconditions.get(e)).allMatch(reached::get)) {
+                    achievers.add(preconditions.get(e));
+                }
+            });
+            if (achievers.isEmpty()) {
+                continue;
+            }
+            // The fluents required by all the first achievers
+            final BitSet shared = new BitSet();
+            Arrays.stream(achievers.get(0)).forEach(shared::set);
+            for (int[] pre : achievers) {
+                final BitSet set = new BitSet();
+                Arrays.stream(pre).forEach(set::set);
+                shared.and(set);
+            }
+            landmark.forEach(shared::clear);
+            final List<List<Integer>> candidates = new ArrayList<>();
+            shared.stream().forEach(f -> candidates.add(List.of(f)));
+            // The fluents of the same key required by each first achiever
+            final Map<Integer, BitSet> groups = new HashMap<>();
+            for (int f : achievers.get(0)) {
+                groups.computeIfAbsent(keys[f], k -> new BitSet());
+            }
+            for (int[] pre : achievers) {
+                final Map<Integer, BitSet> keep = new HashMap<>();
+                for (int f : pre) {
+                    if (groups.containsKey(keys[f])) {
+                        keep.computeIfAbsent(keys[f], k -> (BitSet) groups.get(k).clone()).set(f);
+                    }
+                }
+                groups.keySet().retainAll(keep.keySet());
+                groups.putAll(keep);
+            }
+            for (BitSet group : groups.values()) {
+                if (group.cardinality() > 1 && group.cardinality() <= MAX_DISJUNCTION && !group.intersects(shared)
+                    && landmark.stream().noneMatch(group::get)) {
+                    candidates.add(group.stream().boxed().toList());
+                }
+            }
+            for (List<Integer> candidate : candidates) {
+                final int p = add(candidate, ids, edges, queue);
+                if (found.size() < ids.size()) {
+                    found.add(candidate);
+                }
+                if (!edges.get(p).contains(l) && !isReachable(l, p, edges)) {
+                    edges.get(p).add(l);
+                }
+            }
+        }
+
+        this.landmarks = found.stream().map(lm -> lm.stream().mapToInt(Integer::intValue).toArray())
+            .toArray(int[][]::new);
+        this.children = edges.stream().map(e -> e.stream().mapToInt(Integer::intValue).toArray())
+            .toArray(int[][]::new);
+        final List<List<Integer>> reverse = new ArrayList<>();
+        for (int l = 0; l < landmarks.length; l++) {
+            reverse.add(new ArrayList<>());
+        }
+        int count = 0;
+        for (int l = 0; l < children.length; l++) {
+            for (int c : children[l]) {
+                reverse.get(c).add(l);
+                count++;
+            }
+        }
+        this.parents = reverse.stream().map(e -> e.stream().mapToInt(Integer::intValue).toArray())
+            .toArray(int[][]::new);
+        this.orderings = count;
+    }
+
+    /**
+     * Returns the id of a landmark, the landmark being given a new id and queued if it was not found yet.
+     */
+    private static int add(List<Integer> landmark, Map<List<Integer>, Integer> ids, List<List<Integer>> edges,
+                           Deque<Integer> queue) {
+        return ids.computeIfAbsent(landmark, lm -> {
+            edges.add(new ArrayList<>());
+            queue.add(ids.size());
+            return ids.size();
+        });
+    }
+
+    /**
+     * Returns if the landmark to is reached from the landmark from by following the orderings.
+     */
+    private static boolean isReachable(int from, int to, List<List<Integer>> edges) {
+        final BitSet visited = new BitSet();
+        final Deque<Integer> stack = new ArrayDeque<>(List.of(from));
+        while (!stack.isEmpty()) {
+            final int l = stack.pop();
+            if (l == to) {
+                return true;
+            }
+            if (!visited.get(l)) {
+                visited.set(l);
+                edges.get(l).forEach(stack::push);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the fluents reachable from the initial state in the delete relaxation without the effects adding a
+     * fluent of a landmark.
+     */
+    private static BitSet reach(List<Integer> landmark, List<int[]> preconditions, List<int[]> adds,
+                                int[][] effectsRequiring, BitVector init, int fluentCount) {
+        final BitSet reached = new BitSet(fluentCount);
+        final int[] missing = new int[preconditions.size()];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        init.stream().forEach(f -> {
+            reached.set(f);
+            queue.add(f);
+        });
+        for (int e = 0; e < missing.length; e++) {
+            missing[e] = (int) Arrays.stream(preconditions.get(e)).filter(f -> !init.get(f)).count();
+            if (missing[e] == 0) {
+                fire(e, landmark, adds, reached, queue);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int f = queue.poll();
+            for (int e : effectsRequiring[f]) {
+                if (!init.get(f) && --missing[e] == 0) {
+                    fire(e, landmark, adds, reached, queue);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Adds to the fluents reached the fluents added by an effect, unless the effect adds a fluent of the landmark.
+     */
+    private static void fire(int effect, List<Integer> landmark, List<int[]> adds, BitSet reached,
+                             Deque<Integer> queue) {
+        final int[] added = adds.get(effect);
+        if (Arrays.stream(added).anyMatch(landmark::contains)) {
+            return;
+        }
+        for (int f : added) {
+            if (!reached.get(f)) {
+                reached.set(f);
+                queue.add(f);
+            }
+        }
+    }
+
+    /**
+     * Returns for each fluent the indexes of the lists containing it.
+     */
+    private static int[][] index(List<int[]> lists, int fluentCount) {
+        final List<List<Integer>> res = new ArrayList<>();
+        for (int f = 0; f < fluentCount; f++) {
+            res.add(new ArrayList<>());
+        }
+        for (int i = 0; i < lists.size(); i++) {
+            for (int f : lists.get(i)) {
+                res.get(f).add(i);
+            }
+        }
+        return res.stream().map(l -> l.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    /**
+     * Returns the number of landmarks.
+     *
+     * @return the number of landmarks.
+     */
+    public int size() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns the number of orderings between the landmarks.
+     *
+     * @return the number of orderings.
+     */
+    public int getOrderingCount() {
+        return orderings;
+    }
+
+    /**
+     * Returns the number of disjunctive landmarks.
+     *
+     * @return the number of landmarks of more than one fluent.
+     */
+    public int getDisjunctionCount() {
+        return (int) Arrays.stream(landmarks).filter(l -> l.length > 1).count();
+    }
+
+    /**
+     * Returns the fluents of a landmark, in increasing order. The array is shared and must not be modified.
+     *
+     * @param landmark the landmark.
+     * @return the fluents of the landmark.
+     */
+    public int[] getFluents(int landmark) {
+        return landmarks[landmark];
+    }
+
+    /**
+     * Returns the landmarks ordered before a landmark. The array is shared and must not be modified.
+     *
+     * @param landmark the landmark.
+     * @return the landmarks ordered before the landmark.
+     */
+    public int[] getParents(int landmark) {
+        return parents[landmark];
+    }
+
+    /**
+     * Returns if a landmark holds in a state, i.e., if one of its fluents holds.
+     *
+     * @param landmark the landmark.
+     * @param state    the state.
+     * @return <code>true</code> if the landmark holds in the state, <code>false</code> otherwise.
+     */
+    public boolean holds(int landmark, State state) {
+        for (int f : landmarks[landmark]) {
+            if (state.get(f)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the landmarks of a state without its parent: the landmarks holding in the state and the ones ordered
+     * before them are accepted.
+     *
+     * @param state the state.
+     * @return the number of landmarks still required in the state and the landmarks accepted.
+     */
+    public EstimateComponents getComponents(State state) {
+        final BitSet accepted = new BitSet(landmarks.length);
+        final Deque<Integer> stack = new ArrayDeque<>();
+        for (int l = 0; l < landmarks.length; l++) {
+            if (holds(l, state)) {
+                stack.push(l);
+            }
+        }
+        while (!stack.isEmpty()) {
+            final int l = stack.pop();
+            if (!accepted.get(l)) {
+                accepted.set(l);
+                for (int p : parents[l]) {
+                    stack.push(p);
+                }
+            }
+        }
+        return new EstimateComponents(this.getRequired(state, accepted), accepted);
+    }
+
+    /**
+     * Returns the landmarks of a state from the landmarks of its parent: a landmark is accepted if it was accepted in
+     * the parent, or if it holds and all the landmarks ordered before it were accepted in the parent.
+     *
+     * @param next   the state.
+     * @param parent the landmarks of the parent of the state.
+     * @return the number of landmarks still required in the state and the landmarks accepted.
+     */
+    public EstimateComponents update(State next, EstimateComponents parent) {
+        final BitSet previous = parent.getAccepted();
+        final BitSet accepted = (BitSet) previous.clone();
+        for (int l = previous.nextClearBit(0); l < landmarks.length; l = previous.nextClearBit(l + 1)) {
+            if (holds(l, next) && Arrays.stream(parents[l]).allMatch(previous::get)) {
+                accepted.set(l);
+            }
+        }
+        return new EstimateComponents(this.getRequired(next, accepted), accepted);
+    }
+
+    /**
+     * Returns the number of landmarks still required in a state: the landmarks not accepted, and the accepted ones
+     * that do not hold but are goals or are ordered before a landmark not accepted.
+     */
+    private int getRequired(State state, BitSet accepted) {
+        int required = landmarks.length - accepted.cardinality();
+        for (int l = accepted.nextSetBit(0); l >= 0; l = accepted.nextSetBit(l + 1)) {
+            if (!holds(l, state) && (goals.get(l) || Arrays.stream(children[l]).anyMatch(c -> !accepted.get(c)))) {
+                required++;
+            }
+        }
+        return required;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d landmarks (%d disjunctive), %d orderings", size(), getDisjunctionCount(),
+            orderings);
+    }
+}
@@ -0,0 +1,125 @@
+package esl.heuristic;
+
+import fr.uga.pddl4j.parser.TypedSymbol;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the objects of a problem by type, built once from the grounded problem.
+ *
+ * <p>Each object is mapped to the id of its declared type and each type to the array of the ids of its objects, so
+ * that the type of an object is read in constant time. The objects are resolved by name through the constant symbols
+ * of the problem, never by their order of declaration. The slots of each carrier are read from the
+ * {@code (empty ?s ?c)} facts of the initial state, not from the names of the slots. The arrays returned by the index
+ * are shared and must not be modified.</p>
+ */
+public final class ObjectIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> types;
+    // typeOf[o]: id of the declared type of the object o, -1 if the object is not declared by the problem.
+    private final int[] typeOf;
+    // objectsByType[t]: ids of the objects of the type t, in increasing order.
+    private final int[][] objectsByType;
+    // carrierOf[s]: id of the carrier of the slot s, -1 if s is not the slot of a carrier.
+    private final int[] carrierOf;
+    // capacity[c]: number of slots of the carrier c.
+    private final int[] capacity;
+
+    public ObjectIndex(Problem problem, FluentTable fluents) {
+        final List<String> constants = problem.getConstantSymbols();
+        final Map<String, Integer> ids = new HashMap<>();
+        for (int o = 0; o < constants.size(); o++) {
+            ids.put(constants.get(o), o);
+        }
+
+        this.types = new HashMap<>();
+        this.typeOf = new int[constants.size()];
+        Arrays.fill(typeOf, -1);
+        final List<List<Integer>> objects = new ArrayList<>();
+        for (TypedSymbol<String> elem : problem.getParsedProblem().getObjects()) {
+            final Integer object = ids.get(elem.getValue());
+            if (object == null || elem.getTypes().isEmpty()) {
+                continue;
+            }
+            final int type = types.computeIfAbsent(elem.getTypes().get(0).getValue(), t -> {
+                objects.add(new ArrayList<>());
+                return objects.size() - 1;
+            });
+            typeOf[object] = type;
+            objects.get(type).add(object);
+        }
+        this.objectsByType = new int[objects.size()][];
+        for (int t = 0; t < objectsByType.length; t++) {
+            objectsByType[t] = objects.get(t).stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+
+        this.carrierOf = new int[constants.size()];
+        Arrays.fill(carrierOf, -1);
+        this.capacity = new int[constants.size()];
+        final int empty = fluents.getSymbol("empty");
+        final BitVector init = problem.getInitialState().getPositiveFluents();
+        for (int f = init.nextSetBit(0); f >= 0; f = init.nextSetBit(f + 1)) {
+            if (fluents.getSymbol(f) == empty) {
+                final int slot = fluents.getArgument(f, 0);
+                final int carrier = fluents.getArgument(f, 1);
+                if (carrierOf[slot] == -1) {
+                    carrierOf[slot] = carrier;
+                    capacity[carrier]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the id of the type with the specified name, -1 if no object of the problem has this type.
+     */
+    public int getType(String type) {
+        return types.getOrDefault(type, -1);
+    }
+
+    /**
+     * Returns the id of the declared type of the object, -1 if the object is not declared by the problem.
+     */
+    public int getType(int object) {
+        return typeOf[object];
+    }
+
+    public boolean isOfType(int object, int type) {
+        return type >= 0 && typeOf[object] == type;
+    }
+
+    /**
+     * Returns the ids of the objects of the type, an empty array if the type is unknown. The array is shared and must
+     * not be modified.
+     */
+    public int[] getObjects(int type) {
+        return type < 0 ? NONE : objectsByType[type];
+    }
+
+    public int[] getObjects(String type) {
+        return getObjects(getType(type));
+    }
+
+    /**
+     * Returns the id of the carrier owning the slot, i.e., the carrier c of the fact (empty slot c) of the initial
+     * state, -1 if the slot is not empty in the initial state.
+     */
+    public int getCarrier(int slot) {
+        return carrierOf[slot];
+    }
+
+    /**
+     * Returns the number of slots of the carrier, i.e., the number of slots empty on the carrier in the initial state.
+     */
+    public int getCapacity(int carrier) {
+        return capacity[carrier];
+    }
+}
@@ -14,31 +14,23 @@ public class Predicate {
     // List of Arguments involved in the predicate: an argument has an ID and his name
     private final List<Argument> arguments;
 
-    public Predicate(int symbol, String name, int[] arguments_id, String[] arguments_name) {
+    // The arguments are the shared flyweights of the FluentTable
+    public Predicate(int symbol, String name, Argument[] arguments) {
         this.symbol = symbol;
         this.name = name;
-        this.arguments = new LinkedList<>();
-        for (int i = 0; i < arguments_id.length; i++) {
-            int argument_id = arguments_id[i];
-            String argument_name = arguments_name[i + 1];
-            arguments.add(new Argument(argument_id, argument_name));
-        }
+        this.arguments = Arrays.asList(arguments);
     }
 
     public Predicate(String name,List<Argument> arguments){
         this.symbol=-1;
         this.name=name;
-        this.arguments=new LinkedList<>();
-        for(Argument arg:arguments){
-            arguments.add(arg.clone());
-        }
+        this.arguments=new ArrayList<>(arguments);
     }
 
     public Predicate(String name,Argument argument){
         this.symbol=-1;
         this.name=name;
-        this.arguments=new LinkedList<>();
-        this.arguments.add(argument);
+        this.arguments=Collections.singletonList(argument);
 
     }
 
@@ -73,15 +65,13 @@ public class Predicate {
 
 
 
+    // Arguments are immutable: only the list is copied, since callers are free to modify it
     public List<Argument> getArguments() {
-        List<Argument> clonedArguments = new LinkedList<>();
-
-        for (Argument argument : this.arguments) {
-            Argument clonedArgument =argument.clone();
-            clonedArguments.add(clonedArgument);
-        }
+        return new ArrayList<>(this.arguments);
+    }
 
-        return clonedArguments;
+    public Argument getArgument(int index) {
+        return this.arguments.get(index);
     }
 
     @Override
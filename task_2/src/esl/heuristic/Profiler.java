@@ -0,0 +1,119 @@
+package esl.heuristic;
+
+import fr.uga.pddl4j.problem.Problem;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the calls and of the time spent in the components of the ESL estimate and in the pruning rules.
+ *
+ * <p>A profiler is attached to an {@link EslHeuristic} only when profiling is requested: without profiler, the
+ * heuristic does not read the clock and the only cost is a null test per call. The counters are shared by the threads
+ * evaluating states and by the search strategies solving the same problem.</p>
+ */
+public final class Profiler {
+
+    /**
+     * The timed parts of the estimate: the goals not yet satisfied, the positions still to reach, the box mismatches,
+     * the incremental update of these three components and the base PDDL4J heuristic, cache lookups included.
+     */
+    public enum Component {
+        GOALS,
+        POSITIONS,
+        BOXES,
+        UPDATE,
+        BASE
+    }
+
+    private final LongAdder[] componentCalls = newAdders(Component.values().length);
+    private final LongAdder[] componentNanos = newAdders(Component.values().length);
+    // The pruning rules are indexed by the kind of the actions they apply to
+    private final LongAdder[] ruleCalls = newAdders(ActionKind.values().length);
+    private final LongAdder[] ruleNanos = newAdders(ActionKind.values().length);
+    private final LongAdder[] rulePruned = newAdders(ActionKind.values().length);
+
+    private static LongAdder[] newAdders(int size) {
+        final LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    void recordComponent(Component component, long nanos) {
+        componentCalls[component.ordinal()].increment();
+        componentNanos[component.ordinal()].add(nanos);
+    }
+
+    void recordRule(ActionKind kind, long nanos, boolean worth) {
+        ruleCalls[kind.ordinal()].increment();
+        ruleNanos[kind.ordinal()].add(nanos);
+        if (!worth) {
+            rulePruned[kind.ordinal()].increment();
+        }
+    }
+
+    public long getCalls(Component component) {
+        return componentCalls[component.ordinal()].sum();
+    }
+
+    public long getNanos(Component component) {
+        return componentNanos[component.ordinal()].sum();
+    }
+
+    public long getCalls(ActionKind rule) {
+        return ruleCalls[rule.ordinal()].sum();
+    }
+
+    public long getNanos(ActionKind rule) {
+        return ruleNanos[rule.ordinal()].sum();
+    }
+
+    public long getPruned(ActionKind rule) {
+        return rulePruned[rule.ordinal()].sum();
+    }
+
+    /**
+     * Returns the report of the counters as a JSON object on a single line, so that the reports of several problems
+     * can be appended to the same file. Since the problems of a domain often share their name, the report gives the
+     * number of fluents and actions of the problem too.
+     *
+     * @param problem  the problem profiled.
+     * @param disabled the pruning rules disabled.
+     * @param cache    the cache of the base heuristic or null if the cache is disabled.
+     * @return the report.
+     */
+    public String toJson(Problem problem, Set<ActionKind> disabled, HeuristicCache cache) {
+        final String name = problem.getParsedProblem().getProblemName().getValue();
+        final StringBuilder json = new StringBuilder("{\"problem\":\"").append(name.replace("\"", "\\\""))
+            .append("\",\"fluents\":").append(problem.getFluents().size())
+            .append(",\"actions\":").append(problem.getActions().size()).append(",\"components\":{");
+        for (Component c : Component.values()) {
+            json.append(c.ordinal() == 0 ? "" : ",").append('"').append(c).append("\":{\"calls\":")
+                .append(getCalls(c)).append(",\"nanos\":").append(getNanos(c)).append('}');
+        }
+        json.append("},\"rules\":{");
+        String separator = "";
+        for (ActionKind k : ActionKind.values()) {
+            final long calls = getCalls(k);
+            if (calls == 0 && !disabled.contains(k)) {
+                continue;
+            }
+            final long pruned = getPruned(k);
+            json.append(separator).append('"').append(k).append("\":{\"disabled\":").append(disabled.contains(k))
+                .append(",\"calls\":").append(calls).append(",\"nanos\":").append(getNanos(k))
+                .append(",\"pruned\":").append(pruned).append(",\"accepted\":").append(calls - pruned)
+                .append(",\"pruneRatio\":")
+                .append(String.format(Locale.ROOT, "%.4f", calls == 0 ? 0.0 : (double) pruned / calls)).append('}');
+            separator = ",";
+        }
+        json.append('}');
+        if (cache != null) {
+            json.append(",\"cache\":{\"hits\":").append(cache.getHits()).append(",\"misses\":")
+                .append(cache.getMisses()).append(",\"size\":").append(cache.size()).append('}');
+        }
+        return json.append('}').toString();
+    }
+}
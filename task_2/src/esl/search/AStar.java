@@ -16,19 +16,24 @@
 package esl.search;
 
 import esl.heuristic.EslHeuristic;
+import esl.heuristic.EstimateComponents;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
 
 import fr.uga.pddl4j.planners.statespace.search.Node;
-import fr.uga.pddl4j.planners.statespace.search.NodeComparator;
 import fr.uga.pddl4j.problem.Problem;
 import fr.uga.pddl4j.problem.State;
 import fr.uga.pddl4j.problem.operator.Action;
 import org.openjdk.jol.info.GraphLayout;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * This class implements A* search strategy.
@@ -68,105 +73,191 @@ public final class AStar extends AbstractStateSpaceSearch {
         final long begin = System.currentTimeMillis();
 
         final EslHeuristic heuristic= EslHeuristic.getInstance(codedProblem, this.getHeuristic());
+        heuristic.setEvaluation(this.getEvaluation());
+        heuristic.setEstimate(this.getEstimate());
+        heuristic.setCache(this.getCacheSize(), this.getCacheEviction());
+        // Enumerates only the actions applicable in the expanded nodes
+        final SuccessorGenerator generator = new SuccessorGenerator(codedProblem);
         // Get the initial state from the planning problem
         final State init = new State(codedProblem.getInitialState());
-        // Initialize the closed list of nodes (store the nodes explored)
-        final Map<State, Node> closeSet = new HashMap<>();
-        final Map<State, Node> openSet = new HashMap<>();
+        // Initialize the open and closed sets: the states explored or pending are packed in the arena and only the
+        // pending nodes are materialized, frontier[h] being the pending node of the state of handle h
+        final StateArena arena = new StateArena(codedProblem.getFluents().size());
+        Node[] frontier = new Node[1024];
         // Initialize the opened list (store the pending node)
         final double currWeight = getWeight();
         // The list stores the node ordered according to the A* (getFValue = g + h) function
-        final PriorityQueue<Node> open = new PriorityQueue<>(100, new NodeComparator(currWeight));
+        final OpenList open = OpenList.getInstance(this.getOpenList(), currWeight, this.getTieBreaking());
+        // With the incremental evaluation, the components of the estimate of the pending nodes are kept to update
+        // the estimate of their successors
+        final boolean incremental = this.isIncremental();
+        final Map<Node, EstimateComponents> components = new IdentityHashMap<>();
+        final EstimateComponents rootComponents = incremental ? heuristic.getComponents(init) : null;
         // Creates the root node of the tree search
-        final Node root = new Node(init, null, -1, 0, heuristic.estimate(init, codedProblem.getGoal()));
+        final Node root = new Node(init, null, -1, 0,
+            heuristic.estimate(init, codedProblem.getGoal(), rootComponents));
         // Adds the root to the list of pending nodes
+        final int rootHandle = arena.add(root);
+        arena.setHeuristic(rootHandle, root.getHeuristic());
+        arena.setOpen(rootHandle, true);
+        frontier[rootHandle] = root;
         open.add(root);
-        openSet.put(init, root);
+        if (incremental) {
+            components.put(root, rootComponents);
+        }
 
         this.resetNodesStatistics();
-        Node solution = null;
+        // The heuristic of the successors of a node is evaluated by the threads of the pool if the search is parallel
+        final ForkJoinPool pool = this.getParallelism() == 1 ? null : new ForkJoinPool(this.getParallelism() == 0
+            ? Runtime.getRuntime().availableProcessors() : this.getParallelism());
+        int solution = -1;
         final long timeout = this.getTimeout() * 1000L;
         long time = 0;
-        // Start of the search
-        while (!open.isEmpty() && solution == null && time < timeout) {
-            // Pop the first node in the pending list open
-            final Node current = open.poll();
-            //if(current.getAction()!=-1) System.out.println(codedProblem.toString(codedProblem.getActions().get(current.getAction())));
-
-            openSet.remove(current);
-            closeSet.put(current, current);
-            // If the goal is satisfied in the current node then extract the search and return it
-            if (current.satisfy(codedProblem.getGoal())) {
-                solution = current;
-            } else {
-                // Try to apply the operators of the problem to this node
-
+        try {
+            // Start of the search
+            while (!open.isEmpty() && solution == -1 && time < timeout && !this.isCancelled()) {
+                // Pop the first node in the pending list open
+                final Node current = open.poll();
+                final int currentHandle = arena.find(current);
+                arena.setOpen(currentHandle, false);
+                frontier[currentHandle] = null;
+                // Null if the node is expanded again after a cost improvement: its successors are evaluated from scratch
+                final EstimateComponents currentComponents = components.remove(current);
+                // If the goal is satisfied in the current node then extract the search and return it
+                if (current.satisfy(codedProblem.getGoal())) {
+                    solution = currentHandle;
+                } else {
+                    // The nodes to push in the pending list, in the order of the actions, and among them the new nodes
+                    // whose heuristic has to be evaluated before they are pushed
+                    final List<Node> pushed = new ArrayList<>();
+                    final List<Node> created = new ArrayList<>();
+                    final List<Integer> createdHandles = new ArrayList<>();
 
-                int index = 0;
-                for (Action op : codedProblem.getActions()) {
+                    // Try to apply the operators of the problem to this node
+                    for (int index : generator.getApplicableActions(current)) {
+                        final Action op = codedProblem.getActions().get(index);
 
+                        // Test if the applicable operator is worth to be applied in the current state
+                        if (heuristic.isWorth(current, index)) {
 
-                    // Test if a specified operator is applicable in the current state
-                    //
-                    if (op.isApplicable(current) && heuristic.isWorth(current, op)) {
 
+                            Node state = new Node(current);
+                            this.setCreatedNodes(this.getCreatedNodes() + 1);
 
-                        Node state = new Node(current);
-                        this.setCreatedNodes(this.getCreatedNodes() + 1);
+                            // Apply the effect of the applicable operator
+                            // Test if the condition of the effect is satisfied in the current state
+                            // Apply the effect to the successor node
+                            op.getConditionalEffects().stream().filter(ce -> current.satisfy(ce.getCondition()))
+                                .forEach(ce -> state.apply(ce.getEffect()));
 
-                        // Apply the effect of the applicable operator
-                        // Test if the condition of the effect is satisfied in the current state
-                        // Apply the effect to the successor node
-                        op.getConditionalEffects().stream().filter(ce -> current.satisfy(ce.getCondition()))
-                            .forEach(ce -> state.apply(ce.getEffect()));
-
-                        final double g = current.getCost() + op.getCost().getValue();
-                        Node result = openSet.get(state);
-                        if (result == null) {
-                            result = closeSet.get(state);
-                            if (result != null) {
-                                if (g < result.getCost()) {
+                            final double g = current.getCost() + op.getCost().getValue();
+                            final int handle = arena.find(state);
+                            if (handle == -1) {
+                                // The parent of a pending node is kept in the arena: the node does not retain the
+                                // nodes of its path
+                                state.setCost(g);
+                                state.setAction(index);
+                                state.setDepth(current.getDepth() + 1);
+                                final int stateHandle = arena.add(state);
+                                arena.setCost(stateHandle, g);
+                                arena.setParent(stateHandle, currentHandle);
+                                arena.setAction(stateHandle, index);
+                                arena.setDepth(stateHandle, current.getDepth() + 1);
+                                arena.setOpen(stateHandle, true);
+                                if (stateHandle >= frontier.length) {
+                                    frontier = Arrays.copyOf(frontier, 2 * frontier.length);
+                                }
+                                frontier[stateHandle] = state;
+                                pushed.add(state);
+                                created.add(state);
+                                createdHandles.add(stateHandle);
+                            } else if (g < arena.getCost(handle)) {
+                                arena.setCost(handle, g);
+                                arena.setParent(handle, currentHandle);
+                                arena.setAction(handle, index);
+                                arena.setDepth(handle, current.getDepth() + 1);
+                                if (arena.isOpen(handle)) {
+                                    final Node result = frontier[handle];
                                     result.setCost(g);
-                                    result.setParent(current);
                                     result.setAction(index);
                                     result.setDepth(current.getDepth() + 1);
-                                    open.add(result);
-                                    openSet.put(result, result);
-                                    closeSet.remove(result);
+                                    open.decrease(result);
+                                } else {
+                                    final Node result = new Node(arena.getState(handle), null, index, g,
+                                        current.getDepth() + 1, arena.getHeuristic(handle));
+                                    arena.setOpen(handle, true);
+                                    frontier[handle] = result;
+                                    pushed.add(result);
                                 }
-                            } else {
-                                state.setCost(g);
-                                state.setParent(current);
-                                state.setAction(index);
-                                state.setHeuristic(
-                                        heuristic.estimate(state, codedProblem.getGoal())
-                                );
-                                state.setDepth(current.getDepth() + 1);
-                                open.add(state);
-                                openSet.put(state, state);
                             }
-                        } else if (g < result.getCost()) {
-                            result.setCost(g);
-                            result.setParent(current);
-                            result.setAction(index);
-                            result.setDepth(current.getDepth() + 1);
                         }
                     }
-                    index++;
+                    final EstimateComponents[] createdComponents = this.evaluate(created, current, currentComponents,
+                        codedProblem, heuristic, pool);
+                    for (int i = 0; i < created.size(); i++) {
+                        arena.setHeuristic(createdHandles.get(i), created.get(i).getHeuristic());
+                        if (incremental) {
+                            components.put(created.get(i), createdComponents[i]);
+                        }
+                    }
+                    pushed.forEach(open::add);
                 }
+                // Compute the searching time
+                time = System.currentTimeMillis() - begin;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
             }
-            // Compute the searching time
-            time = System.currentTimeMillis() - begin;
         }
 
-        this.setExploredNodes(closeSet.size());
-        this.setPendingNodes(openSet.size());
-        this.setMemoryUsed(GraphLayout.parseInstance(closeSet).totalSize()
-            + GraphLayout.parseInstance(openSet).totalSize());
+        this.setExploredNodes(arena.getClosedSize());
+        this.setPendingNodes(arena.getOpenSize());
+        if (this.isExactMemory()) {
+            this.setMemoryUsed(GraphLayout.parseInstance(arena, frontier, open, components).totalSize());
+        } else {
+            // The arena knows the size of its arrays: only the pending nodes and their references are estimated
+            this.setMemoryUsed(arena.getMemoryUsed() + 4L * frontier.length + arena.getOpenSize()
+                * (AbstractStateSpaceSearch.getNodeSize(codedProblem.getFluents().size()) + 4L));
+        }
+        this.setMemoryUsed(this.getMemoryUsed() + AbstractStateSpaceSearch.getCacheMemory(heuristic));
         this.setSearchingTime(time);
 
         // return the search computed or null if no search was found
-        return solution;
+        return solution == -1 ? null : arena.getNode(solution);
+    }
+
+    /**
+     * Evaluates the heuristic of the new successors of a node. The successors are evaluated by the threads of the
+     * pool, if a pool is given and there is more than one successor, otherwise in the calling thread.
+     *
+     * @param created           the new successors of the node.
+     * @param parent            the node.
+     * @param parentComponents  the components of the estimate of the node or null if they are not known.
+     * @param problem           the problem to solve.
+     * @param heuristic         the heuristic.
+     * @param pool              the pool of threads or null if the evaluation is sequential.
+     * @return the components of the estimate of the successors, if the evaluation is incremental.
+     */
+    private EstimateComponents[] evaluate(final List<Node> created, final Node parent,
+                                          final EstimateComponents parentComponents, final Problem problem,
+                                          final EslHeuristic heuristic, final ForkJoinPool pool) {
+        final EstimateComponents[] components = new EstimateComponents[created.size()];
+        final boolean incremental = this.isIncremental();
+        final IntConsumer evaluation = i -> {
+            final Node state = created.get(i);
+            if (incremental) {
+                components[i] = heuristic.getComponents(state, parent, parentComponents,
+                    problem.getActions().get(state.getAction()));
+            }
+            state.setHeuristic(heuristic.estimate(state, problem.getGoal(), components[i]));
+        };
+        if (pool == null || created.size() < 2) {
+            IntStream.range(0, created.size()).forEach(evaluation);
+        } else {
+            pool.submit(() -> IntStream.range(0, created.size()).parallel().forEach(evaluation)).join();
+        }
+        return components;
     }
 
 
@@ -15,6 +15,8 @@
 
 package esl.search;
 
+import esl.heuristic.EslHeuristic;
+import esl.heuristic.HeuristicCache;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
 import fr.uga.pddl4j.plan.Plan;
 import fr.uga.pddl4j.plan.SequentialPlan;
@@ -43,6 +45,61 @@ public abstract class AbstractStateSpaceSearch implements StateSpaceSearch {
      */
     private double weight;
 
+    /**
+     * The evaluation mode of the ESL heuristic.
+     */
+    private EslHeuristic.Evaluation evaluation;
+
+    /**
+     * The estimate added to the base heuristic by the ESL heuristic.
+     */
+    private EslHeuristic.Estimate estimate;
+
+    /**
+     * The number of threads used to evaluate the successors of a node.
+     */
+    private int parallelism;
+
+    /**
+     * The flag set to request the search to stop. The flag is set by another thread than the one running the search.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * The flag to measure the memory used by the search exactly.
+     */
+    private boolean exactMemory;
+
+    /**
+     * The type of the open list.
+     */
+    private OpenList.Type openList;
+
+    /**
+     * The tie-breaking policy of the open list.
+     */
+    private OpenList.TieBreaking tieBreaking;
+
+    /**
+     * The flag to expand first the helpful actions of the nodes.
+     */
+    private boolean helpfulActions;
+
+    /**
+     * The number of restarts from the previous best node.
+     */
+    private int restarts;
+
+    /**
+     * The memory in MBytes of the cache of the values of the base heuristic.
+     */
+    private int cacheSize;
+
+    /**
+     * The eviction policy of the cache of the values of the base heuristic.
+     */
+    private HeuristicCache.Eviction cacheEviction;
+
     /**
      * The timeout for the search in second.
      */
@@ -114,6 +171,293 @@ public abstract class AbstractStateSpaceSearch implements StateSpaceSearch {
         this.weight = weight;
     }
 
+    /**
+     * Returns the evaluation mode of the ESL heuristic.
+     *
+     * @return the evaluation mode of the ESL heuristic.
+     */
+    @Override
+    public final EslHeuristic.Evaluation getEvaluation() {
+        return this.evaluation;
+    }
+
+    /**
+     * Sets the evaluation mode of the ESL heuristic.
+     *
+     * @param evaluation the evaluation mode of the ESL heuristic. The evaluation mode cannot be null.
+     */
+    @Override
+    public final void setEvaluation(final EslHeuristic.Evaluation evaluation) {
+        Objects.requireNonNull(evaluation);
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Returns the estimate added to the base heuristic by the ESL heuristic.
+     *
+     * @return the estimate added to the base heuristic.
+     */
+    @Override
+    public final EslHeuristic.Estimate getEstimate() {
+        return this.estimate;
+    }
+
+    /**
+     * Sets the estimate added to the base heuristic by the ESL heuristic.
+     *
+     * @param estimate the estimate added to the base heuristic. The estimate cannot be null.
+     */
+    @Override
+    public final void setEstimate(final EslHeuristic.Estimate estimate) {
+        Objects.requireNonNull(estimate);
+        this.estimate = estimate;
+    }
+
+    /**
+     * Returns if the components of the estimate of the nodes are kept to update the estimate of their successors:
+     * with the INCREMENTAL evaluation, and with the landmark estimate, whose landmarks accepted depend on the path.
+     *
+     * @return <code>true</code> if the components of the estimate are kept <code>false</code> otherwise.
+     */
+    protected final boolean isIncremental() {
+        return this.evaluation == EslHeuristic.Evaluation.INCREMENTAL
+            || this.estimate == EslHeuristic.Estimate.LANDMARKS;
+    }
+
+    /**
+     * Returns the number of threads used to evaluate the successors of a node.
+     *
+     * @return the number of threads used to evaluate the successors of a node.
+     */
+    @Override
+    public final int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the number of threads used to evaluate the successors of a node. The value 0 means one thread per
+     * available processor and the value 1 a sequential evaluation.
+     *
+     * @param parallelism the number of threads. The number of threads must be greater or equal to 0.
+     */
+    @Override
+    public final void setParallelism(final int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("parallelism must be greater or equal to 0");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the type of the open list of the search.
+     *
+     * @return the type of the open list of the search.
+     */
+    @Override
+    public final OpenList.Type getOpenList() {
+        return this.openList;
+    }
+
+    /**
+     * Sets the type of the open list of the search.
+     *
+     * @param openList the type of the open list. The type cannot be null.
+     */
+    @Override
+    public final void setOpenList(final OpenList.Type openList) {
+        Objects.requireNonNull(openList);
+        this.openList = openList;
+    }
+
+    /**
+     * Returns the tie-breaking policy of the open list of the search.
+     *
+     * @return the tie-breaking policy of the open list of the search.
+     */
+    @Override
+    public final OpenList.TieBreaking getTieBreaking() {
+        return this.tieBreaking;
+    }
+
+    /**
+     * Sets the tie-breaking policy of the open list of the search.
+     *
+     * @param tieBreaking the tie-breaking policy. The policy cannot be null.
+     */
+    @Override
+    public final void setTieBreaking(final OpenList.TieBreaking tieBreaking) {
+        Objects.requireNonNull(tieBreaking);
+        this.tieBreaking = tieBreaking;
+    }
+
+    /**
+     * Returns if the search expands first the helpful actions of a node.
+     *
+     * @return <code>true</code> if the helpful actions are expanded first <code>false</code> otherwise.
+     */
+    @Override
+    public final boolean isHelpfulActions() {
+        return this.helpfulActions;
+    }
+
+    /**
+     * Sets if the search expands first the helpful actions of a node, the actions adding a goal of the first
+     * layer of its relaxed plan. Only the enforced hill climbing search uses the helpful actions.
+     *
+     * @param helpfulActions <code>true</code> to expand first the helpful actions.
+     */
+    @Override
+    public final void setHelpfulActions(final boolean helpfulActions) {
+        this.helpfulActions = helpfulActions;
+    }
+
+    /**
+     * Returns the number of restarts of the search from the previous best node.
+     *
+     * @return the number of restarts of the search from the previous best node.
+     */
+    @Override
+    public final int getRestarts() {
+        return this.restarts;
+    }
+
+    /**
+     * Sets the number of restarts of the search from the previous best node when the plateau of the best node is
+     * exhausted. Only the enforced hill climbing search restarts.
+     *
+     * @param restarts the number of restarts. The number of restarts must be greater or equal to 0.
+     * @throws IllegalArgumentException if the number of restarts is strictly less than 0.
+     */
+    @Override
+    public final void setRestarts(final int restarts) {
+        if (restarts < 0) {
+            throw new IllegalArgumentException("restarts must be greater or equal to 0");
+        }
+        this.restarts = restarts;
+    }
+
+    /**
+     * Returns the memory in MBytes of the cache of the values of the base heuristic.
+     *
+     * @return the memory in MBytes of the cache of the values of the base heuristic.
+     */
+    @Override
+    public final int getCacheSize() {
+        return this.cacheSize;
+    }
+
+    /**
+     * Sets the memory in MBytes of the cache of the values of the base heuristic. The value 0 disables the cache.
+     *
+     * @param cacheSize the memory of the cache in MBytes. The memory must be greater or equal to 0.
+     * @throws IllegalArgumentException if the memory is strictly less than 0.
+     */
+    @Override
+    public final void setCacheSize(final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size must be greater or equal to 0");
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Returns the eviction policy of the cache of the values of the base heuristic.
+     *
+     * @return the eviction policy of the cache of the values of the base heuristic.
+     */
+    @Override
+    public final HeuristicCache.Eviction getCacheEviction() {
+        return this.cacheEviction;
+    }
+
+    /**
+     * Sets the eviction policy of the cache of the values of the base heuristic.
+     *
+     * @param cacheEviction the eviction policy.
+     */
+    @Override
+    public final void setCacheEviction(final HeuristicCache.Eviction cacheEviction) {
+        this.cacheEviction = cacheEviction;
+    }
+
+    /**
+     * Returns if the memory used by the search is measured exactly.
+     *
+     * @return <code>true</code> if the memory used by the search is measured exactly <code>false</code> if it is
+     *      estimated.
+     */
+    @Override
+    public final boolean isExactMemory() {
+        return this.exactMemory;
+    }
+
+    /**
+     * Sets if the memory used by the search is measured exactly, by walking all the objects kept by the search, or
+     * estimated from the number of nodes stored by the search.
+     *
+     * @param exactMemory <code>true</code> to measure the memory used by the search exactly.
+     */
+    @Override
+    public final void setExactMemory(final boolean exactMemory) {
+        this.exactMemory = exactMemory;
+    }
+
+    /**
+     * Returns an estimation of the memory used by a node, its state included, without walking its objects. The
+     * estimation assumes a 64 bits JVM with compressed references.
+     *
+     * @param fluents the number of fluents of the problem.
+     * @return the number of bytes used by a node.
+     */
+    protected static long getNodeSize(final int fluents) {
+        // Header, parent and words references, action, depth and words in use, cost and heuristic, sticky flag
+        final long node = AbstractStateSpaceSearch.align(12 + 2 * 4 + 3 * 4 + 2 * 8 + 1);
+        // Header, length and words of the bitset
+        final long words = AbstractStateSpaceSearch.align(16 + 8L * ((fluents + Long.SIZE - 1) / Long.SIZE));
+        return node + words;
+    }
+
+    /**
+     * Returns an estimation of the memory used by the cache of the values of the base heuristic. The cache is shared
+     * by the search strategies solving the problem, and is counted in the memory of each.
+     *
+     * @param heuristic the ESL heuristic of the problem.
+     * @return the number of bytes used by the cache, 0 if the cache is disabled.
+     */
+    protected static long getCacheMemory(final EslHeuristic heuristic) {
+        final HeuristicCache cache = heuristic.getCache();
+        return cache == null ? 0 : cache.getMemoryUsed();
+    }
+
+    /**
+     * Rounds a number of bytes up to the alignment of the objects of the JVM.
+     *
+     * @param size the number of bytes.
+     * @return the aligned number of bytes.
+     */
+    private static long align(final long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Requests the search to stop. The search stops at the next expansion of a node and returns the solution found so
+     * far, if any.
+     */
+    @Override
+    public final void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Returns if the search was requested to stop.
+     *
+     * @return <code>true</code> if the search was requested to stop <code>false</code> otherwise.
+     */
+    @Override
+    public final boolean isCancelled() {
+        return this.cancelled;
+    }
+
     /**
      * Sets the time out of the planner in second.
      *
@@ -263,6 +607,15 @@ public abstract class AbstractStateSpaceSearch implements StateSpaceSearch {
         this.timeout = timeout;
         this.heuristic = heuristic;
         this.weight = weight;
+        this.evaluation = EslHeuristic.Evaluation.BITSET;
+        this.estimate = EslHeuristic.Estimate.ESL;
+        this.parallelism = 1;
+        this.openList = OpenList.DEFAULT_TYPE;
+        this.tieBreaking = OpenList.DEFAULT_TIE_BREAKING;
+        this.helpfulActions = StateSpaceSearch.DEFAULT_HELPFUL_ACTIONS;
+        this.restarts = StateSpaceSearch.DEFAULT_RESTARTS;
+        this.cacheSize = StateSpaceSearch.DEFAULT_CACHE_SIZE;
+        this.cacheEviction = HeuristicCache.DEFAULT_EVICTION;
         this.searchingTime = 0;
         this.memoryUsed = 0;
         resetNodesStatistics();
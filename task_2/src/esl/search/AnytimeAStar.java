@@ -0,0 +1,249 @@
+package esl.search;
+
+import esl.heuristic.EslHeuristic;
+import fr.uga.pddl4j.heuristics.state.StateHeuristic;
+import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * This class implements an anytime weighted A* search strategy.
+ *
+ * <p>The search starts with the weight {@link #INITIAL_WEIGHT} to find a first plan quickly, then lowers the weight by
+ * {@link #WEIGHT_STEP} down to the weight of the search and publishes each better plan found, until the last iteration,
+ * the timeout or the cancellation of the search. Each iteration is a weighted A* search restarted from the root that
+ * stops at its first solution, as in Restarting Weighted A*: unlike ARA*, it does not rely on an admissible heuristic
+ * to bound the nodes expanded again. The effort of the previous iterations is reused: the states, their best cost and
+ * their heuristic stay in the arena, so that the heuristic is only computed for the states never generated before. The
+ * nodes are not pruned by the cost of the best plan: an iteration may thus find a plan not cheaper than the best one,
+ * which is then dropped, but forcing each iteration to find a cheaper plan makes it exhaust the states cheaper than the
+ * best plan at a high weight. An iteration that exhausts the states without finding a plan ends the search, the lower
+ * weights exploring the same states.</p>
+ *
+ * <p>The best plan found so far can be read with {@link #getBestSolution()} at any time, from any thread, and is the
+ * result of the search when it is interrupted.</p>
+ */
+public final class AnytimeAStar extends AbstractStateSpaceSearch {
+
+    /**
+     * The weight of the heuristic of the first iteration (5.0), unless the weight of the search is higher.
+     */
+    public static final double INITIAL_WEIGHT = 5.0;
+
+    /**
+     * The decrease of the weight of the heuristic from one iteration to the next (1.0).
+     */
+    public static final double WEIGHT_STEP = 1.0;
+
+    /**
+     * The logger of the class.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(AnytimeAStar.class.getName());
+
+    /**
+     * The best solution found so far or null if no solution was found yet.
+     */
+    private volatile Node bestSolution;
+
+    /**
+     * Creates a new AnytimeAStar search strategy with default parameters.
+     */
+    public AnytimeAStar() {
+        super();
+    }
+
+    /**
+     * Creates a new AnytimeAStar search strategy.
+     *
+     * @param timeout   the time out of the planner.
+     * @param heuristic the heuristic to use to solve the planning problem.
+     * @param weight    the weight set to the heuristic at the last iteration.
+     */
+    public AnytimeAStar(int timeout, StateHeuristic.Name heuristic, double weight) {
+        super(timeout, heuristic, weight);
+    }
+
+    /**
+     * Returns the best solution found so far by the search.
+     *
+     * @return the best solution found so far or null if no solution was found yet.
+     */
+    public Node getBestSolution() {
+        return this.bestSolution;
+    }
+
+    /**
+     * Solves the planning problem and returns the best solution found before the end of the last iteration, the
+     * timeout or the cancellation of the search.
+     *
+     * @param codedProblem the problem to be solved. The problem cannot be null.
+     * @return the best solution found or null if no solution was found.
+     */
+    public Node search(final Problem codedProblem) {
+        Objects.requireNonNull(codedProblem);
+        final long begin = System.currentTimeMillis();
+        this.bestSolution = null;
+
+        final EslHeuristic heuristic = EslHeuristic.getInstance(codedProblem, this.getHeuristic());
+        // The successors are evaluated one by one: without the components of the parent, the incremental evaluation
+        // falls back to the bitset one
+        heuristic.setEvaluation(this.getEvaluation());
+        heuristic.setEstimate(this.getEstimate());
+        heuristic.setCache(this.getCacheSize(), this.getCacheEviction());
+        final SuccessorGenerator generator = new SuccessorGenerator(codedProblem);
+        final State init = new State(codedProblem.getInitialState());
+        // The states explored or pending are packed in the arena, frontier[h] being the pending node of the state of
+        // handle h, and generated telling the states generated in the current iteration
+        final StateArena arena = new StateArena(codedProblem.getFluents().size());
+        Node[] frontier = new Node[1024];
+        final BitSet generated = new BitSet();
+        final double lastWeight = this.getWeight();
+        double weight = Math.max(AnytimeAStar.INITIAL_WEIGHT, lastWeight);
+        OpenList open = null;
+        final int rootHandle = arena.add(init);
+        arena.setHeuristic(rootHandle, heuristic.estimate(init, codedProblem.getGoal()));
+
+        this.resetNodesStatistics();
+        // The handle of the goal state of the best solution
+        int solution = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        final long timeout = this.getTimeout() * 1000L;
+        long time = 0;
+        int explored = 0;
+        boolean interrupted = false;
+        while (!interrupted) {
+            // Each iteration restarts from the root with the states, their best cost and their heuristic of the
+            // previous iterations: only the states never generated before are evaluated
+            for (int h = generated.nextSetBit(0); h >= 0; h = generated.nextSetBit(h + 1)) {
+                arena.setOpen(h, false);
+                frontier[h] = null;
+            }
+            generated.clear();
+            open = OpenList.getInstance(this.getOpenList(), weight, this.getTieBreaking());
+            final Node root = new Node(arena.getState(rootHandle), null, -1, 0, 0, arena.getHeuristic(rootHandle));
+            arena.setOpen(rootHandle, true);
+            generated.set(rootHandle);
+            frontier[rootHandle] = root;
+            open.add(root);
+            final double previousCost = bestCost;
+            boolean found = false;
+            while (!open.isEmpty() && !found) {
+                if (time >= timeout || this.isCancelled()) {
+                    interrupted = true;
+                    break;
+                }
+                final Node current = open.poll();
+                final int currentHandle = arena.find(current);
+                arena.setOpen(currentHandle, false);
+                frontier[currentHandle] = null;
+                if (current.satisfy(codedProblem.getGoal())) {
+                    if (solution == -1 || current.getCost() < bestCost) {
+                        solution = currentHandle;
+                        bestCost = current.getCost();
+                    }
+                    found = true;
+                } else {
+                    frontier = this.expand(current, currentHandle, codedProblem, generator, heuristic, arena,
+                        frontier, generated, open);
+                    explored++;
+                }
+                time = System.currentTimeMillis() - begin;
+            }
+            if (bestCost < previousCost) {
+                this.bestSolution = arena.getNode(solution);
+                LOGGER.info(String.format("* Plan of cost %.1f found with weight %.1f in %.2f seconds", bestCost,
+                    weight, time / 1000.0) + "\n");
+            }
+            if (weight <= lastWeight || !found && !interrupted) {
+                break;
+            }
+            weight = Math.max(lastWeight, weight - AnytimeAStar.WEIGHT_STEP);
+        }
+
+        this.setExploredNodes(explored);
+        this.setPendingNodes(arena.getOpenSize());
+        if (this.isExactMemory()) {
+            this.setMemoryUsed(GraphLayout.parseInstance(arena, frontier, open, generated).totalSize());
+        } else {
+            this.setMemoryUsed(arena.getMemoryUsed() + 4L * frontier.length + generated.size() / Byte.SIZE
+                + arena.getOpenSize() * (AbstractStateSpaceSearch.getNodeSize(codedProblem.getFluents().size()) + 4L));
+        }
+        this.setMemoryUsed(this.getMemoryUsed() + AbstractStateSpaceSearch.getCacheMemory(heuristic));
+        this.setSearchingTime(time);
+        return this.bestSolution;
+    }
+
+    /**
+     * Pushes the successors of a node in the open list. A successor is pushed if it was not generated yet in the
+     * current iteration, or if its cost decreased.
+     *
+     * @param current       the node to expand.
+     * @param currentHandle the handle of the state of the node.
+     * @param problem       the problem to solve.
+     * @param generator     the generator of the applicable actions.
+     * @param heuristic     the ESL heuristic.
+     * @param arena         the arena of the states generated.
+     * @param frontier      the pending nodes by handle.
+     * @param generated     the states generated in the current iteration.
+     * @param open          the open list.
+     * @return the pending nodes by handle, grown if new states were stored.
+     */
+    private Node[] expand(final Node current, final int currentHandle, final Problem problem,
+                          final SuccessorGenerator generator, final EslHeuristic heuristic, final StateArena arena,
+                          Node[] frontier, final BitSet generated, final OpenList open) {
+        for (int index : generator.getApplicableActions(current)) {
+            if (!heuristic.isWorth(current, index)) {
+                continue;
+            }
+            final Action op = problem.getActions().get(index);
+            final Node state = new Node(current);
+            this.setCreatedNodes(this.getCreatedNodes() + 1);
+            op.getConditionalEffects().stream().filter(ce -> current.satisfy(ce.getCondition()))
+                .forEach(ce -> state.apply(ce.getEffect()));
+            final double g = current.getCost() + op.getCost().getValue();
+            int handle = arena.find(state);
+            if (handle == -1) {
+                handle = arena.add(state);
+                arena.setHeuristic(handle, heuristic.estimate(state, problem.getGoal()));
+                arena.setCost(handle, Double.POSITIVE_INFINITY);
+                if (handle >= frontier.length) {
+                    frontier = Arrays.copyOf(frontier, 2 * frontier.length);
+                }
+            }
+            final boolean improved = g < arena.getCost(handle);
+            if (improved) {
+                arena.setCost(handle, g);
+                arena.setParent(handle, currentHandle);
+                arena.setAction(handle, index);
+                arena.setDepth(handle, current.getDepth() + 1);
+            }
+            if (arena.isOpen(handle)) {
+                if (improved) {
+                    final Node result = frontier[handle];
+                    result.setCost(g);
+                    result.setAction(index);
+                    result.setDepth(current.getDepth() + 1);
+                    open.decrease(result);
+                }
+            } else if (improved || !generated.get(handle)) {
+                // A state first generated in this iteration is pushed with its best cost so far, a state already
+                // expanded in this iteration is pushed again if its cost decreased
+                final Node result = new Node(arena.getState(handle), null, arena.getAction(handle),
+                    arena.getCost(handle), arena.getDepth(handle), arena.getHeuristic(handle));
+                arena.setOpen(handle, true);
+                generated.set(handle);
+                frontier[handle] = result;
+                open.add(result);
+            }
+        }
+        return frontier;
+    }
+}
@@ -0,0 +1,175 @@
+package esl.search;
+
+import fr.uga.pddl4j.planners.statespace.search.Node;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * This class implements an open list as buckets indexed by the integer value f of the nodes, then by their integer
+ * heuristic h, for the searches of unit cost problems with an integer heuristic and an integer weight.
+ *
+ * <p>Adding a node and removing the node of lowest value take a constant amortized time: the lowest non empty bucket
+ * is only searched upwards from the last one, except when a node of lower value is added. A node whose cost decreases
+ * is added again in the bucket of its new value, and its entry in the bucket of its old value is skipped when it is
+ * reached.</p>
+ */
+final class BucketOpenList implements OpenList {
+
+    /**
+     * The nodes of the same value, by heuristic.
+     */
+    private static final class Level {
+
+        /**
+         * The nodes by heuristic: byHeuristic[h] contains the nodes of heuristic h.
+         */
+        private ArrayDeque<Node>[] byHeuristic;
+
+        /**
+         * The lowest heuristic of a non empty bucket, or a lower heuristic.
+         */
+        private int min;
+
+        /**
+         * The number of entries of the level, skipped entries included.
+         */
+        private int size;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Level() {
+            this.byHeuristic = new ArrayDeque[16];
+            this.min = Integer.MAX_VALUE;
+            this.size = 0;
+        }
+    }
+
+    /**
+     * The weight of the heuristic.
+     */
+    private final double weight;
+
+    /**
+     * The tie-breaking policy.
+     */
+    private final TieBreaking tieBreaking;
+
+    /**
+     * The levels by value: levels[f] contains the nodes of value f.
+     */
+    private Level[] levels;
+
+    /**
+     * The lowest value of a non empty level, or a lower value.
+     */
+    private int min;
+
+    /**
+     * The number of nodes of the open list, skipped entries excluded.
+     */
+    private int size;
+
+    /**
+     * Creates a new empty open list.
+     *
+     * @param weight      the weight of the heuristic. The weight must be an integer.
+     * @param tieBreaking the tie-breaking policy.
+     */
+    BucketOpenList(final double weight, final TieBreaking tieBreaking) {
+        this.weight = weight;
+        this.tieBreaking = tieBreaking;
+        this.levels = new Level[64];
+        this.min = Integer.MAX_VALUE;
+        this.size = 0;
+    }
+
+    @Override
+    public void add(final Node node) {
+        this.push(node);
+        size++;
+    }
+
+    @Override
+    public void decrease(final Node node) {
+        // The entry of the old value is skipped when it is reached
+        this.push(node);
+    }
+
+    @Override
+    public Node poll() {
+        while (size > 0) {
+            while (levels[min] == null || levels[min].size == 0) {
+                min++;
+            }
+            final Level level = levels[min];
+            while (level.byHeuristic[level.min] == null || level.byHeuristic[level.min].isEmpty()) {
+                level.min++;
+            }
+            final ArrayDeque<Node> bucket = level.byHeuristic[level.min];
+            final Node node = tieBreaking == TieBreaking.LOW_H_LIFO ? bucket.pollLast() : bucket.pollFirst();
+            level.size--;
+            if (this.getValue(node) == min && this.getHeuristic(node) == level.min) {
+                size--;
+                return node;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an entry for a node in the bucket of its value and heuristic.
+     *
+     * @param node the node.
+     */
+    private void push(final Node node) {
+        final int f = this.getValue(node);
+        final int h = this.getHeuristic(node);
+        if (f >= levels.length) {
+            levels = Arrays.copyOf(levels, Math.max(2 * levels.length, f + 1));
+        }
+        if (levels[f] == null) {
+            levels[f] = new Level();
+        }
+        final Level level = levels[f];
+        if (h >= level.byHeuristic.length) {
+            level.byHeuristic = Arrays.copyOf(level.byHeuristic, Math.max(2 * level.byHeuristic.length, h + 1));
+        }
+        if (level.byHeuristic[h] == null) {
+            level.byHeuristic[h] = new ArrayDeque<>();
+        }
+        level.byHeuristic[h].addLast(node);
+        level.size++;
+        level.min = Math.min(level.min, h);
+        min = Math.min(min, f);
+    }
+
+    /**
+     * Returns the integer value f = g + w * h of a node.
+     *
+     * @param node the node.
+     * @return the value of the node.
+     * @throws IllegalArgumentException if the value of the node is not a non negative integer.
+     */
+    private int getValue(final Node node) {
+        final double f = node.getValueF(weight);
+        if (f != Math.rint(f) || f < 0) {
+            throw new IllegalArgumentException("bucket open list needs non negative integer values: " + f);
+        }
+        return (int) f;
+    }
+
+    /**
+     * Returns the bucket heuristic of a node: its integer heuristic, or 0 if the ties are not broken on the heuristic.
+     *
+     * @param node the node.
+     * @return the bucket heuristic of the node.
+     */
+    private int getHeuristic(final Node node) {
+        return tieBreaking == TieBreaking.FIFO ? 0 : (int) node.getHeuristic();
+    }
+}
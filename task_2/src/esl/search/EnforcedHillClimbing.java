@@ -20,6 +20,7 @@
 package esl.search;
 
 import esl.heuristic.EslHeuristic;
+import esl.heuristic.EstimateComponents;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
 import fr.uga.pddl4j.planners.statespace.search.Node;
 import fr.uga.pddl4j.problem.Problem;
@@ -27,12 +28,29 @@ import fr.uga.pddl4j.problem.State;
 import fr.uga.pddl4j.problem.operator.Action;
 import org.openjdk.jol.info.GraphLayout;
 
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.IntPredicate;
 
 /**
  * This class implements Enforced Hill Climbing search strategy.
  *
+ * <p>If the helpful actions are enabled, a node is expanded first with its helpful actions, the actions adding a goal
+ * of the first layer of its relaxed plan, as in FF. Its other actions are applied only if none of its helpful
+ * successors is better than the best node, i.e., on a plateau, so that the search stays complete. Since the search
+ * keeps no closed set across the plateaus, restricting the plateaus to the helpful actions, as FF does, could loop
+ * forever.</p>
+ *
+ * <p>The states generated since the last best node are packed in a {@link StateArena}, so that the breadth-first search
+ * of a plateau never generates a state twice, e.g., through the hold/release or fill/unfill cycles. When the plateau of
+ * the best node is exhausted, the best node is a dead end: its state is never generated again and the search restarts
+ * from the previous best node, up to {@link #getRestarts()} times before failing.</p>
+ *
  * @author Samuel Aaron Boyd
  * @author E. Hermellin
  * @version 2.0 - 24.01.2018
@@ -68,26 +86,83 @@ public final class EnforcedHillClimbing extends AbstractStateSpaceSearch {
         Objects.requireNonNull(codedProblem);
         final long begin = System.currentTimeMillis();
 
-        final StateHeuristic heuristic = StateHeuristic.getInstance(this.getHeuristic(), codedProblem);
+        // The base heuristic is the one of the ESL heuristic, so that its values are cached
         final EslHeuristic my_heuristic= EslHeuristic.getInstance(codedProblem,this.getHeuristic());
+        my_heuristic.setEvaluation(this.getEvaluation());
+        my_heuristic.setEstimate(this.getEstimate());
+        my_heuristic.setCache(this.getCacheSize(), this.getCacheEviction());
 
+        // Enumerates only the actions applicable in the expanded nodes
+        final SuccessorGenerator generator = new SuccessorGenerator(codedProblem);
         final LinkedList<Node> openList = new LinkedList<>();
         final long timeout = this.getTimeout() * 1000;
         State init = new State(codedProblem.getInitialState());
-        Node root = new Node(init, null, 0, 0, heuristic.estimate(init, codedProblem.getGoal()));
+        Node root = new Node(init, null, 0, 0, my_heuristic.estimateBase(init, codedProblem.getGoal()));
         openList.add(root);
+        // With the incremental evaluation, the components of the ESL estimate of the nodes in the open list are kept
+        // to update the estimate of their successors
+        final Map<Node, EstimateComponents> components = new IdentityHashMap<>();
+        if (this.isIncremental()) {
+            components.put(root, my_heuristic.getComponents(init));
+        }
+
+        final HelpfulActions helpfulActions = this.isHelpfulActions() ? new HelpfulActions(codedProblem) : null;
+
+        // bests holds the successive best nodes, the last one first, visited the states generated on the plateau of
+        // the last best node and deadEnds the best nodes whose plateau was exhausted
+        final int fluents = codedProblem.getFluents().size();
+        final Deque<Node> bests = new ArrayDeque<>();
+        bests.push(root);
+        StateArena visited = new StateArena(fluents);
+        visited.add(root);
+        final StateArena deadEnds = new StateArena(fluents);
+        int restarts = 0;
 
         double bestHeuristic = root.getHeuristic();
+        // The nodes kept by the search are the path to the best node and the nodes created since it was found
+        int bestDepth = 0;
+        int createdAtBest = 0;
 
         Node solution = null;
-        boolean deadEndFree = true;
 
         this.resetNodesStatistics();
         long searchingTime = 0;
-        while (!openList.isEmpty() && solution == null && deadEndFree && searchingTime < timeout) {
+        while (solution == null && searchingTime < timeout && !this.isCancelled()) {
+            if (openList.isEmpty()) {
+                // The plateau of the best node is exhausted: the search restarts from the previous best node
+                if (bests.size() == 1 || restarts == this.getRestarts()) {
+                    break;
+                }
+                deadEnds.add(bests.pop());
+                final Node best = bests.peek();
+                restarts++;
+                visited = new StateArena(fluents);
+                visited.add(best);
+                openList.add(best);
+                if (this.isIncremental()) {
+                    components.put(best, my_heuristic.getComponents(best));
+                }
+                bestHeuristic = best.getHeuristic();
+                bestDepth = best.getDepth();
+                createdAtBest = this.getCreatedNodes();
+            }
             final Node currentState = openList.pop();
-            final LinkedList<Node> successors = getSuccessors(currentState, codedProblem, heuristic,my_heuristic);
-            deadEndFree = !successors.isEmpty();
+            final EstimateComponents currentComponents = components.remove(currentState);
+            final LinkedList<Node> successors;
+            if (helpfulActions == null) {
+                successors = getSuccessors(currentState, currentComponents, codedProblem, generator,
+                    my_heuristic, components, visited, deadEnds, index -> true);
+            } else {
+                final BitSet helpful = helpfulActions.getHelpfulActions(currentState);
+                successors = getSuccessors(currentState, currentComponents, codedProblem, generator,
+                    my_heuristic, components, visited, deadEnds, helpful::get);
+                final double bestSoFar = bestHeuristic;
+                if (successors.stream().noneMatch(successor -> successor.getHeuristic() < bestSoFar)) {
+                    // A plateau: the other actions are applied too
+                    successors.addAll(getSuccessors(currentState, currentComponents, codedProblem, generator,
+                        my_heuristic, components, visited, deadEnds, index -> !helpful.get(index)));
+                }
+            }
 
             while (!successors.isEmpty() && solution == null) {
                 final Node successor = successors.pop();
@@ -97,9 +172,19 @@ public final class EnforcedHillClimbing extends AbstractStateSpaceSearch {
                     solution = successor;
                 }
                 if (heuristicSuccessor < bestHeuristic) {
+                    final EstimateComponents successorComponents = components.get(successor);
                     successors.clear();
                     openList.clear();
+                    components.clear();
+                    if (successorComponents != null) {
+                        components.put(successor, successorComponents);
+                    }
                     bestHeuristic = heuristicSuccessor;
+                    bests.push(successor);
+                    visited = new StateArena(fluents);
+                    visited.add(successor);
+                    bestDepth = successor.getDepth();
+                    createdAtBest = this.getCreatedNodes();
                 }
                 openList.addLast(successor);
             }
@@ -109,7 +194,15 @@ public final class EnforcedHillClimbing extends AbstractStateSpaceSearch {
             searchingTime = end - begin;
         }
 
-        this.setMemoryUsed(GraphLayout.parseInstance(openList).totalSize());
+        if (this.isExactMemory()) {
+            this.setMemoryUsed(GraphLayout.parseInstance(openList, visited, deadEnds).totalSize());
+        } else {
+            // A node in the open list also costs a list entry: header, item, next and previous references
+            this.setMemoryUsed((bestDepth + this.getCreatedNodes() - createdAtBest)
+                * AbstractStateSpaceSearch.getNodeSize(fluents) + 24L * openList.size() + visited.getMemoryUsed()
+                + deadEnds.getMemoryUsed());
+        }
+        this.setMemoryUsed(this.getMemoryUsed() + AbstractStateSpaceSearch.getCacheMemory(my_heuristic));
         this.setSearchingTime(searchingTime);
 
         return solution;
@@ -119,36 +212,59 @@ public final class EnforcedHillClimbing extends AbstractStateSpaceSearch {
      * Get the successors from a node.
      *
      * @param parent    the parent node.
+     * @param parentComponents the components of the ESL estimate of the parent node, null if they are not known.
      * @param problem   the coded problem to solve.
-     * @param heuristic the heuristic used.
+     * @param generator the generator of the actions applicable in the parent node.
+     * @param my_heuristic the ESL heuristic used, with its base heuristic.
+     * @param components the map where the components of the ESL estimate of the successors are stored, when the
+     *                   evaluation is incremental.
+     * @param visited   the states generated on the plateau, where the new successors are added.
+     * @param deadEnds  the states of the dead ends, never generated again.
+     * @param filter    the filter of the actions to apply.
      * @return the list of successors from the parent node.
      */
-    private LinkedList<Node> getSuccessors(Node parent, Problem problem, StateHeuristic heuristic,EslHeuristic my_heuristic) {
+    private LinkedList<Node> getSuccessors(Node parent, EstimateComponents parentComponents, Problem problem,
+                                           SuccessorGenerator generator, EslHeuristic my_heuristic,
+                                           Map<Node, EstimateComponents> components, StateArena visited,
+                                           StateArena deadEnds, IntPredicate filter) {
+        final boolean incremental = this.isIncremental();
         final LinkedList<Node> successors = new LinkedList<>();
 
-        int index = 0;
-        for (Action op : problem.getActions() ) {
-            // Test if a specified operator is applicable in the current state
-            if (op.isApplicable(parent) && my_heuristic.isWorth(parent, op)) {
+        for (int index : generator.getApplicableActions(parent)) {
+            if (!filter.test(index)) {
+                continue;
+            }
+            final Action op = problem.getActions().get(index);
+            // Test if the applicable operator is worth to be applied in the current state
+            if (my_heuristic.isWorth(parent, index)) {
                 final State nextState = new State(parent);
                 op.getConditionalEffects().stream().filter(ce -> parent.satisfy(ce.getCondition())).forEach(ce ->
                         // Apply the effect to the successor node
                         nextState.apply(ce.getEffect())
                 );
+                this.setCreatedNodes(this.getCreatedNodes() + 1);
+                // The states already generated on the plateau and the dead ends are not generated again
+                if (visited.find(nextState) != -1 || deadEnds.find(nextState) != -1) {
+                    continue;
+                }
+                visited.add(nextState);
                 // Apply the effect of the applicable operator
                 final Node successor = new Node(nextState);
-                this.setCreatedNodes(this.getCreatedNodes() + 1);
                 successor.setCost(parent.getCost() + op.getCost().getValue());
                 successor.setParent(parent);
                 successor.setAction(index);
                 successor.setDepth(parent.getDepth() + 1);
+                final EstimateComponents successorComponents = incremental
+                    ? my_heuristic.getComponents(successor, parent, parentComponents, op) : null;
                 successor.setHeuristic(
-                        heuristic.estimate(successor, problem.getGoal())+
-                                my_heuristic.estimate(successor,problem.getGoal())
+                        my_heuristic.estimateBase(successor, problem.getGoal())+
+                                my_heuristic.estimate(successor,problem.getGoal(),successorComponents)
                 );
+                if (incremental) {
+                    components.put(successor, successorComponents);
+                }
                 successors.add(successor);
             }
-            index++;
         }
 
         return successors;
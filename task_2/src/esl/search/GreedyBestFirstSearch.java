@@ -0,0 +1,155 @@
+package esl.search;
+
+import esl.heuristic.EslHeuristic;
+import esl.heuristic.EstimateComponents;
+import fr.uga.pddl4j.heuristics.state.StateHeuristic;
+import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * This class implements Greedy Best First search strategy.
+ *
+ * <p>The pending nodes are expanded in the order of their heuristic alone, the cost breaking the ties, and the search
+ * stops as soon as a goal state is generated. The states explored or pending are packed in a {@link StateArena} that
+ * acts as the closed set: a state is never generated twice, even with a lower cost. The plans found are longer than
+ * the plans of {@link AStar}, but far fewer nodes are expanded on the large problems.</p>
+ */
+public final class GreedyBestFirstSearch extends AbstractStateSpaceSearch {
+
+    /**
+     * Creates a new Greedy Best First search strategy with default parameters.
+     */
+    public GreedyBestFirstSearch() {
+        super();
+    }
+
+    /**
+     * Creates a new Greedy Best First search strategy.
+     *
+     * @param timeout   the time out of the planner.
+     * @param heuristic the heuristic to use to solve the planning problem.
+     * @param weight    the weight set to the heuristic, unused since the nodes are ordered by their heuristic alone.
+     */
+    public GreedyBestFirstSearch(int timeout, StateHeuristic.Name heuristic, double weight) {
+        super(timeout, heuristic, weight);
+    }
+
+    /**
+     * Solves the planning problem and returns the first solution search found.
+     *
+     * @param codedProblem the problem to be solved. The problem cannot be null.
+     * @return a solution search or null if it does not exist.
+     */
+    public Node search(final Problem codedProblem) {
+        Objects.requireNonNull(codedProblem);
+        final long begin = System.currentTimeMillis();
+
+        final EslHeuristic heuristic = EslHeuristic.getInstance(codedProblem, this.getHeuristic());
+        heuristic.setEvaluation(this.getEvaluation());
+        heuristic.setEstimate(this.getEstimate());
+        heuristic.setCache(this.getCacheSize(), this.getCacheEviction());
+        final SuccessorGenerator generator = new SuccessorGenerator(codedProblem);
+        final State init = new State(codedProblem.getInitialState());
+        // The states explored or pending are packed in the arena, frontier[h] being the pending node of the state of
+        // handle h
+        final StateArena arena = new StateArena(codedProblem.getFluents().size());
+        Node[] frontier = new Node[1024];
+        final PriorityQueue<Node> open = new PriorityQueue<>(100,
+            Comparator.comparingDouble(Node::getHeuristic).thenComparingDouble(Node::getCost));
+        // With the incremental evaluation, the components of the estimate of the pending nodes are kept to update
+        // the estimate of their successors
+        final boolean incremental = this.isIncremental();
+        final Map<Node, EstimateComponents> components = new IdentityHashMap<>();
+        final EstimateComponents rootComponents = incremental ? heuristic.getComponents(init) : null;
+        final Node root = new Node(init, null, -1, 0,
+            heuristic.estimate(init, codedProblem.getGoal(), rootComponents));
+        final int rootHandle = arena.add(root);
+        arena.setHeuristic(rootHandle, root.getHeuristic());
+
+        this.resetNodesStatistics();
+        int solution = -1;
+        if (root.satisfy(codedProblem.getGoal())) {
+            solution = rootHandle;
+        } else {
+            arena.setOpen(rootHandle, true);
+            frontier[rootHandle] = root;
+            open.add(root);
+            if (incremental) {
+                components.put(root, rootComponents);
+            }
+        }
+        final long timeout = this.getTimeout() * 1000L;
+        long time = 0;
+        while (!open.isEmpty() && solution == -1 && time < timeout && !this.isCancelled()) {
+            final Node current = open.poll();
+            final int currentHandle = arena.find(current);
+            arena.setOpen(currentHandle, false);
+            frontier[currentHandle] = null;
+            final EstimateComponents currentComponents = components.remove(current);
+            for (int index : generator.getApplicableActions(current)) {
+                // Test if the applicable operator is worth to be applied in the current state
+                if (!heuristic.isWorth(current, index)) {
+                    continue;
+                }
+                final Action op = codedProblem.getActions().get(index);
+                final Node state = new Node(current);
+                this.setCreatedNodes(this.getCreatedNodes() + 1);
+                op.getConditionalEffects().stream().filter(ce -> current.satisfy(ce.getCondition()))
+                    .forEach(ce -> state.apply(ce.getEffect()));
+                // The states already explored or pending are not generated again
+                if (arena.find(state) != -1) {
+                    continue;
+                }
+                state.setCost(current.getCost() + op.getCost().getValue());
+                state.setAction(index);
+                state.setDepth(current.getDepth() + 1);
+                final int handle = arena.add(state);
+                arena.setCost(handle, state.getCost());
+                arena.setParent(handle, currentHandle);
+                arena.setAction(handle, index);
+                arena.setDepth(handle, state.getDepth());
+                // The goal is tested when the state is generated: no heuristic is computed for the other successors
+                if (state.satisfy(codedProblem.getGoal())) {
+                    solution = handle;
+                    break;
+                }
+                final EstimateComponents stateComponents = incremental
+                    ? heuristic.getComponents(state, current, currentComponents, op) : null;
+                state.setHeuristic(heuristic.estimate(state, codedProblem.getGoal(), stateComponents));
+                arena.setHeuristic(handle, state.getHeuristic());
+                arena.setOpen(handle, true);
+                if (handle >= frontier.length) {
+                    frontier = Arrays.copyOf(frontier, 2 * frontier.length);
+                }
+                frontier[handle] = state;
+                open.add(state);
+                if (incremental) {
+                    components.put(state, stateComponents);
+                }
+            }
+            time = System.currentTimeMillis() - begin;
+        }
+
+        this.setExploredNodes(arena.getClosedSize());
+        this.setPendingNodes(arena.getOpenSize());
+        if (this.isExactMemory()) {
+            this.setMemoryUsed(GraphLayout.parseInstance(arena, frontier, open, components).totalSize());
+        } else {
+            this.setMemoryUsed(arena.getMemoryUsed() + 4L * frontier.length + arena.getOpenSize()
+                * (AbstractStateSpaceSearch.getNodeSize(codedProblem.getFluents().size()) + 4L));
+        }
+        this.setMemoryUsed(this.getMemoryUsed() + AbstractStateSpaceSearch.getCacheMemory(heuristic));
+        this.setSearchingTime(time);
+        return solution == -1 ? null : arena.getNode(solution);
+    }
+}
@@ -0,0 +1,49 @@
+package esl.search;
+
+import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.planners.statespace.search.NodeComparator;
+
+import java.util.PriorityQueue;
+
+/**
+ * This class implements an open list as a binary heap ordered by the {@link NodeComparator} of PDDL4J.
+ *
+ * <p>As with the {@link PriorityQueue} used directly by the searches, a node whose cost decreases keeps its position
+ * in the heap: {@link #decrease(Node)} does nothing, so that the order of the expansions does not change.</p>
+ */
+final class HeapOpenList implements OpenList {
+
+    /**
+     * The heap of the nodes.
+     */
+    private final PriorityQueue<Node> heap;
+
+    /**
+     * Creates a new empty open list.
+     *
+     * @param weight the weight of the heuristic.
+     */
+    HeapOpenList(final double weight) {
+        this.heap = new PriorityQueue<>(100, new NodeComparator(weight));
+    }
+
+    @Override
+    public void add(final Node node) {
+        heap.add(node);
+    }
+
+    @Override
+    public void decrease(final Node node) {
+        // The node keeps its position
+    }
+
+    @Override
+    public Node poll() {
+        return heap.poll();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+}
@@ -0,0 +1,303 @@
+package esl.search;
+
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.problem.operator.ConditionalEffect;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * This class computes the helpful actions of a state, as in FF: the actions applicable in the state that add a goal of
+ * the first layer of a relaxed plan from the state.
+ *
+ * <p>The relaxed planning graph ignores the negative preconditions and the delete effects. Each conditional effect of
+ * an action is a relaxed operator whose preconditions are the positive preconditions of the action and the positive
+ * condition of the effect. The graph is built layer by layer by counting the unsatisfied preconditions of the
+ * operators, then a relaxed plan is extracted backwards, choosing for each goal the achiever of the previous layer
+ * with the lowest difficulty, i.e., the lowest sum of the levels of its preconditions.</p>
+ *
+ * <p>The relaxed planning graph of PDDL4J that {@code EslHeuristic} inherits keeps the levels and the achievers in
+ * private fields and does not extract the actions of the relaxed plan, hence this separate graph, built from the same
+ * relaxation.</p>
+ */
+public final class HelpfulActions {
+
+    /**
+     * The level of a fluent or an operator not reached.
+     */
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    /**
+     * The action of each relaxed operator.
+     */
+    private final int[] actions;
+
+    /**
+     * The positive preconditions of each relaxed operator.
+     */
+    private final int[][] preconditions;
+
+    /**
+     * The positive effects of each relaxed operator.
+     */
+    private final int[][] effects;
+
+    /**
+     * The relaxed operators having each fluent as precondition.
+     */
+    private final int[][] consumers;
+
+    /**
+     * The relaxed operators having each fluent as effect.
+     */
+    private final int[][] achievers;
+
+    /**
+     * The relaxed operators without precondition.
+     */
+    private final int[] unconditioned;
+
+    /**
+     * The positive fluents of the goal.
+     */
+    private final int[] goal;
+
+    /**
+     * The level of the fluents in the last graph built.
+     */
+    private final int[] fluentLevels;
+
+    /**
+     * The level of the relaxed operators in the last graph built.
+     */
+    private final int[] operatorLevels;
+
+    /**
+     * The number of unsatisfied preconditions of the relaxed operators in the last graph built.
+     */
+    private final int[] counters;
+
+    /**
+     * Creates the relaxed operators of a problem.
+     *
+     * @param problem the problem. The problem must be instantiated.
+     */
+    public HelpfulActions(final Problem problem) {
+        final List<int[]> pres = new ArrayList<>();
+        final List<int[]> adds = new ArrayList<>();
+        final List<Integer> owners = new ArrayList<>();
+        final List<Action> ops = problem.getActions();
+        for (int a = 0; a < ops.size(); a++) {
+            final BitVector pre = ops.get(a).getPrecondition().getPositiveFluents();
+            for (ConditionalEffect ce : ops.get(a).getConditionalEffects()) {
+                final BitVector condition = (BitVector) pre.clone();
+                condition.or(ce.getCondition().getPositiveFluents());
+                final BitVector add = ce.getEffect().getPositiveFluents();
+                if (!add.isEmpty()) {
+                    pres.add(condition.stream().toArray());
+                    adds.add(add.stream().toArray());
+                    owners.add(a);
+                }
+            }
+        }
+        final int fluents = problem.getFluents().size();
+        this.actions = owners.stream().mapToInt(Integer::intValue).toArray();
+        this.preconditions = pres.toArray(new int[0][]);
+        this.effects = adds.toArray(new int[0][]);
+        this.consumers = HelpfulActions.invert(preconditions, fluents);
+        this.achievers = HelpfulActions.invert(effects, fluents);
+        this.unconditioned = IntStream.range(0, actions.length)
+            .filter(op -> preconditions[op].length == 0).toArray();
+        this.goal = problem.getGoal().getPositiveFluents().stream().toArray();
+        this.fluentLevels = new int[fluents];
+        this.operatorLevels = new int[actions.length];
+        this.counters = new int[actions.length];
+    }
+
+    /**
+     * Returns the helpful actions of a state. If the goal cannot be reached from the state in the relaxed problem, no
+     * action is helpful.
+     *
+     * @param state the state.
+     * @return the indexes of the helpful actions of the state.
+     */
+    public BitSet getHelpfulActions(final State state) {
+        final int depth = this.expand(state);
+        final BitSet helpful = new BitSet();
+        if (depth == UNREACHED) {
+            return helpful;
+        }
+        // goals[i] contains the goals of level i of the relaxed plan, marked records the fluents already a goal and
+        // achieved[i] the fluents true at the level i because they are added by an operator of the relaxed plan
+        final List<List<Integer>> goals = new ArrayList<>();
+        final List<BitSet> achieved = new ArrayList<>();
+        for (int i = 0; i <= depth; i++) {
+            goals.add(new ArrayList<>());
+            achieved.add(new BitSet());
+        }
+        final BitSet marked = new BitSet();
+        for (int f : goal) {
+            if (fluentLevels[f] > 0 && !marked.get(f)) {
+                marked.set(f);
+                goals.get(fluentLevels[f]).add(f);
+            }
+        }
+        for (int i = depth; i > 0; i--) {
+            for (int g : goals.get(i)) {
+                if (achieved.get(i).get(g)) {
+                    continue;
+                }
+                final int op = this.getEasiestAchiever(g, i - 1);
+                if (i == 1) {
+                    helpful.set(actions[op]);
+                }
+                for (int p : preconditions[op]) {
+                    if (fluentLevels[p] > 0 && !marked.get(p) && !achieved.get(i - 1).get(p)) {
+                        marked.set(p);
+                        goals.get(fluentLevels[p]).add(p);
+                    }
+                }
+                for (int e : effects[op]) {
+                    achieved.get(i).set(e);
+                    achieved.get(i - 1).set(e);
+                }
+            }
+        }
+        // As in FF, the other operators of the first layer achieving a goal of the first layer are helpful too
+        for (int g : goals.get(1)) {
+            for (int op : achievers[g]) {
+                if (operatorLevels[op] == 0) {
+                    helpful.set(actions[op]);
+                }
+            }
+        }
+        return helpful;
+    }
+
+    /**
+     * Builds the relaxed planning graph of a state until all the fluents of the goal are reached.
+     *
+     * @param state the state.
+     * @return the level of the goal or UNREACHED if the goal cannot be reached.
+     */
+    private int expand(final State state) {
+        Arrays.fill(fluentLevels, UNREACHED);
+        Arrays.fill(operatorLevels, UNREACHED);
+        for (int op = 0; op < counters.length; op++) {
+            counters[op] = preconditions[op].length;
+        }
+        int[] layer = new int[16];
+        int size = 0;
+        for (int f = state.nextSetBit(0); f >= 0; f = state.nextSetBit(f + 1)) {
+            fluentLevels[f] = 0;
+            layer = size < layer.length ? layer : Arrays.copyOf(layer, 2 * layer.length);
+            layer[size++] = f;
+        }
+        int level = 0;
+        int[] scheduled = unconditioned.clone();
+        int nbScheduled = scheduled.length;
+        while (!this.isGoalReached(level)) {
+            // The operators whose last precondition was reached in this layer are applicable at this level
+            for (int i = 0; i < size; i++) {
+                for (int op : consumers[layer[i]]) {
+                    if (--counters[op] == 0) {
+                        scheduled = nbScheduled < scheduled.length ? scheduled
+                            : Arrays.copyOf(scheduled, Math.max(16, 2 * scheduled.length));
+                        scheduled[nbScheduled++] = op;
+                    }
+                }
+            }
+            size = 0;
+            for (int i = 0; i < nbScheduled; i++) {
+                final int op = scheduled[i];
+                operatorLevels[op] = level;
+                for (int f : effects[op]) {
+                    if (fluentLevels[f] == UNREACHED) {
+                        fluentLevels[f] = level + 1;
+                        layer = size < layer.length ? layer : Arrays.copyOf(layer, 2 * layer.length);
+                        layer[size++] = f;
+                    }
+                }
+            }
+            nbScheduled = 0;
+            if (size == 0) {
+                return UNREACHED;
+            }
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Returns if all the fluents of the goal are reached at a level.
+     *
+     * @param level the level.
+     * @return <code>true</code> if the goal is reached <code>false</code> otherwise.
+     */
+    private boolean isGoalReached(final int level) {
+        for (int f : goal) {
+            if (fluentLevels[f] > level) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the achiever of a fluent applicable at a level whose preconditions have the lowest sum of levels.
+     *
+     * @param fluent the fluent.
+     * @param level  the level of the achiever.
+     * @return the achiever.
+     */
+    private int getEasiestAchiever(final int fluent, final int level) {
+        int best = -1;
+        int bestDifficulty = Integer.MAX_VALUE;
+        for (int op : achievers[fluent]) {
+            if (operatorLevels[op] == level) {
+                int difficulty = 0;
+                for (int p : preconditions[op]) {
+                    difficulty += fluentLevels[p];
+                }
+                if (difficulty < bestDifficulty) {
+                    best = op;
+                    bestDifficulty = difficulty;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Inverts a relation from the operators to the fluents.
+     *
+     * @param relation the fluents of each operator.
+     * @param fluents  the number of fluents.
+     * @return the operators of each fluent.
+     */
+    private static int[][] invert(final int[][] relation, final int fluents) {
+        final int[] sizes = new int[fluents];
+        for (int[] row : relation) {
+            for (int f : row) {
+                sizes[f]++;
+            }
+        }
+        final int[][] inverse = new int[fluents][];
+        for (int f = 0; f < fluents; f++) {
+            inverse[f] = new int[sizes[f]];
+        }
+        Arrays.fill(sizes, 0);
+        for (int op = 0; op < relation.length; op++) {
+            for (int f : relation[op]) {
+                inverse[f][sizes[f]++] = op;
+            }
+        }
+        return inverse;
+    }
+}
@@ -0,0 +1,190 @@
+package esl.search;
+
+import esl.heuristic.EslHeuristic;
+import fr.uga.pddl4j.heuristics.state.StateHeuristic;
+import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * This class implements A* search strategy with deferred heuristic evaluation.
+ *
+ * <p>The successors of a node are pushed in the open list with the heuristic value of their parent and their own
+ * heuristic is computed only when they are popped. A node whose value increases with its own heuristic is pushed back,
+ * the others are expanded at once. Since most of the generated nodes are never popped, the heuristic is computed about
+ * branching factor times less often than with {@link AStar}, at the price of a less informed order of the open list.
+ * The heuristic being evaluated one node at a time, the evaluation is never incremental nor parallel.</p>
+ */
+public final class LazyAStar extends AbstractStateSpaceSearch {
+
+    /**
+     * Creates a new LazyAStar search strategy with default parameters.
+     */
+    public LazyAStar() {
+        super();
+    }
+
+    /**
+     * Creates a new LazyAStar search strategy.
+     *
+     * @param timeout   the time out of the planner.
+     * @param heuristic the heuristic to use to solve the planning problem.
+     * @param weight    the weight set to the heuristic.
+     */
+    public LazyAStar(int timeout, StateHeuristic.Name heuristic, double weight) {
+        super(timeout, heuristic, weight);
+    }
+
+    /**
+     * Solves the planning problem and returns the first solution search found.
+     *
+     * @param codedProblem the problem to be solved. The problem cannot be null.
+     * @return a solution search or null if it does not exist.
+     */
+    public Node search(final Problem codedProblem) {
+        Objects.requireNonNull(codedProblem);
+        final long begin = System.currentTimeMillis();
+
+        final EslHeuristic heuristic = EslHeuristic.getInstance(codedProblem, this.getHeuristic());
+        // Without the components of the parent, the incremental evaluation falls back to the bitset one
+        heuristic.setEvaluation(this.getEvaluation());
+        heuristic.setEstimate(this.getEstimate());
+        heuristic.setCache(this.getCacheSize(), this.getCacheEviction());
+        final SuccessorGenerator generator = new SuccessorGenerator(codedProblem);
+        final State init = new State(codedProblem.getInitialState());
+        // The states explored or pending are packed in the arena, frontier[h] being the pending node of the state of
+        // handle h, and evaluated[h] telling if the heuristic of the state of handle h was computed
+        final StateArena arena = new StateArena(codedProblem.getFluents().size());
+        Node[] frontier = new Node[1024];
+        final BitSet evaluated = new BitSet();
+        final double weight = this.getWeight();
+        final OpenList open = OpenList.getInstance(this.getOpenList(), weight, this.getTieBreaking());
+        final Node root = new Node(init, null, -1, 0, heuristic.estimate(init, codedProblem.getGoal()));
+        final int rootHandle = arena.add(root);
+        arena.setHeuristic(rootHandle, root.getHeuristic());
+        arena.setOpen(rootHandle, true);
+        evaluated.set(rootHandle);
+        frontier[rootHandle] = root;
+        open.add(root);
+
+        this.resetNodesStatistics();
+        int solution = -1;
+        final long timeout = this.getTimeout() * 1000L;
+        long time = 0;
+        while (!open.isEmpty() && solution == -1 && time < timeout && !this.isCancelled()) {
+            final Node current = open.poll();
+            final int currentHandle = arena.find(current);
+            if (current.satisfy(codedProblem.getGoal())) {
+                arena.setOpen(currentHandle, false);
+                frontier[currentHandle] = null;
+                solution = currentHandle;
+            } else if (!evaluated.get(currentHandle)) {
+                // The node was pushed with the heuristic of its parent: its own heuristic is computed now, and the
+                // node goes back to the open list if it is not the best one anymore
+                final double value = current.getValueF(weight);
+                current.setHeuristic(heuristic.estimate(current, codedProblem.getGoal()));
+                arena.setHeuristic(currentHandle, current.getHeuristic());
+                evaluated.set(currentHandle);
+                if (current.getValueF(weight) > value) {
+                    open.add(current);
+                } else {
+                    frontier = this.expand(current, currentHandle, codedProblem, generator, heuristic, arena,
+                        frontier, open);
+                }
+            } else {
+                frontier = this.expand(current, currentHandle, codedProblem, generator, heuristic, arena, frontier,
+                    open);
+            }
+            time = System.currentTimeMillis() - begin;
+        }
+
+        this.setExploredNodes(arena.getClosedSize());
+        this.setPendingNodes(arena.getOpenSize());
+        if (this.isExactMemory()) {
+            this.setMemoryUsed(GraphLayout.parseInstance(arena, frontier, open, evaluated).totalSize());
+        } else {
+            this.setMemoryUsed(arena.getMemoryUsed() + 4L * frontier.length + evaluated.size() / Byte.SIZE
+                + arena.getOpenSize() * (AbstractStateSpaceSearch.getNodeSize(codedProblem.getFluents().size()) + 4L));
+        }
+        this.setMemoryUsed(this.getMemoryUsed() + AbstractStateSpaceSearch.getCacheMemory(heuristic));
+        this.setSearchingTime(time);
+        return solution == -1 ? null : arena.getNode(solution);
+    }
+
+    /**
+     * Closes a node and pushes its successors in the open list, without computing their heuristic.
+     *
+     * @param current       the node to expand.
+     * @param currentHandle the handle of the state of the node.
+     * @param problem       the problem to solve.
+     * @param generator     the generator of the applicable actions.
+     * @param heuristic     the ESL heuristic, used to prune the actions not worth to be applied.
+     * @param arena         the arena of the states explored or pending.
+     * @param frontier      the pending nodes by handle.
+     * @param open          the open list.
+     * @return the pending nodes by handle, grown if new states were stored.
+     */
+    private Node[] expand(final Node current, final int currentHandle, final Problem problem,
+                          final SuccessorGenerator generator, final EslHeuristic heuristic, final StateArena arena,
+                          Node[] frontier, final OpenList open) {
+        arena.setOpen(currentHandle, false);
+        frontier[currentHandle] = null;
+        for (int index : generator.getApplicableActions(current)) {
+            if (!heuristic.isWorth(current, index)) {
+                continue;
+            }
+            final Action op = problem.getActions().get(index);
+            final Node state = new Node(current);
+            this.setCreatedNodes(this.getCreatedNodes() + 1);
+            op.getConditionalEffects().stream().filter(ce -> current.satisfy(ce.getCondition()))
+                .forEach(ce -> state.apply(ce.getEffect()));
+            final double g = current.getCost() + op.getCost().getValue();
+            final int depth = current.getDepth() + 1;
+            final int handle = arena.find(state);
+            if (handle == -1) {
+                // Pushed with the heuristic of its parent
+                state.setCost(g);
+                state.setAction(index);
+                state.setDepth(depth);
+                state.setHeuristic(current.getHeuristic());
+                final int stateHandle = arena.add(state);
+                arena.setCost(stateHandle, g);
+                arena.setParent(stateHandle, currentHandle);
+                arena.setAction(stateHandle, index);
+                arena.setDepth(stateHandle, depth);
+                arena.setHeuristic(stateHandle, current.getHeuristic());
+                arena.setOpen(stateHandle, true);
+                if (stateHandle >= frontier.length) {
+                    frontier = Arrays.copyOf(frontier, 2 * frontier.length);
+                }
+                frontier[stateHandle] = state;
+                open.add(state);
+            } else if (g < arena.getCost(handle)) {
+                arena.setCost(handle, g);
+                arena.setParent(handle, currentHandle);
+                arena.setAction(handle, index);
+                arena.setDepth(handle, depth);
+                if (arena.isOpen(handle)) {
+                    final Node result = frontier[handle];
+                    result.setCost(g);
+                    result.setAction(index);
+                    result.setDepth(depth);
+                    open.decrease(result);
+                } else {
+                    final Node result = new Node(arena.getState(handle), null, index, g, depth,
+                        arena.getHeuristic(handle));
+                    arena.setOpen(handle, true);
+                    frontier[handle] = result;
+                    open.add(result);
+                }
+            }
+        }
+        return frontier;
+    }
+}
@@ -0,0 +1,93 @@
+package esl.search;
+
+import fr.uga.pddl4j.planners.statespace.search.Node;
+
+/**
+ * This interface defines the open list of the A* search strategies: the pending nodes ordered by their value
+ * f = g + w * h.
+ */
+public interface OpenList {
+
+    /**
+     * The implementations of the open list: HEAP is a binary heap, BUCKET an array of buckets indexed by the integer
+     * value of the nodes.
+     */
+    enum Type {
+        HEAP,
+        BUCKET
+    }
+
+    /**
+     * The policies to break the ties between the nodes of same value in a bucket open list: LOW_H_LIFO and LOW_H_FIFO
+     * prefer the nodes with the lowest heuristic, then the last, respectively the first, node added. FIFO prefers the
+     * first node added, whatever its heuristic.
+     */
+    enum TieBreaking {
+        LOW_H_LIFO,
+        LOW_H_FIFO,
+        FIFO
+    }
+
+    /**
+     * The default implementation of the open list (HEAP).
+     */
+    static final Type DEFAULT_TYPE = Type.HEAP;
+
+    /**
+     * The default tie-breaking policy (LOW_H_LIFO).
+     */
+    static final TieBreaking DEFAULT_TIE_BREAKING = TieBreaking.LOW_H_LIFO;
+
+    /**
+     * Adds a node to the open list.
+     *
+     * @param node the node to add.
+     */
+    void add(Node node);
+
+    /**
+     * Updates the position of a node of the open list whose cost has decreased.
+     *
+     * @param node the node whose cost has decreased.
+     */
+    void decrease(Node node);
+
+    /**
+     * Removes and returns the node of lowest value.
+     *
+     * @return the node of lowest value or null if the open list is empty.
+     */
+    Node poll();
+
+    /**
+     * Returns the number of nodes in the open list.
+     *
+     * @return the number of nodes in the open list.
+     */
+    int size();
+
+    /**
+     * Returns if the open list is empty.
+     *
+     * @return <code>true</code> if the open list is empty <code>false</code> otherwise.
+     */
+    default boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Returns an open list of a specified type. The bucket open list needs integer values: with a weight that is not
+     * an integer, a heap is returned instead.
+     *
+     * @param type        the type of the open list.
+     * @param weight      the weight of the heuristic.
+     * @param tieBreaking the tie-breaking policy of the bucket open list.
+     * @return the open list.
+     */
+    static OpenList getInstance(final Type type, final double weight, final TieBreaking tieBreaking) {
+        if (type == Type.BUCKET && weight == Math.rint(weight)) {
+            return new BucketOpenList(weight, tieBreaking);
+        }
+        return new HeapOpenList(weight);
+    }
+}
@@ -0,0 +1,437 @@
+package esl.search;
+
+import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.util.BitSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class implements a set of states packed into a contiguous array of words, with the search information of each
+ * state: its cost, its heuristic, its parent, the action leading to it, its depth and whether it is open or closed.
+ *
+ * <p>A state is addressed by an int handle, given in the order of insertion. The states are found back through an
+ * open-addressing hash index with linear probing. A stored state costs its words and a few primitive values, instead
+ * of a {@code Node}, its bitset and the entries of the maps of the search, so that only the nodes of the open frontier
+ * need to be materialized as objects.</p>
+ */
+public final class StateArena {
+
+    /**
+     * The value of the index for an empty slot.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * The initial number of states that can be stored.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The number of words of a state.
+     */
+    private final int width;
+
+    /**
+     * The words of the states: the state h is stored from words[h * width] to words[(h + 1) * width - 1].
+     */
+    private long[] words;
+
+    /**
+     * The hash code of the states.
+     */
+    private int[] hashes;
+
+    /**
+     * The cost of the states.
+     */
+    private double[] costs;
+
+    /**
+     * The heuristic value of the states.
+     */
+    private double[] heuristics;
+
+    /**
+     * The handle of the parent of the states, -1 for the root.
+     */
+    private int[] parents;
+
+    /**
+     * The action leading to the states from their parent, -1 for the root.
+     */
+    private int[] actions;
+
+    /**
+     * The depth of the states.
+     */
+    private int[] depths;
+
+    /**
+     * The open flag of the states.
+     */
+    private boolean[] open;
+
+    /**
+     * The hash index: the handle of a state or EMPTY. The size of the index is a power of two.
+     */
+    private int[] index;
+
+    /**
+     * The number of states stored.
+     */
+    private int size;
+
+    /**
+     * The number of states open.
+     */
+    private int openSize;
+
+    /**
+     * The words of the state looked up, reused from one call to the next.
+     */
+    private final long[] buffer;
+
+    /**
+     * Creates a new empty arena for the states of a problem.
+     *
+     * @param fluents the number of fluents of the problem.
+     */
+    public StateArena(final int fluents) {
+        this.width = Math.max(1, (fluents + Long.SIZE - 1) / Long.SIZE);
+        this.words = new long[INITIAL_CAPACITY * width];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.costs = new double[INITIAL_CAPACITY];
+        this.heuristics = new double[INITIAL_CAPACITY];
+        this.parents = new int[INITIAL_CAPACITY];
+        this.actions = new int[INITIAL_CAPACITY];
+        this.depths = new int[INITIAL_CAPACITY];
+        this.open = new boolean[INITIAL_CAPACITY];
+        this.index = new int[2 * INITIAL_CAPACITY];
+        Arrays.fill(this.index, EMPTY);
+        this.buffer = new long[width];
+        this.size = 0;
+        this.openSize = 0;
+    }
+
+    /**
+     * Returns the handle of a state or -1 if the state is not stored.
+     *
+     * @param state the state.
+     * @return the handle of the state or -1 if the state is not stored.
+     */
+    public int find(final BitSet state) {
+        this.pack(state);
+        final int hash = this.hash(buffer);
+        final int mask = index.length - 1;
+        for (int slot = hash & mask; index[slot] != EMPTY; slot = (slot + 1) & mask) {
+            final int handle = index[slot];
+            if (hashes[handle] == hash && this.matches(handle)) {
+                return handle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a state not yet stored and returns its handle. The state is stored closed, with the cost 0, the heuristic
+     * 0, no parent, no action and the depth 0.
+     *
+     * @param state the state.
+     * @return the handle of the state.
+     */
+    public int add(final BitSet state) {
+        if (size == hashes.length) {
+            this.grow();
+        }
+        this.pack(state);
+        final int handle = size++;
+        System.arraycopy(buffer, 0, words, handle * width, width);
+        hashes[handle] = this.hash(buffer);
+        parents[handle] = -1;
+        actions[handle] = -1;
+        this.insert(handle);
+        return handle;
+    }
+
+    /**
+     * Materializes a stored state.
+     *
+     * @param handle the handle of the state.
+     * @return a new state equal to the stored state.
+     */
+    public State getState(final int handle) {
+        final State state = new State();
+        final int offset = handle * width;
+        for (int w = 0; w < width; w++) {
+            long word = words[offset + w];
+            while (word != 0) {
+                state.set(w * Long.SIZE + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Materializes a stored state as a node, linked by its parents to the nodes of its path from the root.
+     *
+     * @param handle the handle of the state.
+     * @return the node of the state.
+     */
+    public Node getNode(final int handle) {
+        final List<Integer> path = new ArrayList<>();
+        for (int h = handle; h != -1; h = parents[h]) {
+            path.add(h);
+        }
+        Node node = null;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            final int h = path.get(i);
+            node = new Node(this.getState(h), node, actions[h], costs[h], depths[h], heuristics[h]);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the number of states stored.
+     *
+     * @return the number of states stored.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of states open.
+     *
+     * @return the number of states open.
+     */
+    public int getOpenSize() {
+        return this.openSize;
+    }
+
+    /**
+     * Returns the number of states closed.
+     *
+     * @return the number of states closed.
+     */
+    public int getClosedSize() {
+        return this.size - this.openSize;
+    }
+
+    /**
+     * Returns the number of bytes used by the arrays of the arena.
+     *
+     * @return the number of bytes used by the arena.
+     */
+    public long getMemoryUsed() {
+        return (long) words.length * Long.BYTES
+            + (long) (costs.length + heuristics.length) * Double.BYTES
+            + (long) (hashes.length + parents.length + actions.length + depths.length + index.length) * Integer.BYTES
+            + open.length
+            + (long) buffer.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the cost of a stored state.
+     *
+     * @param handle the handle of the state.
+     * @return the cost of the state.
+     */
+    public double getCost(final int handle) {
+        return costs[handle];
+    }
+
+    /**
+     * Sets the cost of a stored state.
+     *
+     * @param handle the handle of the state.
+     * @param cost   the cost of the state.
+     */
+    public void setCost(final int handle, final double cost) {
+        costs[handle] = cost;
+    }
+
+    /**
+     * Returns the heuristic value of a stored state.
+     *
+     * @param handle the handle of the state.
+     * @return the heuristic value of the state.
+     */
+    public double getHeuristic(final int handle) {
+        return heuristics[handle];
+    }
+
+    /**
+     * Sets the heuristic value of a stored state.
+     *
+     * @param handle    the handle of the state.
+     * @param heuristic the heuristic value of the state.
+     */
+    public void setHeuristic(final int handle, final double heuristic) {
+        heuristics[handle] = heuristic;
+    }
+
+    /**
+     * Returns the handle of the parent of a stored state.
+     *
+     * @param handle the handle of the state.
+     * @return the handle of the parent of the state or -1 if the state has no parent.
+     */
+    public int getParent(final int handle) {
+        return parents[handle];
+    }
+
+    /**
+     * Sets the handle of the parent of a stored state.
+     *
+     * @param handle the handle of the state.
+     * @param parent the handle of the parent of the state.
+     */
+    public void setParent(final int handle, final int parent) {
+        parents[handle] = parent;
+    }
+
+    /**
+     * Returns the action leading to a stored state from its parent.
+     *
+     * @param handle the handle of the state.
+     * @return the index of the action or -1 if the state has no parent.
+     */
+    public int getAction(final int handle) {
+        return actions[handle];
+    }
+
+    /**
+     * Sets the action leading to a stored state from its parent.
+     *
+     * @param handle the handle of the state.
+     * @param action the index of the action.
+     */
+    public void setAction(final int handle, final int action) {
+        actions[handle] = action;
+    }
+
+    /**
+     * Returns the depth of a stored state.
+     *
+     * @param handle the handle of the state.
+     * @return the depth of the state.
+     */
+    public int getDepth(final int handle) {
+        return depths[handle];
+    }
+
+    /**
+     * Sets the depth of a stored state.
+     *
+     * @param handle the handle of the state.
+     * @param depth  the depth of the state.
+     */
+    public void setDepth(final int handle, final int depth) {
+        depths[handle] = depth;
+    }
+
+    /**
+     * Returns if a stored state is open.
+     *
+     * @param handle the handle of the state.
+     * @return <code>true</code> if the state is open, <code>false</code> if it is closed.
+     */
+    public boolean isOpen(final int handle) {
+        return open[handle];
+    }
+
+    /**
+     * Opens or closes a stored state.
+     *
+     * @param handle the handle of the state.
+     * @param open   <code>true</code> to open the state, <code>false</code> to close it.
+     */
+    public void setOpen(final int handle, final boolean open) {
+        if (this.open[handle] != open) {
+            this.open[handle] = open;
+            this.openSize += open ? 1 : -1;
+        }
+    }
+
+    /**
+     * Copies the words of a state in the buffer.
+     *
+     * @param state the state.
+     */
+    private void pack(final BitSet state) {
+        Arrays.fill(buffer, 0L);
+        for (int f = state.nextSetBit(0); f >= 0; f = state.nextSetBit(f + 1)) {
+            buffer[f / Long.SIZE] |= 1L << f;
+        }
+    }
+
+    /**
+     * Returns if the buffer is equal to a stored state.
+     *
+     * @param handle the handle of the stored state.
+     * @return <code>true</code> if the buffer is equal to the stored state.
+     */
+    private boolean matches(final int handle) {
+        final int offset = handle * width;
+        for (int w = 0; w < width; w++) {
+            if (words[offset + w] != buffer[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code of the words of a state. The bits are mixed so that linear probing works with an index
+     * whose size is a power of two.
+     *
+     * @param state the words of the state.
+     * @return the hash code.
+     */
+    private int hash(final long[] state) {
+        long hash = 0;
+        for (long word : state) {
+            hash = (hash ^ word) * 0x9E3779B97F4A7C15L;
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Inserts a stored state in the index.
+     *
+     * @param handle the handle of the state.
+     */
+    private void insert(final int handle) {
+        final int mask = index.length - 1;
+        int slot = hashes[handle] & mask;
+        while (index[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = handle;
+    }
+
+    /**
+     * Doubles the number of states that can be stored and rebuilds the index. The load factor of the index is kept
+     * below 1/2.
+     */
+    private void grow() {
+        final int capacity = 2 * hashes.length;
+        words = Arrays.copyOf(words, capacity * width);
+        hashes = Arrays.copyOf(hashes, capacity);
+        costs = Arrays.copyOf(costs, capacity);
+        heuristics = Arrays.copyOf(heuristics, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        actions = Arrays.copyOf(actions, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        open = Arrays.copyOf(open, capacity);
+        index = new int[2 * capacity];
+        Arrays.fill(index, EMPTY);
+        for (int handle = 0; handle < size; handle++) {
+            this.insert(handle);
+        }
+    }
+}
@@ -15,6 +15,8 @@
 
 package esl.search;
 
+import esl.heuristic.EslHeuristic;
+import esl.heuristic.HeuristicCache;
 import fr.uga.pddl4j.heuristics.state.StateHeuristic;
 import fr.uga.pddl4j.plan.Plan;
 import fr.uga.pddl4j.planners.SearchStrategy;
@@ -46,6 +48,38 @@ public interface StateSpaceSearch extends SearchStrategy {
      */
     static final int DEFAULT_TIMEOUT = 600;
 
+    /**
+     * The variants of the A* search strategy: EAGER computes the heuristic of every successor when it is generated and
+     * DEFERRED only when it is popped from the open list. ANYTIME lowers the weight of the heuristic from one
+     * iteration to the next and returns the best solution found before the timeout.
+     */
+    enum AStarVariant {
+        EAGER,
+        DEFERRED,
+        ANYTIME
+    }
+
+    /**
+     * The default variant of the A* search strategy (EAGER).
+     */
+    static final AStarVariant DEFAULT_ASTAR_VARIANT = AStarVariant.EAGER;
+
+    /**
+     * The default flag to expand first the helpful actions of the nodes (true).
+     */
+    static final boolean DEFAULT_HELPFUL_ACTIONS = true;
+
+    /**
+     * The default number of restarts from the previous best node (100).
+     */
+    static final int DEFAULT_RESTARTS = 100;
+
+    /**
+     * The default memory in MBytes of the cache of the values of the base heuristic (0, disabled). The A* and greedy
+     * searches never evaluate a state twice, only the enforced hill climbing search gets hits from the cache.
+     */
+    static final int DEFAULT_CACHE_SIZE = 0;
+
     /**
      * Returns the heuristic to use to solve the planning problem.
      *
@@ -74,6 +108,164 @@ public interface StateSpaceSearch extends SearchStrategy {
      */
     void setWeight(final double weight);
 
+    /**
+     * Returns the evaluation mode of the ESL heuristic.
+     *
+     * @return the evaluation mode of the ESL heuristic.
+     */
+    EslHeuristic.Evaluation getEvaluation();
+
+    /**
+     * Sets the evaluation mode of the ESL heuristic.
+     *
+     * @param evaluation the evaluation mode of the ESL heuristic. The evaluation mode cannot be null.
+     */
+    void setEvaluation(final EslHeuristic.Evaluation evaluation);
+
+    /**
+     * Returns the estimate added to the base heuristic by the ESL heuristic.
+     *
+     * @return the estimate added to the base heuristic.
+     */
+    EslHeuristic.Estimate getEstimate();
+
+    /**
+     * Sets the estimate added to the base heuristic by the ESL heuristic.
+     *
+     * @param estimate the estimate added to the base heuristic. The estimate cannot be null.
+     */
+    void setEstimate(final EslHeuristic.Estimate estimate);
+
+    /**
+     * Returns the number of threads used to evaluate the successors of a node.
+     *
+     * @return the number of threads used to evaluate the successors of a node.
+     */
+    int getParallelism();
+
+    /**
+     * Sets the number of threads used to evaluate the successors of a node. The value 0 means one thread per
+     * available processor and the value 1 a sequential evaluation.
+     *
+     * @param parallelism the number of threads. The number of threads must be greater or equal to 0.
+     */
+    void setParallelism(final int parallelism);
+
+    /**
+     * Returns the type of the open list of the search.
+     *
+     * @return the type of the open list of the search.
+     */
+    OpenList.Type getOpenList();
+
+    /**
+     * Sets the type of the open list of the search.
+     *
+     * @param openList the type of the open list. The type cannot be null.
+     */
+    void setOpenList(final OpenList.Type openList);
+
+    /**
+     * Returns the tie-breaking policy of the open list of the search.
+     *
+     * @return the tie-breaking policy of the open list of the search.
+     */
+    OpenList.TieBreaking getTieBreaking();
+
+    /**
+     * Sets the tie-breaking policy of the open list of the search.
+     *
+     * @param tieBreaking the tie-breaking policy. The policy cannot be null.
+     */
+    void setTieBreaking(final OpenList.TieBreaking tieBreaking);
+
+    /**
+     * Returns if the search expands first the helpful actions of a node.
+     *
+     * @return <code>true</code> if the helpful actions are expanded first <code>false</code> otherwise.
+     */
+    boolean isHelpfulActions();
+
+    /**
+     * Sets if the search expands first the helpful actions of a node, the actions adding a goal of the first
+     * layer of its relaxed plan. Only the enforced hill climbing search uses the helpful actions.
+     *
+     * @param helpfulActions <code>true</code> to expand first the helpful actions.
+     */
+    void setHelpfulActions(final boolean helpfulActions);
+
+    /**
+     * Returns the number of restarts of the search from the previous best node.
+     *
+     * @return the number of restarts of the search from the previous best node.
+     */
+    int getRestarts();
+
+    /**
+     * Sets the number of restarts of the search from the previous best node when the plateau of the best node is
+     * exhausted. Only the enforced hill climbing search restarts.
+     *
+     * @param restarts the number of restarts. The number of restarts must be greater or equal to 0.
+     */
+    void setRestarts(final int restarts);
+
+    /**
+     * Returns the memory in MBytes of the cache of the values of the base heuristic.
+     *
+     * @return the memory in MBytes of the cache of the values of the base heuristic.
+     */
+    int getCacheSize();
+
+    /**
+     * Sets the memory in MBytes of the cache of the values of the base heuristic. The value 0 disables the cache.
+     *
+     * @param cacheSize the memory of the cache in MBytes. The memory must be greater or equal to 0.
+     */
+    void setCacheSize(final int cacheSize);
+
+    /**
+     * Returns the eviction policy of the cache of the values of the base heuristic.
+     *
+     * @return the eviction policy of the cache of the values of the base heuristic.
+     */
+    HeuristicCache.Eviction getCacheEviction();
+
+    /**
+     * Sets the eviction policy of the cache of the values of the base heuristic.
+     *
+     * @param cacheEviction the eviction policy.
+     */
+    void setCacheEviction(final HeuristicCache.Eviction cacheEviction);
+
+    /**
+     * Returns if the memory used by the search is measured exactly.
+     *
+     * @return <code>true</code> if the memory used by the search is measured exactly <code>false</code> if it is
+     *      estimated.
+     */
+    boolean isExactMemory();
+
+    /**
+     * Sets if the memory used by the search is measured exactly, by walking all the objects kept by the search, or
+     * estimated from the number of nodes stored by the search.
+     *
+     * @param exactMemory <code>true</code> to measure the memory used by the search exactly.
+     */
+    void setExactMemory(final boolean exactMemory);
+
+    /**
+     * Requests the search to stop. The search stops at the next expansion of a node and returns the solution found so
+     * far, if any.
+     */
+    void cancel();
+
+    /**
+     * Returns if the search was requested to stop.
+     *
+     * @return <code>true</code> if the search was requested to stop <code>false</code> otherwise.
+     */
+    boolean isCancelled();
+
     /**
      * Sets the time out of the planner.
      *
@@ -236,11 +428,33 @@ public interface StateSpaceSearch extends SearchStrategy {
      */
     static StateSpaceSearch getInstance(final Name name, final StateHeuristic.Name heuristic,
                                                 final double weight, final int timeout) {
+        return StateSpaceSearch.getInstance(name, heuristic, weight, timeout, StateSpaceSearch.DEFAULT_ASTAR_VARIANT);
+    }
+
+    /**
+     * Returns an instance of a specified search strategy.
+     *
+     * @param name      the name of the search strategy.
+     * @param heuristic the heuristic to used bt the search strategy.
+     * @param weight    the weight of the heuristic to used of the search strategy.
+     * @param timeout   the timeout of the search strategy.
+     * @param variant   the variant of the search strategy if the search strategy is A*.
+     * @return the search strategy.
+     */
+    static StateSpaceSearch getInstance(final Name name, final StateHeuristic.Name heuristic,
+                                                final double weight, final int timeout, final AStarVariant variant) {
         switch (name) {
             case ASTAR:
+                if (variant == AStarVariant.DEFERRED) {
+                    return new LazyAStar(timeout, heuristic, weight);
+                } else if (variant == AStarVariant.ANYTIME) {
+                    return new AnytimeAStar(timeout, heuristic, weight);
+                }
                 return new AStar(timeout, heuristic, weight);
             case ENFORCED_HILL_CLIMBING:
                 return new EnforcedHillClimbing(timeout, heuristic, weight);
+            case GREEDY_BEST_FIRST:
+                return new GreedyBestFirstSearch(timeout, heuristic, weight);
             default:
                 return null;
         }
@@ -0,0 +1,125 @@
+package esl.search;
+
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class implements a successor generator based on an index from the preconditions to the grounded actions.
+ *
+ * <p>Each action is indexed by one of its positive preconditions, its key, chosen as the precondition shared by the
+ * fewest actions. The actions whose key does not hold in a state cannot be applicable and are never tested, so the
+ * cost of the expansion of a node depends on the fluents true in the state and on the actions they index, not on the
+ * size of the grounded action set. The actions without positive preconditions are tested in every state.</p>
+ */
+public final class SuccessorGenerator {
+
+    /**
+     * The actions of the problem.
+     */
+    private final List<Action> actions;
+
+    /**
+     * The actions indexed by their key: actionsByKey[f] contains the actions whose key is the fluent f.
+     */
+    private final int[][] actionsByKey;
+
+    /**
+     * The actions without positive preconditions.
+     */
+    private final int[] unconditioned;
+
+    /**
+     * Creates a new successor generator for a specified problem.
+     *
+     * @param problem the problem. The problem must be instantiated.
+     */
+    public SuccessorGenerator(final Problem problem) {
+        this.actions = problem.getActions();
+        final int fluents = problem.getFluents().size();
+        // Number of actions having each fluent as positive precondition
+        final int[] shared = new int[fluents];
+        for (Action op : actions) {
+            final BitVector pre = op.getPrecondition().getPositiveFluents();
+            for (int f = pre.nextSetBit(0); f >= 0; f = pre.nextSetBit(f + 1)) {
+                shared[f]++;
+            }
+        }
+        final int[] keys = new int[actions.size()];
+        final int[] sizes = new int[fluents];
+        int nbUnconditioned = 0;
+        for (int a = 0; a < actions.size(); a++) {
+            final BitVector pre = actions.get(a).getPrecondition().getPositiveFluents();
+            int key = -1;
+            for (int f = pre.nextSetBit(0); f >= 0; f = pre.nextSetBit(f + 1)) {
+                if (key == -1 || shared[f] < shared[key]) {
+                    key = f;
+                }
+            }
+            keys[a] = key;
+            if (key == -1) {
+                nbUnconditioned++;
+            } else {
+                sizes[key]++;
+            }
+        }
+        this.actionsByKey = new int[fluents][];
+        for (int f = 0; f < fluents; f++) {
+            actionsByKey[f] = new int[sizes[f]];
+        }
+        this.unconditioned = new int[nbUnconditioned];
+        Arrays.fill(sizes, 0);
+        nbUnconditioned = 0;
+        for (int a = 0; a < keys.length; a++) {
+            if (keys[a] == -1) {
+                unconditioned[nbUnconditioned++] = a;
+            } else {
+                actionsByKey[keys[a]][sizes[keys[a]]++] = a;
+            }
+        }
+    }
+
+    /**
+     * Returns the indexes of the actions applicable in a specified state, in increasing order, i.e., in the order of
+     * the actions of the problem.
+     *
+     * @param state the state.
+     * @return the indexes of the actions applicable in the state.
+     */
+    public int[] getApplicableActions(final State state) {
+        int[] applicable = new int[16];
+        int size = 0;
+        for (int a : unconditioned) {
+            if (actions.get(a).isApplicable(state)) {
+                applicable = this.ensureCapacity(applicable, size);
+                applicable[size++] = a;
+            }
+        }
+        for (int f = state.nextSetBit(0); f >= 0 && f < actionsByKey.length; f = state.nextSetBit(f + 1)) {
+            for (int a : actionsByKey[f]) {
+                if (actions.get(a).isApplicable(state)) {
+                    applicable = this.ensureCapacity(applicable, size);
+                    applicable[size++] = a;
+                }
+            }
+        }
+        applicable = Arrays.copyOf(applicable, size);
+        Arrays.sort(applicable);
+        return applicable;
+    }
+
+    /**
+     * Grows the array if it is full.
+     *
+     * @param array the array.
+     * @param size  the number of elements in the array.
+     * @return the array, or a copy with more room if the array was full.
+     */
+    private int[] ensureCapacity(final int[] array, final int size) {
+        return size < array.length ? array : Arrays.copyOf(array, 2 * array.length);
+    }
+}
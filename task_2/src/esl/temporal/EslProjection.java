@@ -0,0 +1,331 @@
+package esl.temporal;
+
+import esl.heuristic.EslHeuristic;
+import fr.uga.pddl4j.heuristics.state.StateHeuristic;
+import fr.uga.pddl4j.parser.DefaultParsedProblem;
+import fr.uga.pddl4j.parser.NamedTypedList;
+import fr.uga.pddl4j.parser.ParsedAction;
+import fr.uga.pddl4j.parser.ParsedDomain;
+import fr.uga.pddl4j.parser.ParsedProblem;
+import fr.uga.pddl4j.parser.Parser;
+import fr.uga.pddl4j.parser.TypedSymbol;
+import fr.uga.pddl4j.planners.statespace.search.Node;
+import fr.uga.pddl4j.problem.DefaultProblem;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.State;
+import fr.uga.pddl4j.problem.operator.Action;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Projection of a temporal ESL problem on the classical ESL domain, to reuse the pruning rules and the estimate of the
+ * {@link EslHeuristic} in the temporal search.
+ *
+ * <p>The classical problem has the objects, the atoms of the initial state whose predicate is declared by the
+ * classical domain, and the goal of the temporal problem. A fluent of the temporal problem is mapped to the classical
+ * fluent with the same PDDL text and a ground durative action to the classical action with the same name and the
+ * same objects bound to the parameters of the same name, e.g., {@code (give-content r1 p1 b1 food l1 ca)} to
+ * {@code (give-content r1 p1 food b1 l1)}. Since the classical boxes on a carrier stay at the location of the
+ * carrier, while the temporal ones leave it, the projection of a state adds {@code (at ?b ?l)} for each box on a
+ * carrier at {@code ?l}.</p>
+ *
+ * <p>When the classical domain cannot be read, the projection prunes no action and estimates the number of goals not
+ * satisfied. The errors of a classical domain read but not parsed or instantiated are logged.</p>
+ */
+final class EslProjection {
+
+    /**
+     * The logger of the class.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(EslProjection.class.getName());
+
+    /**
+     * The temporal problem.
+     */
+    private final TemporalProblem temporal;
+
+    /**
+     * The classical problem, null if the classical domain cannot be read.
+     */
+    private final Problem problem;
+
+    /**
+     * The heuristic of the classical problem, null if the classical domain cannot be read.
+     */
+    private final EslHeuristic heuristic;
+
+    /**
+     * The classical fluent of each temporal fluent, -1 if the classical problem has no such fluent.
+     */
+    private final int[] fluents;
+
+    /**
+     * The classical action of each temporal action, -1 if the classical problem has no such action.
+     */
+    private final int[] actions;
+
+    /**
+     * For each temporal fluent (on-carrier ?b ?c), the fluent (at ?c ?l) and the classical fluent (at ?b ?l) of each
+     * location ?l, in turn, null for the other fluents.
+     */
+    private final int[][] boxes;
+
+    /**
+     * Creates a new projection and maps the fluents and the actions of the temporal problem to the classical ones.
+     *
+     * @param temporal   the temporal problem.
+     * @param problem    the classical problem, null if the classical domain cannot be read.
+     * @param parameters the names of the parameters of each action of the classical domain.
+     * @param heuristic  the estimate of the classical heuristic.
+     */
+    private EslProjection(TemporalProblem temporal, Problem problem, Map<String, List<String>> parameters,
+                          StateHeuristic.Name heuristic) {
+        this.temporal = temporal;
+        this.problem = problem;
+        this.fluents = new int[temporal.getFluentCount()];
+        this.actions = new int[temporal.getActions().size()];
+        this.boxes = new int[temporal.getFluentCount()][];
+        Arrays.fill(fluents, -1);
+        Arrays.fill(actions, -1);
+        if (problem == null) {
+            this.heuristic = null;
+            return;
+        }
+        this.heuristic = EslHeuristic.getInstance(problem, heuristic);
+
+        final Map<String, Integer> classicalFluents = new HashMap<>();
+        for (int f = 0; f < problem.getFluents().size(); f++) {
+            classicalFluents.put(problem.toString(problem.getFluents().get(f)), f);
+        }
+        for (int f = 0; f < fluents.length; f++) {
+            fluents[f] = classicalFluents.getOrDefault(temporal.getFluent(f), -1);
+        }
+        final List<String> locations = temporal.getObjects().entrySet().stream()
+            .filter(e -> e.getValue().equals("location")).map(Map.Entry::getKey).toList();
+        for (int f = 0; f < boxes.length; f++) {
+            final String[] terms = terms(temporal.getFluent(f));
+            if (terms[0].equals("on-carrier") && terms.length == 3) {
+                final int[] pairs = new int[2 * locations.size()];
+                for (int i = 0; i < locations.size(); i++) {
+                    pairs[2 * i] = temporal.getFluent("(at " + terms[2] + " " + locations.get(i) + ")");
+                    pairs[2 * i + 1] = classicalFluents.getOrDefault("(at " + terms[1] + " " + locations.get(i)
+                        + ")", -1);
+                }
+                boxes[f] = pairs;
+            }
+        }
+
+        final Map<String, Integer> classicalActions = new HashMap<>();
+        for (int a = 0; a < problem.getActions().size(); a++) {
+            final Action op = problem.getActions().get(a);
+            final StringBuilder key = new StringBuilder(op.getName());
+            for (int object : op.getInstantiations()) {
+                key.append(' ').append(problem.getConstantSymbols().get(object));
+            }
+            classicalActions.put(key.toString(), a);
+        }
+        for (GroundDurativeAction action : temporal.getActions()) {
+            final List<String> names = parameters.get(action.getName());
+            if (names == null) {
+                continue;
+            }
+            final List<String> bound = Arrays.asList(action.getParameters());
+            final StringBuilder key = new StringBuilder(action.getName());
+            for (String name : names) {
+                final int i = bound.indexOf(name);
+                key.append(' ').append(i < 0 ? "" : action.getArguments()[i]);
+            }
+            actions[action.getIndex()] = classicalActions.getOrDefault(key.toString(), -1);
+        }
+    }
+
+    /**
+     * Projects a temporal problem on a classical ESL domain.
+     *
+     * @param temporal  the temporal problem.
+     * @param domain    the classical domain, the projection estimating the number of goals not satisfied if the
+     *                  domain cannot be read.
+     * @param heuristic the base heuristic of the ESL heuristic.
+     * @return the projection.
+     */
+    static EslProjection create(TemporalProblem temporal, File domain, StateHeuristic.Name heuristic) {
+        final Map<String, List<String>> parameters = new HashMap<>();
+        return new EslProjection(temporal, instantiate(temporal, domain, parameters), parameters, heuristic);
+    }
+
+    /**
+     * Instantiates the classical problem of a temporal problem.
+     *
+     * @param parameters the map filled with the names of the parameters of each classical action, read before the
+     *                   instantiation renames them.
+     * @return the classical problem, null if the classical domain cannot be read, parsed or instantiated.
+     */
+    private static Problem instantiate(TemporalProblem temporal, File domain, Map<String, List<String>> parameters) {
+        if (domain == null || !domain.canRead()) {
+            return null;
+        }
+        try {
+            final Parser parser = new Parser();
+            final ParsedDomain parsedDomain = parser.parseDomain(domain);
+            if (!parser.getErrorManager().isEmpty()) {
+                parser.getErrorManager().getMessages().forEach(m -> LOGGER.error(m.toString()));
+                warn(domain, "not parsed");
+                return null;
+            }
+            parameters.putAll(getParameters(parsedDomain));
+            final Set<String> predicates = new HashSet<>();
+            for (NamedTypedList predicate : parsedDomain.getPredicates()) {
+                predicates.add(predicate.getName().getValue());
+            }
+            final StringBuilder str = new StringBuilder("(define (problem ").append(temporal.getProblemName())
+                .append(") (:domain ").append(parsedDomain.getDomainName().getValue()).append(")\n(:objects");
+            temporal.getObjects().forEach((object, type) -> str.append(' ').append(object).append(" - ").append(type));
+            str.append(")\n(:init");
+            final BitSet init = temporal.getInitialFacts();
+            for (int f = init.nextSetBit(0); f >= 0; f = init.nextSetBit(f + 1)) {
+                if (predicates.contains(terms(temporal.getFluent(f))[0])) {
+                    str.append(' ').append(temporal.getFluent(f));
+                }
+            }
+            str.append(")\n(:goal (and");
+            final BitSet goal = temporal.getGoalFluents();
+            for (int f = goal.nextSetBit(0); f >= 0; f = goal.nextSetBit(f + 1)) {
+                str.append(' ').append(temporal.getFluent(f));
+            }
+            str.append(")))\n");
+            final Path file = Files.createTempFile(temporal.getProblemName(), ".pddl");
+            try {
+                Files.writeString(file, str);
+                final ParsedProblem parsedProblem = parser.parseProblem(file.toFile());
+                if (!parser.getErrorManager().isEmpty()) {
+                    parser.getErrorManager().getMessages().forEach(m -> LOGGER.error(m.toString()));
+                    warn(domain, "not parsed with the classical problem");
+                    return null;
+                }
+                final Problem problem = new DefaultProblem(new DefaultParsedProblem(parsedDomain, parsedProblem));
+                problem.instantiate();
+                return problem;
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            warn(domain, "not read (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Logs that the classical domain is not used and why.
+     */
+    private static void warn(File domain, String cause) {
+        LOGGER.warn("* Classical domain " + domain + " " + cause + ": the temporal search is guided by the number of "
+            + "goals not satisfied\n");
+    }
+
+    /**
+     * Returns the names of the parameters of each action of a classical domain, e.g., [?r, ?from, ?to] for move. The
+     * names must be read before the instantiation of a problem of the domain, which renames them.
+     *
+     * @param domain the classical domain.
+     * @return the names of the parameters of each action, indexed by the name of the action.
+     */
+    static Map<String, List<String>> getParameters(ParsedDomain domain) {
+        final Map<String, List<String>> res = new HashMap<>();
+        for (ParsedAction op : domain.getActions()) {
+            res.put(op.getName().getValue(), op.getParameters().stream().map(TypedSymbol::getValue).toList());
+        }
+        return res;
+    }
+
+    /**
+     * Returns the terms of the PDDL text of an atom, e.g., [at, r1, depot] for {@code (at r1 depot)}.
+     *
+     * @param atom the PDDL text of the atom.
+     * @return the predicate of the atom followed by its arguments.
+     */
+    static String[] terms(String atom) {
+        return atom.substring(1, atom.length() - 1).split(" ");
+    }
+
+    /**
+     * Returns if the classical domain was read, i.e., if the ESL rules and estimate are used.
+     *
+     * @return <code>true</code> if the classical domain was read, <code>false</code> otherwise.
+     */
+    boolean isClassical() {
+        return problem != null;
+    }
+
+    /**
+     * Returns the classical state of the facts of a temporal state.
+     *
+     * @param facts the facts of the temporal state.
+     * @return the classical state.
+     */
+    private State project(BitSet facts) {
+        final State state = new State();
+        for (int f = facts.nextSetBit(0); f >= 0; f = facts.nextSetBit(f + 1)) {
+            if (fluents[f] >= 0) {
+                state.set(fluents[f]);
+            }
+            final int[] pairs = boxes[f];
+            if (pairs != null) {
+                for (int i = 0; i < pairs.length; i += 2) {
+                    if (pairs[i] >= 0 && pairs[i + 1] >= 0 && facts.get(pairs[i])) {
+                        state.set(pairs[i + 1]);
+                    }
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Returns if an action is worth to be started in a state according to the pruning rules of the ESL heuristic.
+     * The actions without a classical counterpart are always worth to be started.
+     *
+     * @param facts  the facts of the state.
+     * @param action the action.
+     * @return <code>true</code> if the action is worth to be started, <code>false</code> otherwise.
+     */
+    boolean isWorth(BitSet facts, GroundDurativeAction action) {
+        final int op = actions[action.getIndex()];
+        return op < 0 || heuristic.isWorth(new Node(project(facts)), op);
+    }
+
+    /**
+     * Returns the ESL estimate of the number of actions needed to reach the goal from a state.
+     *
+     * @param facts the facts of the state.
+     * @return the estimate, Integer.MAX_VALUE if the goal cannot be reached.
+     */
+    int estimate(BitSet facts) {
+        if (problem == null) {
+            final BitSet unsatisfied = temporal.getGoalFluents();
+            unsatisfied.andNot(facts);
+            return unsatisfied.cardinality();
+        }
+        return heuristic.estimate(project(facts), problem.getGoal());
+    }
+
+    /**
+     * Releases the ESL heuristic of the classical problem.
+     */
+    void release() {
+        if (problem != null) {
+            EslHeuristic.release(problem);
+        }
+    }
+}
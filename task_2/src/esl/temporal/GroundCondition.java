@@ -0,0 +1,77 @@
+package esl.temporal;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A grounded condition of a durative action at a time point, or of the goal: a conjunction of fluents that must hold,
+ * of fluents that must not hold and of disjunctions of fluents, at least one of which must hold.
+ */
+final class GroundCondition {
+
+    /**
+     * The fluents that must hold.
+     */
+    private final BitSet positive = new BitSet();
+
+    /**
+     * The fluents that must not hold.
+     */
+    private final BitSet negative = new BitSet();
+
+    /**
+     * The disjunctions of fluents, one fluent of each having to hold.
+     */
+    private final List<BitSet> disjunctions = new ArrayList<>();
+
+    /**
+     * Returns the fluents that must hold. The bitset is filled by the grounding.
+     *
+     * @return the fluents that must hold.
+     */
+    BitSet getPositive() {
+        return positive;
+    }
+
+    /**
+     * Returns the fluents that must not hold. The bitset is filled by the grounding.
+     *
+     * @return the fluents that must not hold.
+     */
+    BitSet getNegative() {
+        return negative;
+    }
+
+    /**
+     * Returns the disjunctions of fluents, one fluent of each having to hold. The list is filled by the grounding.
+     *
+     * @return the disjunctions of fluents.
+     */
+    List<BitSet> getDisjunctions() {
+        return disjunctions;
+    }
+
+    /**
+     * Returns if the condition holds in a state.
+     *
+     * @param facts the fluents holding in the state.
+     * @return <code>true</code> if the condition holds, <code>false</code> otherwise.
+     */
+    boolean isSatisfied(BitSet facts) {
+        for (int f = positive.nextSetBit(0); f >= 0; f = positive.nextSetBit(f + 1)) {
+            if (!facts.get(f)) {
+                return false;
+            }
+        }
+        if (negative.intersects(facts)) {
+            return false;
+        }
+        for (BitSet disjunction : disjunctions) {
+            if (!disjunction.intersects(facts)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,220 @@
+package esl.temporal;
+
+import java.util.BitSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A durative action of a {@link TemporalProblem} grounded with the objects of the problem.
+ *
+ * <p>The action has a condition at its start, over its whole duration and at its end, an effect at its start and at
+ * its end, and a duration computed from the values of the numeric variables when the action starts.</p>
+ */
+public final class GroundDurativeAction {
+
+    /**
+     * The index of the action in the actions of the problem.
+     */
+    private final int index;
+
+    /**
+     * The name of the action.
+     */
+    private final String name;
+
+    /**
+     * The names of the parameters of the action.
+     */
+    private final String[] parameters;
+
+    /**
+     * The names of the objects bound to the parameters of the action.
+     */
+    private final String[] arguments;
+
+    /**
+     * The condition at the start of the action.
+     */
+    private final GroundCondition atStart = new GroundCondition();
+
+    /**
+     * The condition over the whole duration of the action.
+     */
+    private final GroundCondition overAll = new GroundCondition();
+
+    /**
+     * The condition at the end of the action.
+     */
+    private final GroundCondition atEnd = new GroundCondition();
+
+    /**
+     * The effect at the start of the action.
+     */
+    private final GroundEffect startEffect = new GroundEffect();
+
+    /**
+     * The effect at the end of the action.
+     */
+    private final GroundEffect endEffect = new GroundEffect();
+
+    /**
+     * The numeric variables read by the duration and by the updates of the action.
+     */
+    private final BitSet reads = new BitSet();
+
+    /**
+     * The numeric variables updated by the action.
+     */
+    private final BitSet writes = new BitSet();
+
+    /**
+     * The duration of the action, computed from the values of the numeric variables when the action starts.
+     */
+    private ToDoubleFunction<double[]> duration;
+
+    /**
+     * Creates a new grounded durative action, its conditions and effects being filled by the grounding.
+     *
+     * @param index      the index of the action in the actions of the problem.
+     * @param name       the name of the action.
+     * @param parameters the names of the parameters of the action.
+     * @param arguments  the names of the objects bound to the parameters.
+     */
+    GroundDurativeAction(int index, String name, String[] parameters, String[] arguments) {
+        this.index = index;
+        this.name = name;
+        this.parameters = parameters;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Returns the index of the action in the actions of the problem.
+     *
+     * @return the index of the action.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the name of the action, e.g., {@code fill-box}.
+     *
+     * @return the name of the action.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the names of the parameters of the action, e.g., {@code ?r}. The array is shared and must not be
+     * modified.
+     *
+     * @return the names of the parameters of the action.
+     */
+    public String[] getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the names of the objects bound to the parameters of the action. The array is shared and must not be
+     * modified.
+     *
+     * @return the names of the objects bound to the parameters of the action.
+     */
+    public String[] getArguments() {
+        return arguments;
+    }
+
+    /**
+     * Returns the condition at the start of the action.
+     *
+     * @return the condition at the start of the action.
+     */
+    GroundCondition getAtStart() {
+        return atStart;
+    }
+
+    /**
+     * Returns the condition over the whole duration of the action.
+     *
+     * @return the condition over the whole duration of the action.
+     */
+    GroundCondition getOverAll() {
+        return overAll;
+    }
+
+    /**
+     * Returns the condition at the end of the action.
+     *
+     * @return the condition at the end of the action.
+     */
+    GroundCondition getAtEnd() {
+        return atEnd;
+    }
+
+    /**
+     * Returns the effect at the start of the action.
+     *
+     * @return the effect at the start of the action.
+     */
+    GroundEffect getStartEffect() {
+        return startEffect;
+    }
+
+    /**
+     * Returns the effect at the end of the action.
+     *
+     * @return the effect at the end of the action.
+     */
+    GroundEffect getEndEffect() {
+        return endEffect;
+    }
+
+    /**
+     * Returns the numeric variables read by the duration and by the updates of the action. The bitset is filled by
+     * the grounding.
+     *
+     * @return the numeric variables read by the action.
+     */
+    BitSet getReads() {
+        return reads;
+    }
+
+    /**
+     * Returns the numeric variables updated by the action. The bitset is filled by the grounding.
+     *
+     * @return the numeric variables updated by the action.
+     */
+    BitSet getWrites() {
+        return writes;
+    }
+
+    /**
+     * Sets the duration of the action.
+     *
+     * @param duration the duration of the action, computed from the values of the numeric variables when the action
+     *                 starts.
+     */
+    void setDuration(ToDoubleFunction<double[]> duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the duration of the action when it starts with the specified values of the numeric variables.
+     *
+     * @param values the values of the numeric variables when the action starts.
+     * @return the duration of the action.
+     */
+    public double getDuration(double[] values) {
+        return duration.applyAsDouble(values);
+    }
+
+    /**
+     * Returns the action as in a plan, e.g., {@code fill-box r1 b1 medicine depot}.
+     *
+     * @return the action as in a plan.
+     */
+    @Override
+    public String toString() {
+        return name + (arguments.length == 0 ? "" : " " + String.join(" ", arguments));
+    }
+}
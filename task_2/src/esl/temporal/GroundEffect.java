@@ -0,0 +1,136 @@
+package esl.temporal;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A grounded effect of a durative action at a time point: the fluents added, the fluents deleted and the updates of the
+ * numeric variables. As in PDDL, the deletions are applied before the additions and the new values of the numeric
+ * variables are computed from their values before the effect.
+ */
+final class GroundEffect {
+
+    /**
+     * An update of a numeric variable, e.g., {@code (increase (box-weight b1) (content-weight food))}.
+     */
+    static final class Update {
+
+        /**
+         * The operator of the update: assign, increase, decrease, scale-up or scale-down.
+         */
+        private final String operator;
+
+        /**
+         * The numeric variable updated.
+         */
+        private final int variable;
+
+        /**
+         * The value of the update, computed from the values of the numeric variables before the effect.
+         */
+        private final ToDoubleFunction<double[]> value;
+
+        /**
+         * Creates a new update.
+         *
+         * @param operator the operator of the update.
+         * @param variable the numeric variable updated.
+         * @param value    the value of the update.
+         */
+        Update(String operator, int variable, ToDoubleFunction<double[]> value) {
+            this.operator = operator;
+            this.variable = variable;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The fluents added.
+     */
+    private final BitSet added = new BitSet();
+
+    /**
+     * The fluents deleted.
+     */
+    private final BitSet deleted = new BitSet();
+
+    /**
+     * The updates of the numeric variables.
+     */
+    private final List<Update> updates = new ArrayList<>();
+
+    /**
+     * Returns the fluents added. The bitset is filled by the grounding.
+     *
+     * @return the fluents added.
+     */
+    BitSet getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the fluents deleted. The bitset is filled by the grounding.
+     *
+     * @return the fluents deleted.
+     */
+    BitSet getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Returns the updates of the numeric variables. The list is filled by the grounding.
+     *
+     * @return the updates of the numeric variables.
+     */
+    List<Update> getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns if the effect adds, deletes and updates nothing.
+     *
+     * @return <code>true</code> if the effect is empty, <code>false</code> otherwise.
+     */
+    boolean isEmpty() {
+        return added.isEmpty() && deleted.isEmpty() && updates.isEmpty();
+    }
+
+    /**
+     * Applies the effect to the facts and the values of the numeric variables of a state.
+     *
+     * @param facts  the fluents holding in the state, updated in place.
+     * @param values the values of the numeric variables of the state, left unchanged.
+     * @return the new values of the numeric variables, the same array if the effect does not update any variable.
+     */
+    double[] apply(BitSet facts, double[] values) {
+        facts.andNot(deleted);
+        facts.or(added);
+        if (updates.isEmpty()) {
+            return values;
+        }
+        final double[] res = values.clone();
+        for (Update update : updates) {
+            final double value = update.value.applyAsDouble(values);
+            switch (update.operator) {
+                case "increase":
+                    res[update.variable] += value;
+                    break;
+                case "decrease":
+                    res[update.variable] -= value;
+                    break;
+                case "scale-up":
+                    res[update.variable] *= value;
+                    break;
+                case "scale-down":
+                    res[update.variable] /= value;
+                    break;
+                default: // assign
+                    res[update.variable] = value;
+                    break;
+            }
+        }
+        return res;
+    }
+}
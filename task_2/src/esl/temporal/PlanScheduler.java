@@ -0,0 +1,397 @@
+package esl.temporal;
+
+import fr.uga.pddl4j.parser.Parser;
+import fr.uga.pddl4j.parser.TypedSymbol;
+import fr.uga.pddl4j.plan.Plan;
+import fr.uga.pddl4j.problem.Problem;
+import fr.uga.pddl4j.problem.operator.Action;
+import fr.uga.pddl4j.problem.operator.ConditionalEffect;
+import fr.uga.pddl4j.util.BitVector;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deorders the sequential plans of a classical problem and schedules their actions at their earliest start times, so
+ * that the actions of different robots are done at the same time when they are independent.
+ *
+ * <p>The partial order of a plan keeps an action after another one if (1) the other action is the last one before it
+ * to make true or false a fluent of its precondition (a causal link), (2) the action would make false the fluent of a
+ * causal link if it was done during the link, (3) the two actions interfere, i.e., one of them deletes a fluent that
+ * the other one needs or adds, so that two actions done at the same time never interfere, or (4) the two actions are
+ * done by the same robot, a robot doing one action at a time. The orderings are the ones of the sequential plan, so
+ * the partial order has no cycle and each of its linearizations is a valid plan. A conditional effect is taken as
+ * unconditional if its condition holds in the sequential plan and, otherwise, one of the literals of its condition
+ * that does not hold is taken as a precondition, so that no reordering changes the effects of the actions.</p>
+ *
+ * <p>The durations of the actions are 1, or the ones of the matching actions of a durative domain, e.g., the durative
+ * ESL domain of task_3. The durative actions are matched by name and by the objects bound to the parameters of the same
+ * name, the durative action whose conditions hold in the state before the action being taken if several match. Two
+ * actions whose durative actions interfere are then ordered as well, including through the numeric fluents that one of
+ * them updates and the other one reads or updates, so that the durations computed along the sequential plan are the
+ * durations of the actions in the schedule. The actions without a durative action, or whose duration is not defined
+ * because the problem of the durative domain does not initialize a numeric fluent, last 1.</p>
+ */
+public final class PlanScheduler {
+
+    /**
+     * The classical problem.
+     */
+    private final Problem problem;
+
+    /**
+     * The durative problem giving the durations of the actions, null for durations of 1.
+     */
+    private final TemporalProblem durative;
+
+    /**
+     * The ids of the robots, i.e., of the objects of type robot.
+     */
+    private final BitSet robots = new BitSet();
+
+    /**
+     * The durative actions matching the classical actions with each key, i.e., the name of the action followed by the
+     * objects bound to the parameters of the classical action.
+     */
+    private final Map<String, List<GroundDurativeAction>> durativeActions = new HashMap<>();
+
+    /**
+     * The classical fluent of each durative fluent, -1 if the classical problem has no such fluent.
+     */
+    private final int[] fluents;
+
+    /**
+     * The number of orderings kept between the actions of the last plan scheduled.
+     */
+    private int orderings;
+
+    /**
+     * The number of actions of the last plan scheduled whose duration is not defined by the durative domain.
+     */
+    private int undefinedDurations;
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param problem  the classical problem.
+     * @param domain   the classical domain of the problem.
+     * @param durative the durative problem giving the durations of the actions, null for durations of 1.
+     * @throws FileNotFoundException if the classical domain cannot be read to match the durative actions.
+     */
+    public PlanScheduler(Problem problem, File domain, TemporalProblem durative) throws FileNotFoundException {
+        this.problem = problem;
+        this.durative = durative;
+        for (TypedSymbol<String> object : problem.getParsedProblem().getObjects()) {
+            final int id = problem.getConstantSymbols().indexOf(object.getValue());
+            if (id >= 0 && !object.getTypes().isEmpty() && object.getTypes().get(0).getValue().equals("robot")) {
+                robots.set(id);
+            }
+        }
+        this.fluents = new int[durative == null ? 0 : durative.getFluentCount()];
+        if (durative == null) {
+            return;
+        }
+        final Map<String, Integer> classicalFluents = new HashMap<>();
+        for (int f = 0; f < problem.getFluents().size(); f++) {
+            classicalFluents.put(problem.toString(problem.getFluents().get(f)), f);
+        }
+        for (int f = 0; f < fluents.length; f++) {
+            fluents[f] = classicalFluents.getOrDefault(durative.getFluent(f), -1);
+        }
+        final Map<String, List<String>> parameters = EslProjection.getParameters(new Parser().parseDomain(domain));
+        for (GroundDurativeAction action : durative.getActions()) {
+            final List<String> names = parameters.get(action.getName());
+            if (names == null) {
+                continue;
+            }
+            final List<String> bound = List.of(action.getParameters());
+            final StringBuilder key = new StringBuilder(action.getName());
+            for (String name : names) {
+                final int i = bound.indexOf(name);
+                key.append(' ').append(i < 0 ? "" : action.getArguments()[i]);
+            }
+            durativeActions.computeIfAbsent(key.toString(), k -> new ArrayList<>()).add(action);
+        }
+    }
+
+    /**
+     * Returns the number of orderings kept between the actions of the last plan scheduled.
+     *
+     * @return the number of orderings of the last plan scheduled.
+     */
+    public int getOrderings() {
+        return orderings;
+    }
+
+    /**
+     * Returns the number of actions of the last plan scheduled whose duration is not defined by the durative domain.
+     *
+     * @return the number of actions of the last plan scheduled that last 1 for lack of a duration.
+     */
+    public int getUndefinedDurations() {
+        return undefinedDurations;
+    }
+
+    /**
+     * Deorders a sequential plan and schedules its actions at their earliest start times.
+     *
+     * @param plan the sequential plan, valid for the problem.
+     * @return the concurrent plan.
+     */
+    public TimedPlan schedule(Plan plan) {
+        final List<Action> actions = plan.actions();
+        final int n = actions.size();
+        final BitSet[] positive = new BitSet[n];
+        final BitSet[] negative = new BitSet[n];
+        final BitSet[] added = new BitSet[n];
+        final BitSet[] deleted = new BitSet[n];
+        final GroundDurativeAction[] matched = new GroundDurativeAction[n];
+        final double[] durations = new double[n];
+        undefinedDurations = 0;
+
+        // The preconditions and the effects of the actions as done in the sequential plan
+        final BitSet state = toBitSet(problem.getInitialState().getPositiveFluents());
+        double[] values = durative == null ? null : durative.getInitialValues();
+        for (int j = 0; j < n; j++) {
+            final Action op = actions.get(j);
+            positive[j] = toBitSet(op.getPrecondition().getPositiveFluents());
+            negative[j] = toBitSet(op.getPrecondition().getNegativeFluents());
+            added[j] = new BitSet();
+            deleted[j] = new BitSet();
+            for (ConditionalEffect effect : op.getConditionalEffects()) {
+                final BitSet condition = toBitSet(effect.getCondition().getPositiveFluents());
+                final BitSet forbidden = toBitSet(effect.getCondition().getNegativeFluents());
+                final BitSet missing = (BitSet) condition.clone();
+                missing.andNot(state);
+                final BitSet present = (BitSet) forbidden.clone();
+                present.and(state);
+                if (missing.isEmpty() && present.isEmpty()) {
+                    positive[j].or(condition);
+                    negative[j].or(forbidden);
+                    added[j].or(toBitSet(effect.getEffect().getPositiveFluents()));
+                    deleted[j].or(toBitSet(effect.getEffect().getNegativeFluents()));
+                } else if (!missing.isEmpty()) {
+                    negative[j].set(missing.nextSetBit(0));
+                } else {
+                    positive[j].set(present.nextSetBit(0));
+                }
+            }
+            deleted[j].andNot(added[j]);
+            durations[j] = 1.0;
+            if (durative != null) {
+                matched[j] = this.match(op, state);
+                if (matched[j] != null) {
+                    final double duration = matched[j].getDuration(values);
+                    if (Double.isFinite(duration) && duration >= 0) {
+                        durations[j] = duration;
+                    } else {
+                        undefinedDurations++;
+                    }
+                    final BitSet ignored = new BitSet();
+                    values = matched[j].getStartEffect().apply(ignored, values);
+                    values = matched[j].getEndEffect().apply(ignored, values);
+                } else {
+                    undefinedDurations++;
+                }
+            }
+            state.andNot(deleted[j]);
+            state.or(added[j]);
+        }
+
+        final BitSet[] before = new BitSet[n];
+        for (int j = 0; j < n; j++) {
+            before[j] = new BitSet();
+        }
+        this.addCausalLinks(positive, negative, added, deleted, before);
+        this.addInterferences(positive, negative, added, deleted, matched, before);
+        final Map<Integer, Integer> last = new HashMap<>();
+        for (int j = 0; j < n; j++) {
+            for (int object : actions.get(j).getInstantiations()) {
+                if (robots.get(object)) {
+                    final Integer i = last.put(object, j);
+                    if (i != null && i != j) {
+                        before[j].set(i);
+                    }
+                }
+            }
+        }
+
+        // The earliest start times, the orderings following the order of the sequential plan
+        final double[] start = new double[n];
+        final TimedPlan res = new TimedPlan();
+        orderings = 0;
+        for (int j = 0; j < n; j++) {
+            orderings += before[j].cardinality();
+            for (int i = before[j].nextSetBit(0); i >= 0; i = before[j].nextSetBit(i + 1)) {
+                start[j] = Math.max(start[j], start[i] + durations[i] + TemporalSearch.EPSILON);
+            }
+            res.add(start[j], matched[j] != null ? matched[j].toString() : this.toString(actions.get(j)),
+                durations[j]);
+        }
+        return res;
+    }
+
+    /**
+     * Adds the orderings of the causal links of the plan and of the actions threatening them, the goal being consumed
+     * at the end of the plan.
+     */
+    private void addCausalLinks(BitSet[] positive, BitSet[] negative, BitSet[] added, BitSet[] deleted,
+                                BitSet[] before) {
+        final int n = before.length;
+        final Map<Integer, Integer> lastAdder = new HashMap<>();
+        final Map<Integer, Integer> lastDeleter = new HashMap<>();
+        // links: the causal links {producer, consumer, fluent, 1 if the fluent must hold, 0 otherwise}, the producer
+        // being -1 for the initial state and the consumer n for the goal.
+        final List<int[]> links = new ArrayList<>();
+        for (int j = 0; j <= n; j++) {
+            final BitSet needed = j < n ? positive[j]
+                : toBitSet(problem.getGoal().getPositiveFluents());
+            final BitSet forbidden = j < n ? negative[j]
+                : toBitSet(problem.getGoal().getNegativeFluents());
+            for (int f = needed.nextSetBit(0); f >= 0; f = needed.nextSetBit(f + 1)) {
+                links.add(new int[] {lastAdder.getOrDefault(f, -1), j, f, 1});
+            }
+            for (int f = forbidden.nextSetBit(0); f >= 0; f = forbidden.nextSetBit(f + 1)) {
+                links.add(new int[] {lastDeleter.getOrDefault(f, -1), j, f, 0});
+            }
+            if (j < n) {
+                for (int f = added[j].nextSetBit(0); f >= 0; f = added[j].nextSetBit(f + 1)) {
+                    lastAdder.put(f, j);
+                }
+                for (int f = deleted[j].nextSetBit(0); f >= 0; f = deleted[j].nextSetBit(f + 1)) {
+                    lastDeleter.put(f, j);
+                }
+            }
+        }
+        for (int[] link : links) {
+            final int producer = link[0];
+            final int consumer = link[1];
+            if (producer >= 0 && consumer < n) {
+                before[consumer].set(producer);
+            }
+            // The threats are before the producer or after the consumer, as in the sequential plan
+            final BitSet[] threats = link[3] == 1 ? deleted : added;
+            for (int k = 0; k < n; k++) {
+                if (k != producer && k != consumer && threats[k].get(link[2])) {
+                    if (k < producer) {
+                        before[producer].set(k);
+                    } else if (k > consumer) {
+                        before[k].set(consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the orderings of the actions that interfere, in the classical problem or through their durative actions.
+     */
+    private void addInterferences(BitSet[] positive, BitSet[] negative, BitSet[] added, BitSet[] deleted,
+                                  GroundDurativeAction[] matched, BitSet[] before) {
+        final int n = before.length;
+        final BitSet[][] compressed = new BitSet[n][];
+        for (int j = 0; j < n; j++) {
+            if (matched[j] != null) {
+                compressed[j] = compress(matched[j]);
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < j; i++) {
+                if (interfere(positive[i], negative[i], added[i], deleted[i], positive[j], negative[j], added[j],
+                    deleted[j]) || compressed[i] != null && compressed[j] != null
+                    && (interfere(compressed[i][0], compressed[i][1], compressed[i][2], compressed[i][3],
+                    compressed[j][0], compressed[j][1], compressed[j][2], compressed[j][3])
+                    || compressed[i][5].intersects(compressed[j][4]) || compressed[i][5].intersects(compressed[j][5])
+                    || compressed[i][4].intersects(compressed[j][5]))) {
+                    before[j].set(i);
+                }
+            }
+        }
+    }
+
+    private static boolean interfere(BitSet positive1, BitSet negative1, BitSet added1, BitSet deleted1,
+                                     BitSet positive2, BitSet negative2, BitSet added2, BitSet deleted2) {
+        return deleted1.intersects(positive2) || deleted1.intersects(added2) || added1.intersects(negative2)
+            || added1.intersects(deleted2) || deleted2.intersects(positive1) || added2.intersects(negative1);
+    }
+
+    /**
+     * Returns the fluents a durative action needs, forbids, adds and deletes at any time, and the numeric variables it
+     * reads and updates.
+     */
+    private static BitSet[] compress(GroundDurativeAction action) {
+        final BitSet positive = new BitSet();
+        final BitSet negative = new BitSet();
+        for (GroundCondition condition : List.of(action.getAtStart(), action.getOverAll(), action.getAtEnd())) {
+            positive.or(condition.getPositive());
+            negative.or(condition.getNegative());
+            condition.getDisjunctions().forEach(positive::or);
+        }
+        final BitSet added = new BitSet();
+        final BitSet deleted = new BitSet();
+        for (GroundEffect effect : List.of(action.getStartEffect(), action.getEndEffect())) {
+            added.or(effect.getAdded());
+            deleted.or(effect.getDeleted());
+        }
+        return new BitSet[] {positive, negative, added, deleted, action.getReads(), action.getWrites()};
+    }
+
+    /**
+     * Returns the durative action matching a classical action done in a state, null if no durative action matches.
+     */
+    private GroundDurativeAction match(Action op, BitSet state) {
+        final List<GroundDurativeAction> candidates = durativeActions.get(this.toString(op));
+        if (candidates == null) {
+            return null;
+        }
+        for (GroundDurativeAction candidate : candidates) {
+            if (this.holds(candidate.getAtStart(), state) && this.holds(candidate.getOverAll(), state)) {
+                return candidate;
+            }
+        }
+        return candidates.get(0);
+    }
+
+    /**
+     * Returns if the positive fluents of a durative condition that the classical problem has hold in a state.
+     */
+    private boolean holds(GroundCondition condition, BitSet state) {
+        final BitSet positive = condition.getPositive();
+        for (int f = positive.nextSetBit(0); f >= 0; f = positive.nextSetBit(f + 1)) {
+            if (fluents[f] >= 0 && !state.get(fluents[f])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a classical action as in a plan, e.g., {@code fill-box r1 b1 medicine depot}.
+     */
+    private String toString(Action op) {
+        final StringBuilder str = new StringBuilder(op.getName());
+        for (int object : op.getInstantiations()) {
+            str.append(' ').append(problem.getConstantSymbols().get(object));
+        }
+        return str.toString();
+    }
+
+    /**
+     * Returns the bits of a bit vector of PDDL4J as a bitset.
+     *
+     * @param vector the bit vector.
+     * @return a new bitset with the same bits.
+     */
+    private static BitSet toBitSet(BitVector vector) {
+        final BitSet res = new BitSet();
+        for (int f = vector.nextSetBit(0); f >= 0; f = vector.nextSetBit(f + 1)) {
+            res.set(f);
+        }
+        return res;
+    }
+}
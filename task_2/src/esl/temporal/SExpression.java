@@ -0,0 +1,145 @@
+package esl.temporal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A node of the tree of parentheses of a PDDL file: either an atom, i.e., a keyword, a name, a variable or a number,
+ * or a list of nodes. The atoms are lower case, since PDDL is not case sensitive.
+ */
+final class SExpression {
+
+    /**
+     * The text of the atom, null if the expression is a list.
+     */
+    private final String atom;
+
+    /**
+     * The elements of the list, null if the expression is an atom.
+     */
+    private final List<SExpression> children;
+
+    /**
+     * Creates a new expression.
+     *
+     * @param atom     the text of the atom, null for a list.
+     * @param children the elements of the list, null for an atom.
+     */
+    private SExpression(String atom, List<SExpression> children) {
+        this.atom = atom;
+        this.children = children;
+    }
+
+    /**
+     * Reads the expressions of a text, skipping the comments.
+     *
+     * @param text the text.
+     * @return the expressions at the top level of the text.
+     * @throws IllegalArgumentException if the parentheses of the text are not balanced.
+     */
+    static List<SExpression> parse(String text) {
+        final List<List<SExpression>> stack = new ArrayList<>();
+        stack.add(new ArrayList<>());
+        int i = 0;
+        while (i < text.length()) {
+            final char c = text.charAt(i);
+            if (c == ';') {
+                while (i < text.length() && text.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '(') {
+                stack.add(new ArrayList<>());
+                i++;
+            } else if (c == ')') {
+                if (stack.size() == 1) {
+                    throw new IllegalArgumentException("unexpected ')' at offset " + i);
+                }
+                final List<SExpression> list = stack.remove(stack.size() - 1);
+                stack.get(stack.size() - 1).add(new SExpression(null, Collections.unmodifiableList(list)));
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                final int begin = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                    && "();".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                stack.get(stack.size() - 1).add(new SExpression(text.substring(begin, i).toLowerCase(), null));
+            }
+        }
+        if (stack.size() != 1) {
+            throw new IllegalArgumentException("missing ')' at the end of the text");
+        }
+        return stack.get(0);
+    }
+
+    /**
+     * Returns if the expression is an atom.
+     *
+     * @return <code>true</code> if the expression is an atom, <code>false</code> if it is a list.
+     */
+    boolean isAtom() {
+        return atom != null;
+    }
+
+    /**
+     * Returns the text of the atom.
+     *
+     * @return the text of the atom, null if the expression is a list.
+     */
+    String getAtom() {
+        return atom;
+    }
+
+    /**
+     * Returns the number of elements of the list.
+     *
+     * @return the number of elements of the list, 0 if the expression is an atom.
+     */
+    int size() {
+        return children == null ? 0 : children.size();
+    }
+
+    /**
+     * Returns an element of the list.
+     *
+     * @param index the index of the element.
+     * @return the element at the specified index.
+     */
+    SExpression get(int index) {
+        return children.get(index);
+    }
+
+    /**
+     * Returns the elements of the list.
+     *
+     * @return an unmodifiable list of the elements, empty if the expression is an atom.
+     */
+    List<SExpression> getChildren() {
+        return children == null ? List.of() : children;
+    }
+
+    /**
+     * Returns if the expression is a list whose first element is the specified atom, e.g., {@code (and ...)}.
+     *
+     * @param keyword the atom.
+     * @return <code>true</code> if the first element of the list is the atom, <code>false</code> otherwise.
+     */
+    boolean startsWith(String keyword) {
+        return size() > 0 && get(0).isAtom() && get(0).getAtom().equals(keyword);
+    }
+
+    @Override
+    public String toString() {
+        if (isAtom()) {
+            return atom;
+        }
+        final StringBuilder str = new StringBuilder("(");
+        for (int i = 0; i < children.size(); i++) {
+            str.append(i == 0 ? "" : " ").append(children.get(i));
+        }
+        return str.append(')').toString();
+    }
+}
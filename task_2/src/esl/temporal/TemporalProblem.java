@@ -0,0 +1,881 @@
+package esl.temporal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A temporal problem read from a PDDL domain with durative actions and a PDDL problem, and grounded with the objects of
+ * the problem.
+ *
+ * <p>The problem is read by a native reader since the parser of PDDL4J rejects the effects {@code (at start (and ...))}
+ * of the durative ESL domain and its instantiation does not support numeric durations. The reader supports typing,
+ * durative actions whose duration is {@code (= ?duration expression)} with an arithmetic expression over the numeric
+ * fluents, conditions made of literals and disjunctions of atoms, effects made of literals and numeric updates, and a
+ * conjunctive goal.</p>
+ *
+ * <p>The actions are grounded by binding their parameters one at a time. A literal of a condition is static if no
+ * effect of the domain can change it: it is then checked against the initial state as soon as its parameters are
+ * bound, so that the bindings that can never be applied are pruned early, and left out of the ground condition. The
+ * fluents of the problem are the atoms of the initial state and the atoms of the ground actions and of the goal; they
+ * are identified by their PDDL text, e.g., {@code (at r1 depot)}.</p>
+ */
+public final class TemporalProblem {
+
+    /**
+     * The root type of PDDL, the type of the names declared without type.
+     */
+    private static final String OBJECT = "object";
+
+    /**
+     * A durative action of the domain, before grounding.
+     */
+    private static final class Schema {
+
+        /**
+         * The name of the action.
+         */
+        private final String name;
+
+        /**
+         * The parameters of the action, e.g., {@code ?r}.
+         */
+        private final String[] parameters;
+
+        /**
+         * The types of the parameters of the action.
+         */
+        private final String[] types;
+
+        /**
+         * The expression of the duration of the action.
+         */
+        private final SExpression duration;
+
+        /**
+         * The condition of the action, null if the action has no condition.
+         */
+        private final SExpression condition;
+
+        /**
+         * The effect of the action, null if the action has no effect.
+         */
+        private final SExpression effect;
+
+        /**
+         * Creates a new durative action of the domain.
+         *
+         * @param name       the name of the action.
+         * @param parameters the parameters of the action.
+         * @param types      the types of the parameters.
+         * @param duration   the expression of the duration.
+         * @param condition  the condition, null if the action has no condition.
+         * @param effect     the effect, null if the action has no effect.
+         */
+        private Schema(String name, String[] parameters, String[] types, SExpression duration, SExpression condition,
+                       SExpression effect) {
+            this.name = name;
+            this.parameters = parameters;
+            this.types = types;
+            this.duration = duration;
+            this.condition = condition;
+            this.effect = effect;
+        }
+    }
+
+    /**
+     * The name of the domain.
+     */
+    private String domainName;
+
+    /**
+     * The name of the problem.
+     */
+    private String problemName;
+
+    /**
+     * The parent type of each type.
+     */
+    private final Map<String, String> parents = new HashMap<>();
+
+    /**
+     * The objects and the constants with their declared type, in order of declaration.
+     */
+    private final Map<String, String> objects = new LinkedHashMap<>();
+
+    /**
+     * The durative actions of the domain, before grounding.
+     */
+    private final List<Schema> schemas = new ArrayList<>();
+
+    /**
+     * The PDDL text of the fluents, indexed by their id.
+     */
+    private final List<String> fluents = new ArrayList<>();
+
+    /**
+     * The id of each fluent, indexed by its PDDL text.
+     */
+    private final Map<String, Integer> fluentIds = new HashMap<>();
+
+    /**
+     * The PDDL text of the numeric variables, e.g., {@code (battery r1)}, indexed by their id.
+     */
+    private final List<String> variables = new ArrayList<>();
+
+    /**
+     * The id of each numeric variable, indexed by its PDDL text.
+     */
+    private final Map<String, Integer> variableIds = new HashMap<>();
+
+    /**
+     * The atoms of the initial state.
+     */
+    private final Set<String> initialAtoms = new HashSet<>();
+
+    /**
+     * The values of the numeric variables in the initial state, indexed by their PDDL text.
+     */
+    private final Map<String, Double> initialValues = new HashMap<>();
+
+    /**
+     * The fluents that hold in the initial state.
+     */
+    private final BitSet initialFacts = new BitSet();
+
+    /**
+     * The values of the numeric variables in the initial state, indexed by their id.
+     */
+    private double[] initialState;
+
+    /**
+     * The goal of the problem.
+     */
+    private final GroundCondition goal = new GroundCondition();
+
+    /**
+     * The ground actions of the problem.
+     */
+    private final List<GroundDurativeAction> actions = new ArrayList<>();
+
+    /**
+     * The arguments of the atoms of each predicate in the effects of the domain, a parameter being replaced by its
+     * type prefixed by '?', e.g., [?robot, ?location] for (at ?r ?l).
+     */
+    private final Map<String, List<String[]>> modifiable = new HashMap<>();
+
+    /**
+     * The cache telling if a ground atom is static, indexed by its PDDL text.
+     */
+    private final Map<String, Boolean> statics = new HashMap<>();
+
+    /**
+     * Creates a new empty problem. The problem is filled by {@link #parse(File, File)}.
+     */
+    private TemporalProblem() {
+    }
+
+    /**
+     * Reads and grounds a temporal problem.
+     *
+     * @param domain  the domain file.
+     * @param problem the problem file.
+     * @return the grounded problem.
+     * @throws IOException              if a file cannot be read.
+     * @throws IllegalArgumentException if a file is not a valid PDDL file or uses a feature not supported.
+     */
+    public static TemporalProblem parse(File domain, File problem) throws IOException {
+        final TemporalProblem res = new TemporalProblem();
+        res.readDomain(single(SExpression.parse(Files.readString(domain.toPath())), domain));
+        res.readProblem(single(SExpression.parse(Files.readString(problem.toPath())), problem));
+        res.ground();
+        return res;
+    }
+
+    /**
+     * Returns the single expression of a PDDL file.
+     *
+     * @param expressions the expressions read from the file.
+     * @param file        the file, for the error message.
+     * @return the expression {@code (define ...)} of the file.
+     * @throws IllegalArgumentException if the file does not hold a single {@code (define ...)}.
+     */
+    private static SExpression single(List<SExpression> expressions, File file) {
+        if (expressions.size() != 1 || !expressions.get(0).startsWith("define")) {
+            throw new IllegalArgumentException(file + ": expected a single (define ...)");
+        }
+        return expressions.get(0);
+    }
+
+    /**
+     * Returns the name of the domain.
+     *
+     * @return the name of the domain.
+     */
+    public String getDomainName() {
+        return domainName;
+    }
+
+    /**
+     * Returns the name of the problem.
+     *
+     * @return the name of the problem.
+     */
+    public String getProblemName() {
+        return problemName;
+    }
+
+    /**
+     * Returns the objects and the constants of the problem with their declared type, in order of declaration.
+     *
+     * @return an unmodifiable view of the objects of the problem.
+     */
+    public Map<String, String> getObjects() {
+        return Collections.unmodifiableMap(objects);
+    }
+
+    /**
+     * Returns the number of fluents of the problem.
+     *
+     * @return the number of fluents of the problem.
+     */
+    public int getFluentCount() {
+        return fluents.size();
+    }
+
+    /**
+     * Returns the PDDL text of a fluent, e.g., {@code (at r1 depot)}.
+     *
+     * @param fluent the id of the fluent.
+     * @return the PDDL text of the fluent.
+     */
+    public String getFluent(int fluent) {
+        return fluents.get(fluent);
+    }
+
+    /**
+     * Returns the id of the fluent with the specified PDDL text.
+     *
+     * @param fluent the PDDL text of the fluent.
+     * @return the id of the fluent, -1 if the problem has no such fluent.
+     */
+    public int getFluent(String fluent) {
+        return fluentIds.getOrDefault(fluent, -1);
+    }
+
+    /**
+     * Returns the ground actions of the problem. The index of an action in the list is its index.
+     *
+     * @return an unmodifiable view of the ground actions of the problem.
+     */
+    public List<GroundDurativeAction> getActions() {
+        return Collections.unmodifiableList(actions);
+    }
+
+    /**
+     * Returns the fluents that hold in the initial state. The bitset is shared and must not be modified.
+     *
+     * @return the fluents that hold in the initial state.
+     */
+    BitSet getInitialFacts() {
+        return initialFacts;
+    }
+
+    /**
+     * Returns the values of the numeric variables in the initial state. The array is shared and must not be modified.
+     *
+     * @return the values of the numeric variables indexed by their id, NaN for the variables not initialized.
+     */
+    double[] getInitialValues() {
+        return initialState;
+    }
+
+    /**
+     * Returns the goal of the problem.
+     *
+     * @return the goal of the problem.
+     */
+    GroundCondition getGoal() {
+        return goal;
+    }
+
+    /**
+     * Returns the fluents that must hold in the goal.
+     *
+     * @return a copy of the positive fluents of the goal.
+     */
+    public BitSet getGoalFluents() {
+        return (BitSet) goal.getPositive().clone();
+    }
+
+    // Reading of the domain and of the problem
+
+    /**
+     * Reads the types, the constants and the durative actions of a domain.
+     *
+     * @param define the expression {@code (define ...)} of the domain.
+     * @throws IllegalArgumentException if the domain uses a feature not supported.
+     */
+    private void readDomain(SExpression define) {
+        for (SExpression section : define.getChildren().subList(1, define.size())) {
+            if (section.startsWith("domain")) {
+                domainName = section.get(1).getAtom();
+            } else if (section.startsWith(":types")) {
+                parents.putAll(readTypedList(section, 1));
+            } else if (section.startsWith(":constants")) {
+                objects.putAll(readTypedList(section, 1));
+            } else if (section.startsWith(":durative-action")) {
+                readSchema(section);
+            } else if (section.startsWith(":action")) {
+                throw new IllegalArgumentException("instantaneous action not supported: " + section.get(1));
+            } else if (!section.startsWith(":requirements") && !section.startsWith(":predicates")
+                && !section.startsWith(":functions")) {
+                throw new IllegalArgumentException("domain section not supported: " + section.get(0));
+            }
+        }
+    }
+
+    /**
+     * Reads a typed list such as {@code a b - t c}, the names without type having the type object.
+     *
+     * @param list the expression holding the list.
+     * @param from the index of the first element of the list in the expression.
+     * @return the names of the list with their type, in order of declaration.
+     */
+    private static Map<String, String> readTypedList(SExpression list, int from) {
+        final Map<String, String> res = new LinkedHashMap<>();
+        final List<String> pending = new ArrayList<>();
+        for (int i = from; i < list.size(); i++) {
+            final SExpression elem = list.get(i);
+            if (!elem.isAtom()) {
+                throw new IllegalArgumentException("unexpected " + elem + " in " + list);
+            }
+            if (elem.getAtom().equals("-")) {
+                if (i + 1 == list.size() || !list.get(i + 1).isAtom()) {
+                    throw new IllegalArgumentException("missing type in " + list);
+                }
+                final String type = list.get(++i).getAtom();
+                pending.forEach(name -> res.put(name, type));
+                pending.clear();
+            } else {
+                pending.add(elem.getAtom());
+            }
+        }
+        pending.forEach(name -> res.put(name, OBJECT));
+        return res;
+    }
+
+    /**
+     * Reads a durative action of the domain and records the atoms of its effect.
+     *
+     * @param action the expression {@code (:durative-action ...)}.
+     * @throws IllegalArgumentException if the duration of the action is not supported.
+     */
+    private void readSchema(SExpression action) {
+        final String name = action.get(1).getAtom();
+        final Map<String, SExpression> fields = new HashMap<>();
+        for (int i = 2; i + 1 < action.size(); i += 2) {
+            fields.put(action.get(i).getAtom(), action.get(i + 1));
+        }
+        final Map<String, String> parameters = fields.containsKey(":parameters")
+            ? readTypedList(fields.get(":parameters"), 0) : Map.of();
+        final SExpression duration = fields.get(":duration");
+        if (duration == null || !duration.startsWith("=") || duration.size() != 3
+            || !"?duration".equals(duration.get(1).getAtom())) {
+            throw new IllegalArgumentException(name + ": duration not supported: " + duration);
+        }
+        final Schema schema = new Schema(name, parameters.keySet().toArray(new String[0]),
+            parameters.values().toArray(new String[0]), duration.get(2), fields.get(":condition"),
+            fields.get(":effect"));
+        schemas.add(schema);
+        if (schema.effect != null) {
+            collectModifiable(schema, schema.effect);
+        }
+    }
+
+    /**
+     * Records the atoms of an effect of a schema, before grounding, to tell the static literals.
+     *
+     * @param schema the action of the effect.
+     * @param effect the effect.
+     */
+    private void collectModifiable(Schema schema, SExpression effect) {
+        if (effect.startsWith("and") || timeOf(effect) != null) {
+            final int from = effect.startsWith("and") ? 1 : 2;
+            for (SExpression child : effect.getChildren().subList(from, effect.size())) {
+                collectModifiable(schema, child);
+            }
+        } else if (effect.startsWith("not")) {
+            collectModifiable(schema, effect.get(1));
+        } else if (!isNumericUpdate(effect) && effect.size() > 0) {
+            final String[] arguments = new String[effect.size() - 1];
+            for (int i = 1; i < effect.size(); i++) {
+                final String term = effect.get(i).getAtom();
+                arguments[i - 1] = term.startsWith("?") ? "?" + typeOf(schema, term) : term;
+            }
+            modifiable.computeIfAbsent(effect.get(0).getAtom(), p -> new ArrayList<>()).add(arguments);
+        }
+    }
+
+    /**
+     * Returns the time of a timed condition or effect, i.e., start for {@code (at start ...)}, end for
+     * {@code (at end ...)} and all for {@code (over all ...)}.
+     *
+     * @param expression the condition or the effect.
+     * @return the time of the expression, null if the expression is not timed.
+     */
+    private static String timeOf(SExpression expression) {
+        if (expression.size() != 3 || !expression.get(1).isAtom()
+            || !(expression.startsWith("at") || expression.startsWith("over"))) {
+            return null;
+        }
+        final String time = expression.get(1).getAtom();
+        return time.equals("start") || time.equals("end") || time.equals("all") ? time : null;
+    }
+
+    /**
+     * Returns if an effect is a numeric update such as {@code (decrease (battery ?r) 10)}.
+     *
+     * @param effect the effect.
+     * @return <code>true</code> if the effect is a numeric update, <code>false</code> otherwise.
+     */
+    private static boolean isNumericUpdate(SExpression effect) {
+        return effect.startsWith("increase") || effect.startsWith("decrease") || effect.startsWith("assign")
+            || effect.startsWith("scale-up") || effect.startsWith("scale-down");
+    }
+
+    /**
+     * Returns the type of a parameter of an action.
+     *
+     * @param schema    the action.
+     * @param parameter the parameter, e.g., {@code ?r}.
+     * @return the type of the parameter.
+     * @throws IllegalArgumentException if the action has no such parameter.
+     */
+    private static String typeOf(Schema schema, String parameter) {
+        for (int i = 0; i < schema.parameters.length; i++) {
+            if (schema.parameters[i].equals(parameter)) {
+                return schema.types[i];
+            }
+        }
+        throw new IllegalArgumentException(schema.name + ": unknown parameter " + parameter);
+    }
+
+    /**
+     * Reads the objects, the initial state and the goal of a problem.
+     *
+     * @param define the expression {@code (define ...)} of the problem.
+     * @throws IllegalArgumentException if the problem uses a feature not supported.
+     */
+    private void readProblem(SExpression define) {
+        for (SExpression section : define.getChildren().subList(1, define.size())) {
+            if (section.startsWith("problem")) {
+                problemName = section.get(1).getAtom();
+            } else if (section.startsWith(":objects")) {
+                objects.putAll(readTypedList(section, 1));
+            } else if (section.startsWith(":init")) {
+                for (SExpression fact : section.getChildren().subList(1, section.size())) {
+                    if (fact.startsWith("=")) {
+                        initialValues.put(fact.get(1).toString(), Double.parseDouble(fact.get(2).getAtom()));
+                    } else {
+                        initialAtoms.add(fact.toString());
+                    }
+                }
+            } else if (section.startsWith(":goal")) {
+                readGoal(section.get(1));
+            } else if (!section.startsWith(":domain") && !section.startsWith(":metric")) {
+                throw new IllegalArgumentException("problem section not supported: " + section.get(0));
+            }
+        }
+        for (String atom : initialAtoms) {
+            initialFacts.set(fluent(atom));
+        }
+    }
+
+    /**
+     * Adds the literals of a conjunctive goal to the goal of the problem.
+     *
+     * @param goal the goal.
+     */
+    private void readGoal(SExpression goal) {
+        if (goal.startsWith("and")) {
+            goal.getChildren().subList(1, goal.size()).forEach(this::readGoal);
+        } else if (goal.startsWith("not")) {
+            this.goal.getNegative().set(fluent(goal.get(1).toString()));
+        } else {
+            this.goal.getPositive().set(fluent(goal.toString()));
+        }
+    }
+
+    /**
+     * Returns the id of a fluent, a new id being given to a fluent not met before.
+     *
+     * @param atom the PDDL text of the fluent.
+     * @return the id of the fluent.
+     */
+    private int fluent(String atom) {
+        return fluentIds.computeIfAbsent(atom, a -> {
+            fluents.add(a);
+            return fluents.size() - 1;
+        });
+    }
+
+    /**
+     * Returns the id of a numeric variable, a new id being given to a variable not met before.
+     *
+     * @param term the PDDL text of the variable.
+     * @return the id of the variable.
+     */
+    private int variable(String term) {
+        return variableIds.computeIfAbsent(term, t -> {
+            variables.add(t);
+            return variables.size() - 1;
+        });
+    }
+
+    // Grounding
+
+    /**
+     * Returns if a type is a subtype of another type, every type being a subtype of itself and of object.
+     *
+     * @param type     the type.
+     * @param ancestor the other type.
+     * @return <code>true</code> if the type is a subtype of the other type, <code>false</code> otherwise.
+     */
+    private boolean isSubtype(String type, String ancestor) {
+        for (String t = type; t != null; t = parents.get(t)) {
+            if (t.equals(ancestor)) {
+                return true;
+            }
+        }
+        return ancestor.equals(OBJECT);
+    }
+
+    /**
+     * Grounds the actions of the domain with the objects of the problem and sets the initial values of the numeric
+     * variables met while grounding.
+     */
+    private void ground() {
+        for (Schema schema : schemas) {
+            final List<List<String>> domains = new ArrayList<>();
+            for (String type : schema.types) {
+                final List<String> domain = new ArrayList<>();
+                objects.forEach((object, t) -> {
+                    if (isSubtype(t, type)) {
+                        domain.add(object);
+                    }
+                });
+                domains.add(domain);
+            }
+            final List<SExpression> literals = new ArrayList<>();
+            if (schema.condition != null) {
+                collectLiterals(schema.condition, literals);
+            }
+            bind(schema, domains, literals, new String[schema.parameters.length], 0);
+        }
+        initialState = new double[variables.size()];
+        for (int v = 0; v < initialState.length; v++) {
+            initialState[v] = initialValues.getOrDefault(variables.get(v), Double.NaN);
+        }
+    }
+
+    /**
+     * Collects the literals of a condition that are not inside a disjunction, to check the static ones while binding.
+     *
+     * @param condition the condition.
+     * @param literals  the list where the literals are added.
+     */
+    private static void collectLiterals(SExpression condition, List<SExpression> literals) {
+        if (condition.startsWith("and")) {
+            condition.getChildren().subList(1, condition.size()).forEach(c -> collectLiterals(c, literals));
+        } else if (timeOf(condition) != null) {
+            collectLiterals(condition.get(2), literals);
+        } else if (!condition.startsWith("or")) {
+            literals.add(condition);
+        }
+    }
+
+    /**
+     * Binds the parameters of an action from a depth onward and instantiates the action for each complete binding
+     * consistent with the static literals.
+     *
+     * @param schema   the action.
+     * @param domains  the objects each parameter can be bound to.
+     * @param literals the literals of the condition of the action.
+     * @param binding  the objects bound to the parameters before the depth.
+     * @param depth    the index of the next parameter to bind.
+     */
+    private void bind(Schema schema, List<List<String>> domains, List<SExpression> literals, String[] binding,
+                      int depth) {
+        if (depth == binding.length) {
+            instantiate(schema, binding.clone());
+            return;
+        }
+        for (String object : domains.get(depth)) {
+            binding[depth] = object;
+            if (isConsistent(schema, literals, binding, depth)) {
+                bind(schema, domains, literals, binding, depth + 1);
+            }
+        }
+        binding[depth] = null;
+    }
+
+    /**
+     * Returns if the static literals whose last parameter is the parameter at the specified depth hold in the initial
+     * state.
+     *
+     * @param schema   the action.
+     * @param literals the literals of the condition of the action.
+     * @param binding  the objects bound to the parameters up to the depth.
+     * @param depth    the index of the parameter bound last.
+     * @return <code>false</code> if a static literal does not hold, <code>true</code> otherwise.
+     */
+    private boolean isConsistent(Schema schema, List<SExpression> literals, String[] binding, int depth) {
+        for (SExpression literal : literals) {
+            final boolean positive = !literal.startsWith("not");
+            final SExpression atom = positive ? literal : literal.get(1);
+            int last = -1;
+            for (SExpression term : atom.getChildren().subList(1, atom.size())) {
+                last = Math.max(last, indexOf(schema, term.getAtom()));
+            }
+            if (last == depth) {
+                final Boolean value = evaluateStatic(groundAtom(schema, atom, binding));
+                if (value != null && value != positive) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of a parameter of an action.
+     *
+     * @param schema the action.
+     * @param term   the term, a parameter or a constant.
+     * @return the index of the parameter, -1 if the term is not a parameter of the action.
+     */
+    private static int indexOf(Schema schema, String term) {
+        for (int i = 0; i < schema.parameters.length; i++) {
+            if (schema.parameters[i].equals(term)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the PDDL text of an atom whose parameters are replaced by the objects they are bound to.
+     *
+     * @param schema  the action.
+     * @param atom    the atom.
+     * @param binding the objects bound to the parameters.
+     * @return the PDDL text of the ground atom.
+     */
+    private static String groundAtom(Schema schema, SExpression atom, String[] binding) {
+        final StringBuilder str = new StringBuilder("(").append(atom.get(0).getAtom());
+        for (SExpression term : atom.getChildren().subList(1, atom.size())) {
+            final int parameter = indexOf(schema, term.getAtom());
+            str.append(' ').append(parameter < 0 ? term.getAtom() : binding[parameter]);
+        }
+        return str.append(')').toString();
+    }
+
+    /**
+     * Returns the value of a ground atom if it is static, i.e., if no effect of the domain can change it.
+     *
+     * @param atom the PDDL text of the ground atom.
+     * @return the value of the atom in the initial state, null if the atom is not static.
+     */
+    private Boolean evaluateStatic(String atom) {
+        final boolean isStatic = statics.computeIfAbsent(atom, a -> {
+            final String[] terms = a.substring(1, a.length() - 1).split(" ");
+            for (String[] arguments : modifiable.getOrDefault(terms[0], List.of())) {
+                boolean matches = arguments.length == terms.length - 1;
+                for (int i = 0; matches && i < arguments.length; i++) {
+                    final String object = terms[i + 1];
+                    matches = arguments[i].startsWith("?")
+                        ? objects.containsKey(object) && isSubtype(objects.get(object), arguments[i].substring(1))
+                        : arguments[i].equals(object);
+                }
+                if (matches) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        return isStatic ? initialAtoms.contains(atom) : null;
+    }
+
+    /**
+     * Instantiates an action with a complete binding and adds it to the actions of the problem unless its condition
+     * cannot hold.
+     *
+     * @param schema  the action.
+     * @param binding the objects bound to the parameters.
+     */
+    private void instantiate(Schema schema, String[] binding) {
+        final GroundDurativeAction action = new GroundDurativeAction(actions.size(), schema.name, schema.parameters,
+            binding);
+        if (schema.condition != null && !groundCondition(schema, schema.condition, binding, action, null)) {
+            return;
+        }
+        if (schema.effect != null) {
+            groundEffect(schema, schema.effect, binding, action, null);
+        }
+        action.setDuration(compile(schema, schema.duration, binding, action.getReads()));
+        actions.add(action);
+    }
+
+    /**
+     * Grounds a condition of a schema into the conditions of the action.
+     *
+     * @param schema    the action of the condition.
+     * @param condition the condition.
+     * @param binding   the objects bound to the parameters.
+     * @param action    the ground action.
+     * @param time      the condition of the action at the time of the condition, null outside of {@code at start},
+     *                  {@code over all} or {@code at end}.
+     * @return <code>false</code> if the condition can never hold, <code>true</code> otherwise.
+     * @throws IllegalArgumentException if the condition is not supported.
+     */
+    private boolean groundCondition(Schema schema, SExpression condition, String[] binding,
+                                    GroundDurativeAction action, GroundCondition time) {
+        if (condition.startsWith("and")) {
+            for (SExpression child : condition.getChildren().subList(1, condition.size())) {
+                if (!groundCondition(schema, child, binding, action, time)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        final String when = timeOf(condition);
+        if (when != null) {
+            final GroundCondition at = when.equals("start") ? action.getAtStart()
+                : when.equals("end") ? action.getAtEnd() : action.getOverAll();
+            return groundCondition(schema, condition.get(2), binding, action, at);
+        }
+        if (time == null) {
+            throw new IllegalArgumentException(schema.name + ": condition without time: " + condition);
+        }
+        if (condition.startsWith("or")) {
+            final BitSet disjunction = new BitSet();
+            for (SExpression atom : condition.getChildren().subList(1, condition.size())) {
+                if (atom.startsWith("not")) {
+                    throw new IllegalArgumentException(schema.name + ": negation in disjunction: " + condition);
+                }
+                final String ground = groundAtom(schema, atom, binding);
+                final Boolean value = evaluateStatic(ground);
+                if (value == null) {
+                    disjunction.set(fluent(ground));
+                } else if (value) {
+                    return true;
+                }
+            }
+            if (disjunction.isEmpty()) {
+                return false;
+            }
+            time.getDisjunctions().add(disjunction);
+            return true;
+        }
+        final boolean positive = !condition.startsWith("not");
+        final String ground = groundAtom(schema, positive ? condition : condition.get(1), binding);
+        final Boolean value = evaluateStatic(ground);
+        if (value != null) {
+            return value == positive;
+        }
+        (positive ? time.getPositive() : time.getNegative()).set(fluent(ground));
+        return true;
+    }
+
+    /**
+     * Grounds an effect of a schema into the effects of the action.
+     *
+     * @param schema  the action of the effect.
+     * @param effect  the effect.
+     * @param binding the objects bound to the parameters.
+     * @param action  the ground action.
+     * @param time    the effect of the action at the time of the effect, null outside of {@code at start} or
+     *                {@code at end}.
+     * @throws IllegalArgumentException if the effect is not supported.
+     */
+    private void groundEffect(Schema schema, SExpression effect, String[] binding, GroundDurativeAction action,
+                              GroundEffect time) {
+        if (effect.startsWith("and")) {
+            for (SExpression child : effect.getChildren().subList(1, effect.size())) {
+                groundEffect(schema, child, binding, action, time);
+            }
+        } else if (timeOf(effect) != null) {
+            if (timeOf(effect).equals("all")) {
+                throw new IllegalArgumentException(schema.name + ": effect over all: " + effect);
+            }
+            groundEffect(schema, effect.get(2), binding, action,
+                timeOf(effect).equals("start") ? action.getStartEffect() : action.getEndEffect());
+        } else if (time == null) {
+            throw new IllegalArgumentException(schema.name + ": effect without time: " + effect);
+        } else if (isNumericUpdate(effect)) {
+            final int variable = variable(groundAtom(schema, effect.get(1), binding));
+            action.getWrites().set(variable);
+            time.getUpdates().add(new GroundEffect.Update(effect.get(0).getAtom(), variable,
+                compile(schema, effect.get(2), binding, action.getReads())));
+        } else if (effect.startsWith("not")) {
+            time.getDeleted().set(fluent(groundAtom(schema, effect.get(1), binding)));
+        } else {
+            time.getAdded().set(fluent(groundAtom(schema, effect, binding)));
+        }
+    }
+
+    /**
+     * Compiles a numeric expression of a schema into a function of the values of the numeric variables.
+     *
+     * @param schema     the action of the expression.
+     * @param expression the expression.
+     * @param binding    the objects bound to the parameters.
+     * @param reads      the set where the numeric variables read by the expression are added.
+     * @return the function computing the value of the expression.
+     * @throws IllegalArgumentException if the expression is not supported.
+     */
+    private ToDoubleFunction<double[]> compile(Schema schema, SExpression expression, String[] binding,
+                                               BitSet reads) {
+        if (expression.isAtom()) {
+            try {
+                final double value = Double.parseDouble(expression.getAtom());
+                return values -> value;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(schema.name + ": expression not supported: " + expression);
+            }
+        }
+        final String operator = expression.get(0).getAtom();
+        if (expression.size() == 2 && "-".equals(operator)) {
+            final ToDoubleFunction<double[]> operand = compile(schema, expression.get(1), binding, reads);
+            return values -> -operand.applyAsDouble(values);
+        }
+        if (expression.size() == 3 && operator != null && "+-*/".contains(operator) && operator.length() == 1) {
+            final ToDoubleFunction<double[]> left = compile(schema, expression.get(1), binding, reads);
+            final ToDoubleFunction<double[]> right = compile(schema, expression.get(2), binding, reads);
+            switch (operator) {
+                case "+":
+                    return values -> left.applyAsDouble(values) + right.applyAsDouble(values);
+                case "-":
+                    return values -> left.applyAsDouble(values) - right.applyAsDouble(values);
+                case "*":
+                    return values -> left.applyAsDouble(values) * right.applyAsDouble(values);
+                default:
+                    return values -> left.applyAsDouble(values) / right.applyAsDouble(values);
+            }
+        }
+        final int variable = variable(groundAtom(schema, expression, binding));
+        reads.set(variable);
+        return values -> values[variable];
+    }
+}
@@ -0,0 +1,471 @@
+package esl.temporal;
+
+import fr.uga.pddl4j.heuristics.state.StateHeuristic;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * This class implements a weighted A* search over decision epochs that minimizes the makespan of a temporal plan.
+ *
+ * <p>A node of the search is a decision epoch: the facts and the values of the numeric variables at a time, with the
+ * actions started before and still running. A node has two kinds of successors: the nodes where an action starts at
+ * the time of the node, and the node where the time advances to the end of the running actions ending first, whose end
+ * effects are applied, the next actions being able to start {@link #EPSILON} later. Within an epoch the actions are
+ * started in increasing order of index, so that the same set of actions started at the same time is reached once. A
+ * start is applicable if the start condition of the action holds, if its start effects preserve the invariants of the
+ * running actions and of the action itself, and if the ESL rules find it worth; an end is applicable if the end
+ * condition holds and the end effects preserve the invariants of the actions still running. Actions of zero duration
+ * start and end at once.</p>
+ *
+ * <p>The cost of a node is the time at which its last running action ends and the estimate is the ESL estimate of the
+ * state reached once the running actions ended, in number of actions, multiplied by the mean duration of the actions.
+ * A node is a goal if the goal holds and no action is running.</p>
+ */
+public final class TemporalSearch {
+
+    /**
+     * The time between the end of an action and the start of the actions depending on it.
+     */
+    public static final double EPSILON = 0.001;
+
+    /**
+     * An action running in a node.
+     */
+    private static final class Running {
+
+        /**
+         * The action running.
+         */
+        private final GroundDurativeAction action;
+
+        /**
+         * The time at which the action started.
+         */
+        private final double start;
+
+        /**
+         * The time at which the action ends.
+         */
+        private final double end;
+
+        private Running(GroundDurativeAction action, double start, double end) {
+            this.action = action;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A node of the search: a decision epoch.
+     */
+    private static final class Node {
+
+        /**
+         * The fluents holding at the time of the node.
+         */
+        private final BitSet facts;
+
+        /**
+         * The values of the numeric variables at the time of the node.
+         */
+        private final double[] values;
+
+        /**
+         * The time of the node.
+         */
+        private final double time;
+
+        /**
+         * The actions running, in increasing order of end time.
+         */
+        private final Running[] running;
+
+        /**
+         * The index of the last action started at the time of the node, -1 if none.
+         */
+        private final int lastStarted;
+
+        /**
+         * The parent of the node, null for the root.
+         */
+        private final Node parent;
+
+        /**
+         * The action started to reach the node, null if the node was reached by advancing the time.
+         */
+        private final Running started;
+
+        /**
+         * The cost of the node: the time at which its last running action ends.
+         */
+        private double makespan;
+
+        /**
+         * The estimate of the node, in time.
+         */
+        private double heuristic;
+
+        private Node(BitSet facts, double[] values, double time, Running[] running, int lastStarted, Node parent,
+                     Running started) {
+            this.facts = facts;
+            this.values = values;
+            this.time = time;
+            this.running = running;
+            this.lastStarted = lastStarted;
+            this.parent = parent;
+            this.started = started;
+            this.makespan = running.length == 0 ? time : Math.max(time, running[running.length - 1].end);
+        }
+
+        private double getValueF(double weight) {
+            return makespan + weight * heuristic;
+        }
+    }
+
+    /**
+     * The key of a node in the closed list: two nodes with the same key have the same successors, shifted in time.
+     */
+    private static final class Key {
+
+        /**
+         * The facts of the node.
+         */
+        private final BitSet facts;
+
+        /**
+         * The values of the numeric variables of the node.
+         */
+        private final double[] values;
+
+        /**
+         * The indexes of the running actions.
+         */
+        private final int[] actions;
+
+        /**
+         * The remaining durations of the running actions, in multiples of {@link #EPSILON}.
+         */
+        private final long[] remaining;
+
+        /**
+         * The index of the last action started at the time of the node, -1 if none.
+         */
+        private final int lastStarted;
+
+        /**
+         * The hash code of the key.
+         */
+        private final int hash;
+
+        /**
+         * Creates the key of a node.
+         *
+         * @param node the node.
+         */
+        private Key(Node node) {
+            this.facts = node.facts;
+            this.values = node.values;
+            this.actions = new int[node.running.length];
+            this.remaining = new long[node.running.length];
+            for (int i = 0; i < actions.length; i++) {
+                actions[i] = node.running[i].action.getIndex();
+                remaining[i] = Math.round((node.running[i].end - node.time) / EPSILON);
+            }
+            this.lastStarted = node.lastStarted;
+            this.hash = 31 * (31 * (31 * facts.hashCode() + Arrays.hashCode(values)) + Arrays.hashCode(actions))
+                + 31 * Arrays.hashCode(remaining) + lastStarted;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return hash == other.hash && lastStarted == other.lastStarted && facts.equals(other.facts)
+                && Arrays.equals(values, other.values) && Arrays.equals(actions, other.actions)
+                && Arrays.equals(remaining, other.remaining);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The temporal problem to solve.
+     */
+    private final TemporalProblem problem;
+
+    /**
+     * The classical ESL domain whose pruning rules and estimate guide the search.
+     */
+    private final File classicalDomain;
+
+    /**
+     * The base heuristic of the ESL estimate.
+     */
+    private final StateHeuristic.Name base;
+
+    /**
+     * The weight of the heuristic.
+     */
+    private final double weight;
+
+    /**
+     * The timeout of the search in milliseconds.
+     */
+    private final int timeout;
+
+    /**
+     * The mean duration of the actions in the initial state, converting the ESL estimate into time.
+     */
+    private final double meanDuration;
+
+    /**
+     * The number of nodes explored by the last search.
+     */
+    private long exploredNodes;
+
+    /**
+     * The number of nodes created by the last search.
+     */
+    private long createdNodes;
+
+    /**
+     * The projection of the problem on the classical domain during the search, null otherwise.
+     */
+    private EslProjection projection;
+
+    /**
+     * Creates a new search.
+     *
+     * @param problem         the temporal problem.
+     * @param classicalDomain the classical ESL domain whose pruning rules and estimate guide the search, the search
+     *                        estimating the number of goals not satisfied if the domain cannot be read.
+     * @param base            the base heuristic of the ESL estimate.
+     * @param weight          the weight of the heuristic.
+     * @param timeout         the timeout of the search in milliseconds.
+     */
+    public TemporalSearch(TemporalProblem problem, File classicalDomain, StateHeuristic.Name base, double weight,
+                          int timeout) {
+        this.problem = problem;
+        this.classicalDomain = classicalDomain;
+        this.base = base;
+        this.weight = weight;
+        this.timeout = timeout;
+        this.meanDuration = problem.getActions().stream()
+            .mapToDouble(a -> a.getDuration(problem.getInitialValues()))
+            .filter(d -> d > 0 && Double.isFinite(d)).average().orElse(1.0);
+    }
+
+    /**
+     * Returns the number of nodes explored by the last search.
+     *
+     * @return the number of nodes explored.
+     */
+    public long getExploredNodes() {
+        return exploredNodes;
+    }
+
+    /**
+     * Returns the number of nodes created by the last search.
+     *
+     * @return the number of nodes created.
+     */
+    public long getCreatedNodes() {
+        return createdNodes;
+    }
+
+    /**
+     * Searches a plan of minimal makespan, as far as the heuristic allows.
+     *
+     * @return the plan found or null if no plan was found before the timeout.
+     */
+    public TimedPlan search() {
+        projection = EslProjection.create(problem, classicalDomain, base);
+        try {
+            return this.searchPlan();
+        } finally {
+            projection.release();
+            projection = null;
+        }
+    }
+
+    /**
+     * Searches a plan with the projection of the problem on the classical domain.
+     */
+    private TimedPlan searchPlan() {
+        final long begin = System.currentTimeMillis();
+        exploredNodes = 0;
+        createdNodes = 0;
+        final PriorityQueue<Node> open = new PriorityQueue<>(Comparator
+            .comparingDouble((Node n) -> n.getValueF(weight))
+            .thenComparingDouble(n -> n.heuristic)
+            .thenComparingDouble(n -> -n.time));
+        final Map<Key, Double> closed = new HashMap<>();
+        final Node root = new Node((BitSet) problem.getInitialFacts().clone(), problem.getInitialValues(), 0,
+            new Running[0], -1, null, null);
+        if (!evaluate(root)) {
+            return null;
+        }
+        open.add(root);
+        createdNodes++;
+        while (!open.isEmpty() && System.currentTimeMillis() - begin < timeout) {
+            final Node current = open.poll();
+            final Key key = new Key(current);
+            final Double best = closed.get(key);
+            if (best != null && best <= current.makespan) {
+                continue;
+            }
+            closed.put(key, current.makespan);
+            exploredNodes++;
+            if (current.running.length == 0 && problem.getGoal().isSatisfied(current.facts)) {
+                return extractPlan(current);
+            }
+            for (Node next : successors(current)) {
+                createdNodes++;
+                if (evaluate(next)) {
+                    open.add(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the estimate of a node.
+     *
+     * @return false if the goal cannot be reached from the node.
+     */
+    private boolean evaluate(Node node) {
+        final BitSet completed = (BitSet) node.facts.clone();
+        double[] values = node.values;
+        for (Running r : node.running) {
+            values = r.action.getEndEffect().apply(completed, values);
+        }
+        final int estimate = projection.estimate(completed);
+        if (estimate == Integer.MAX_VALUE) {
+            return false;
+        }
+        node.heuristic = estimate * meanDuration;
+        return true;
+    }
+
+    /**
+     * Returns the successors of a node: the nodes where an action of higher index than the last one started at the
+     * time of the node starts, and the node where the time advances.
+     */
+    private List<Node> successors(Node node) {
+        final List<Node> res = new ArrayList<>();
+        for (GroundDurativeAction action : problem.getActions().subList(node.lastStarted + 1,
+            problem.getActions().size())) {
+            final Node next = start(node, action);
+            if (next != null) {
+                res.add(next);
+            }
+        }
+        if (node.running.length > 0) {
+            final Node next = advance(node);
+            if (next != null) {
+                res.add(next);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns the node reached by starting an action at the time of a node, null if the action cannot start.
+     */
+    private Node start(Node node, GroundDurativeAction action) {
+        if (!action.getAtStart().isSatisfied(node.facts) || !projection.isWorth(node.facts, action)) {
+            return null;
+        }
+        final double duration = action.getDuration(node.values);
+        if (!(duration >= 0) || Double.isInfinite(duration)) {
+            return null;
+        }
+        final BitSet facts = (BitSet) node.facts.clone();
+        double[] values = action.getStartEffect().apply(facts, node.values);
+        if (!action.getOverAll().isSatisfied(facts) || !holdInvariants(node.running, facts)) {
+            return null;
+        }
+        final Running started = new Running(action, node.time, node.time + duration);
+        Running[] running = node.running;
+        if (duration == 0) {
+            if (!action.getAtEnd().isSatisfied(facts)) {
+                return null;
+            }
+            values = action.getEndEffect().apply(facts, values);
+            if (!holdInvariants(running, facts)) {
+                return null;
+            }
+        } else {
+            running = Arrays.copyOf(running, running.length + 1);
+            int i = running.length - 1;
+            while (i > 0 && running[i - 1].end > started.end) {
+                running[i] = running[i - 1];
+                i--;
+            }
+            running[i] = started;
+        }
+        return new Node(facts, values, node.time, running, action.getIndex(), node, started);
+    }
+
+    /**
+     * Returns the node reached by ending the running actions ending first, null if one of them cannot end.
+     */
+    private Node advance(Node node) {
+        final double end = node.running[0].end;
+        final BitSet facts = (BitSet) node.facts.clone();
+        double[] values = node.values;
+        int ended = 0;
+        while (ended < node.running.length && node.running[ended].end - end < EPSILON / 2) {
+            final GroundDurativeAction action = node.running[ended].action;
+            if (!action.getAtEnd().isSatisfied(facts)) {
+                return null;
+            }
+            values = action.getEndEffect().apply(facts, values);
+            ended++;
+        }
+        final Running[] running = Arrays.copyOfRange(node.running, ended, node.running.length);
+        if (!holdInvariants(running, facts)) {
+            return null;
+        }
+        return new Node(facts, values, Math.max(node.time, end + EPSILON), running, -1, node, null);
+    }
+
+    /**
+     * Returns if the conditions over all of the running actions hold.
+     */
+    private static boolean holdInvariants(Running[] running, BitSet facts) {
+        for (Running r : running) {
+            if (!r.action.getOverAll().isSatisfied(facts)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the plan of the actions started along the path to a node.
+     */
+    private static TimedPlan extractPlan(Node node) {
+        final TimedPlan plan = new TimedPlan();
+        for (Node n = node; n != null; n = n.parent) {
+            if (n.started != null) {
+                plan.add(n.started.start, n.started.action.toString(), n.started.end - n.started.start);
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,150 @@
+package esl.temporal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A plan whose actions start at given times and last for given durations, possibly at the same time.
+ *
+ * <p>The plan is written in the format of the plans handed to PlanSys2, one action per line in order of start time,
+ * e.g., {@code 0.00030:    (fill-box r1 b1 medicine depot) [1.00000]}.</p>
+ */
+public final class TimedPlan {
+
+    /**
+     * An action of the plan with its start time and its duration.
+     */
+    public static final class TimedAction {
+
+        /**
+         * The start time of the action.
+         */
+        private final double start;
+
+        /**
+         * The action without parentheses.
+         */
+        private final String action;
+
+        /**
+         * The duration of the action.
+         */
+        private final double duration;
+
+        /**
+         * Creates a new timed action.
+         *
+         * @param start    the start time of the action.
+         * @param action   the action without parentheses, e.g., {@code fill-box r1 b1 medicine depot}.
+         * @param duration the duration of the action.
+         */
+        public TimedAction(double start, String action, double duration) {
+            this.start = start;
+            this.action = action;
+            this.duration = duration;
+        }
+
+        /**
+         * Returns the start time of the action.
+         *
+         * @return the start time of the action.
+         */
+        public double getStart() {
+            return start;
+        }
+
+        /**
+         * Returns the action without parentheses, e.g., {@code fill-box r1 b1 medicine depot}.
+         *
+         * @return the action without parentheses.
+         */
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * Returns the duration of the action.
+         *
+         * @return the duration of the action.
+         */
+        public double getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the end time of the action.
+         *
+         * @return the start time plus the duration of the action.
+         */
+        public double getEnd() {
+            return start + duration;
+        }
+    }
+
+    /**
+     * The actions of the plan, in order of addition.
+     */
+    private final List<TimedAction> actions = new ArrayList<>();
+
+    /**
+     * Adds an action to the plan.
+     *
+     * @param start    the start time of the action.
+     * @param action   the action without parentheses, e.g., {@code fill-box r1 b1 medicine depot}.
+     * @param duration the duration of the action.
+     */
+    public void add(double start, String action, double duration) {
+        actions.add(new TimedAction(start, action, duration));
+    }
+
+    /**
+     * Returns the actions of the plan in order of start time.
+     *
+     * @return an unmodifiable list of the actions in order of start time.
+     */
+    public List<TimedAction> getActions() {
+        final List<TimedAction> res = new ArrayList<>(actions);
+        res.sort(Comparator.comparingDouble(TimedAction::getStart));
+        return Collections.unmodifiableList(res);
+    }
+
+    /**
+     * Returns the number of actions of the plan.
+     *
+     * @return the number of actions of the plan.
+     */
+    public int size() {
+        return actions.size();
+    }
+
+    /**
+     * Returns if the plan has no action.
+     *
+     * @return <code>true</code> if the plan has no action, <code>false</code> otherwise.
+     */
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    /**
+     * Returns the makespan of the plan, i.e., the time at which its last action ends.
+     *
+     * @return the makespan of the plan, 0 if the plan is empty.
+     */
+    public double getMakespan() {
+        return actions.stream().mapToDouble(TimedAction::getEnd).max().orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder str = new StringBuilder();
+        for (TimedAction a : getActions()) {
+            str.append(String.format(Locale.ROOT, "%-12s(%s) [%.5f]%n",
+                String.format(Locale.ROOT, "%.5f:", a.getStart()), a.getAction(), a.getDuration()));
+        }
+        return str.toString();
+    }
+}
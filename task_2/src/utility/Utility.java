@@ -30,12 +30,12 @@ public final class Utility {
                     if ("satisfied-with-at-least-one".equals(p.getName())) {
                         // If the predicate is "satisfied-with-at-least-one," there are two objects
                         return Stream.of(
-                                p.getArguments().get(1).clone(),
-                                p.getArguments().get(2).clone()
+                                p.getArgument(1),
+                                p.getArgument(2)
                         );
                     } else {
                         // Otherwise, return only the second argument
-                        return Stream.of(p.getArguments().get(1).clone());
+                        return Stream.of(p.getArgument(1));
                     }
                 })
                 .collect(Collectors.toList());